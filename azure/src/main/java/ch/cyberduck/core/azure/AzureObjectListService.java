@@ -26,6 +26,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
@@ -40,7 +41,6 @@ import java.net.URISyntaxException;
 import java.util.EnumSet;
 
 import com.microsoft.azure.storage.OperationContext;
-import com.microsoft.azure.storage.ResultContinuation;
 import com.microsoft.azure.storage.ResultSegment;
 import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.blob.BlobListingDetails;
@@ -69,45 +69,60 @@ public class AzureObjectListService implements ListService {
         try {
             final CloudBlobContainer container = session.getClient().getContainerReference(containerService.getContainer(directory).getName());
             final AttributedList<Path> children = new AttributedList<>();
-            ResultContinuation token = null;
-            ResultSegment<ListBlobItem> result;
-            String prefix = StringUtils.EMPTY;
-            if(!containerService.isContainer(directory)) {
-                prefix = containerService.getKey(directory);
-                if(!prefix.endsWith(String.valueOf(Path.DELIMITER))) {
-                    prefix += Path.DELIMITER;
-                }
+            final String prefix;
+            if(containerService.isContainer(directory)) {
+                prefix = StringUtils.EMPTY;
+            }
+            else {
+                final String key = containerService.getKey(directory);
+                prefix = key.endsWith(String.valueOf(Path.DELIMITER)) ? key : key + Path.DELIMITER;
             }
             boolean hasDirectoryPlaceholder = containerService.isContainer(directory);
-            do {
-                final BlobRequestOptions options = new BlobRequestOptions();
-                result = container.listBlobsSegmented(prefix, false, EnumSet.noneOf(BlobListingDetails.class),
-                        new HostPreferences(session.getHost()).getInteger("azure.listing.chunksize"), token, options, context);
-                for(ListBlobItem object : result.getResults()) {
-                    if(new SimplePathPredicate(new Path(object.getUri().getPath(), EnumSet.of(Path.Type.directory))).test(directory)) {
-                        hasDirectoryPlaceholder = true;
-                        continue;
+            try (PrefetchingPager<ResultSegment<ListBlobItem>> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<ResultSegment<ListBlobItem>>() {
+                @Override
+                public ResultSegment<ListBlobItem> fetch(final ResultSegment<ListBlobItem> previous) throws BackgroundException {
+                    try {
+                        final BlobRequestOptions options = new BlobRequestOptions();
+                        return container.listBlobsSegmented(prefix, false, EnumSet.noneOf(BlobListingDetails.class),
+                                new HostPreferences(session.getHost()).getInteger("azure.listing.chunksize"),
+                                null == previous ? null : previous.getContinuationToken(), options, context);
                     }
-                    final PathAttributes attributes = new PathAttributes();
-                    if(object instanceof CloudBlob) {
-                        final CloudBlob blob = (CloudBlob) object;
-                        attributes.setSize(blob.getProperties().getLength());
-                        attributes.setModificationDate(blob.getProperties().getLastModified().getTime());
-                        attributes.setETag(blob.getProperties().getEtag());
-                        if(StringUtils.isNotBlank(blob.getProperties().getContentMD5())) {
-                            attributes.setChecksum(Checksum.parse(Hex.encodeHexString(Base64.decodeBase64(blob.getProperties().getContentMD5()))));
+                    catch(StorageException e) {
+                        throw new AzureExceptionMappingService().map("Listing directory {0} failed", e, directory);
+                    }
+                }
+
+                @Override
+                public boolean hasNext(final ResultSegment<ListBlobItem> page) {
+                    return page.getHasMoreResults();
+                }
+            })) {
+                while(pager.hasNext()) {
+                    final ResultSegment<ListBlobItem> result = pager.next();
+                    for(ListBlobItem object : result.getResults()) {
+                        if(new SimplePathPredicate(new Path(object.getUri().getPath(), EnumSet.of(Path.Type.directory))).test(directory)) {
+                            hasDirectoryPlaceholder = true;
+                            continue;
+                        }
+                        final PathAttributes attributes = new PathAttributes();
+                        if(object instanceof CloudBlob) {
+                            final CloudBlob blob = (CloudBlob) object;
+                            attributes.setSize(blob.getProperties().getLength());
+                            attributes.setModificationDate(blob.getProperties().getLastModified().getTime());
+                            attributes.setETag(blob.getProperties().getEtag());
+                            if(StringUtils.isNotBlank(blob.getProperties().getContentMD5())) {
+                                attributes.setChecksum(Checksum.parse(Hex.encodeHexString(Base64.decodeBase64(blob.getProperties().getContentMD5()))));
+                            }
                         }
+                        // A directory is designated by a delimiter character.
+                        final EnumSet<Path.Type> types = object instanceof CloudBlobDirectory
+                                ? EnumSet.of(Path.Type.directory, Path.Type.placeholder) : EnumSet.of(Path.Type.file);
+                        final Path child = new Path(directory, PathNormalizer.name(object.getUri().getPath()), types, attributes);
+                        children.add(child);
                     }
-                    // A directory is designated by a delimiter character.
-                    final EnumSet<Path.Type> types = object instanceof CloudBlobDirectory
-                            ? EnumSet.of(Path.Type.directory, Path.Type.placeholder) : EnumSet.of(Path.Type.file);
-                    final Path child = new Path(directory, PathNormalizer.name(object.getUri().getPath()), types, attributes);
-                    children.add(child);
+                    listener.chunk(directory, children);
                 }
-                listener.chunk(directory, children);
-                token = result.getContinuationToken();
             }
-            while(result.getHasMoreResults());
             if(!hasDirectoryPlaceholder && children.isEmpty()) {
                 throw new NotfoundException(directory.getAbsolute());
             }
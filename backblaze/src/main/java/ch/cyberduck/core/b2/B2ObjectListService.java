@@ -25,6 +25,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.preferences.HostPreferences;
@@ -66,25 +67,44 @@ public class B2ObjectListService implements ListService {
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
-        try {
-            final AttributedList<Path> objects = new AttributedList<>();
-            Marker marker = new Marker(this.createPrefix(directory), null);
-            final String containerId = fileid.getVersionId(containerService.getContainer(directory), new DisabledListProgressListener());
-            // Seen placeholders
-            final Map<String, Long> revisions = new HashMap<>();
-            boolean hasDirectoryPlaceholder = containerService.isContainer(directory);
-            do {
+        final AttributedList<Path> objects = new AttributedList<>();
+        final String containerId = fileid.getVersionId(containerService.getContainer(directory), new DisabledListProgressListener());
+        // Seen placeholders
+        final Map<String, Long> revisions = new HashMap<>();
+        boolean hasDirectoryPlaceholder = containerService.isContainer(directory);
+        try (PrefetchingPager<B2ListFilesResponse> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<B2ListFilesResponse>() {
+            @Override
+            public B2ListFilesResponse fetch(final B2ListFilesResponse previous) throws BackgroundException {
+                final Marker marker = null == previous ? new Marker(createPrefix(directory), null)
+                        : new Marker(previous.getNextFileName(), previous.getNextFileId());
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("List directory %s with marker %s", directory, marker));
                 }
-                // In alphabetical order by file name, and by reverse of date/time uploaded for
-                // versions of files with the same name.
-                final B2ListFilesResponse response = session.getClient().listFileVersions(
-                        containerId,
-                        marker.nextFilename, marker.nextFileId, chunksize,
-                        this.createPrefix(directory),
-                        String.valueOf(Path.DELIMITER));
-                marker = this.parse(directory, objects, response, revisions);
+                try {
+                    // In alphabetical order by file name, and by reverse of date/time uploaded for
+                    // versions of files with the same name.
+                    return session.getClient().listFileVersions(
+                            containerId,
+                            marker.nextFilename, marker.nextFileId, chunksize,
+                            createPrefix(directory),
+                            String.valueOf(Path.DELIMITER));
+                }
+                catch(B2ApiException e) {
+                    throw new B2ExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext(final B2ListFilesResponse page) {
+                return null != page.getNextFileName();
+            }
+        })) {
+            while(pager.hasNext()) {
+                final B2ListFilesResponse response = pager.next();
+                final Marker marker = this.parse(directory, objects, response, revisions);
                 if(null == marker.nextFileId) {
                     if(!response.getFiles().isEmpty()) {
                         hasDirectoryPlaceholder = true;
@@ -92,18 +112,11 @@ public class B2ObjectListService implements ListService {
                 }
                 listener.chunk(directory, objects);
             }
-            while(marker.hasNext());
-            if(!hasDirectoryPlaceholder && objects.isEmpty()) {
-                throw new NotfoundException(directory.getAbsolute());
-            }
-            return objects;
-        }
-        catch(B2ApiException e) {
-            throw new B2ExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
         }
-        catch(IOException e) {
-            throw new DefaultIOExceptionMappingService().map(e);
+        if(!hasDirectoryPlaceholder && objects.isEmpty()) {
+            throw new NotfoundException(directory.getAbsolute());
         }
+        return objects;
     }
 
     private String createPrefix(final Path directory) {
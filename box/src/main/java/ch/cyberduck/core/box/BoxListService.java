@@ -20,6 +20,7 @@ import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.box.io.swagger.client.ApiException;
 import ch.cyberduck.core.box.io.swagger.client.JSON;
 import ch.cyberduck.core.box.io.swagger.client.api.FoldersApi;
@@ -59,47 +60,61 @@ public class BoxListService implements ListService {
     protected AttributedList<Path> list(final Path directory, final ListProgressListener listener, final int chunksize) throws BackgroundException {
         try {
             final AttributedList<Path> list = new AttributedList<>();
-            int offset = 0;
-            Items items;
-            do {
-                items = new FoldersApi(new BoxApiClient(session.getClient())).getFoldersIdItems(directory.isRoot() ? "0" :
-                                fileid.getFileId(directory, listener),
-                        BoxAttributesFinderFeature.DEFAULT_FIELDS, false, null, (long) offset, (long) chunksize,
-                        StringUtils.EMPTY, StringUtils.EMPTY, StringUtils.EMPTY);
-                for(Object entry : items.getEntries()) {
-                    if(!(entry instanceof Map)) {
-                        log.error(String.format("Unexpected entry %s", entry));
-                        continue;
+            final String id = directory.isRoot() ? "0" : fileid.getFileId(directory, listener);
+            try (PrefetchingPager<Items> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<Items>() {
+                private int offset = 0;
+
+                @Override
+                public Items fetch(final Items previous) throws BackgroundException {
+                    try {
+                        final Items items = new FoldersApi(new BoxApiClient(session.getClient())).getFoldersIdItems(id,
+                                BoxAttributesFinderFeature.DEFAULT_FIELDS, false, null, (long) offset, (long) chunksize,
+                                StringUtils.EMPTY, StringUtils.EMPTY, StringUtils.EMPTY);
+                        offset += chunksize;
+                        return items;
                     }
-                    final Object type = ((Map) entry).get("type");
-                    if(!(type instanceof String)) {
-                        log.error(String.format("Missing type %s", type));
-                        continue;
+                    catch(ApiException e) {
+                        throw new BoxExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
                     }
-                    switch(type.toString()) {
-                        case "file":
-                            final File file = new JSON().getContext(null).readValue(new JSON().getContext(null)
-                                    .writeValueAsString(entry), File.class);
-                            list.add(new Path(directory, file.getName(), EnumSet.of(Path.Type.file),
-                                    attributes.toAttributes(file)));
-                            break;
-                        case "folder":
-                            final Folder folder = new JSON().getContext(null).readValue(new JSON().getContext(null)
-                                    .writeValueAsString(entry), Folder.class);
-                            list.add(new Path(directory, folder.getName(), EnumSet.of(Path.Type.directory),
-                                    attributes.toAttributes(folder)));
-                            break;
+                }
+
+                @Override
+                public boolean hasNext(final Items page) {
+                    return page.getEntries().size() == chunksize;
+                }
+            })) {
+                while(pager.hasNext()) {
+                    final Items items = pager.next();
+                    for(Object entry : items.getEntries()) {
+                        if(!(entry instanceof Map)) {
+                            log.error(String.format("Unexpected entry %s", entry));
+                            continue;
+                        }
+                        final Object type = ((Map) entry).get("type");
+                        if(!(type instanceof String)) {
+                            log.error(String.format("Missing type %s", type));
+                            continue;
+                        }
+                        switch(type.toString()) {
+                            case "file":
+                                final File file = new JSON().getContext(null).readValue(new JSON().getContext(null)
+                                        .writeValueAsString(entry), File.class);
+                                list.add(new Path(directory, file.getName(), EnumSet.of(Path.Type.file),
+                                        attributes.toAttributes(file)));
+                                break;
+                            case "folder":
+                                final Folder folder = new JSON().getContext(null).readValue(new JSON().getContext(null)
+                                        .writeValueAsString(entry), Folder.class);
+                                list.add(new Path(directory, folder.getName(), EnumSet.of(Path.Type.directory),
+                                        attributes.toAttributes(folder)));
+                                break;
+                        }
+                        listener.chunk(directory, list);
                     }
-                    listener.chunk(directory, list);
                 }
-                offset += chunksize;
             }
-            while(items.getEntries().size() == chunksize);
             return list;
         }
-        catch(ApiException e) {
-            throw new BoxExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
-        }
         catch(JsonProcessingException e) {
             throw new DefaultIOExceptionMappingService().map("Listing directory {0} failed", e, directory);
         }
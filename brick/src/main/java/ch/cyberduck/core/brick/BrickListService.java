@@ -19,6 +19,7 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.brick.io.swagger.client.ApiException;
 import ch.cyberduck.core.brick.io.swagger.client.api.FoldersApi;
 import ch.cyberduck.core.brick.io.swagger.client.model.FileEntity;
@@ -47,32 +48,44 @@ public class BrickListService implements ListService {
     }
 
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener, final int chunksize) throws BackgroundException {
-        try {
-            final AttributedList<Path> children = new AttributedList<>();
-            String cursor = null;
-            List<FileEntity> response;
-            final BrickApiClient client = new BrickApiClient(session);
-            do {
-                response = new FoldersApi(client).foldersListForPath(StringUtils.removeStart(directory.getAbsolute(), String.valueOf(Path.DELIMITER)),
-                        cursor, chunksize, null, null, null, null, null, null);
+        final AttributedList<Path> children = new AttributedList<>();
+        final BrickApiClient client = new BrickApiClient(session);
+        try (PrefetchingPager<List<FileEntity>> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<List<FileEntity>>() {
+            private String cursor = null;
+
+            @Override
+            public List<FileEntity> fetch(final List<FileEntity> previous) throws BackgroundException {
+                try {
+                    final List<FileEntity> response = new FoldersApi(client).foldersListForPath(StringUtils.removeStart(directory.getAbsolute(), String.valueOf(Path.DELIMITER)),
+                            cursor, chunksize, null, null, null, null, null, null);
+                    if(client.getResponseHeaders().containsKey("X-Files-Cursor")) {
+                        final Optional<String> header = client.getResponseHeaders().get("X-Files-Cursor").stream().findFirst();
+                        cursor = header.orElse(null);
+                    }
+                    else {
+                        cursor = null;
+                    }
+                    return response;
+                }
+                catch(ApiException e) {
+                    throw new BrickExceptionMappingService().map("Listing directory {0} failed", e, directory);
+                }
+            }
+
+            @Override
+            public boolean hasNext(final List<FileEntity> page) {
+                return cursor != null;
+            }
+        })) {
+            while(pager.hasNext()) {
+                final List<FileEntity> response = pager.next();
                 for(FileEntity entity : response) {
                     children.add(new Path(directory, entity.getDisplayName(), EnumSet.of("directory".equals(entity.getType()) ? Path.Type.directory : Path.Type.file),
                             attributes.toAttributes(entity)));
                 }
-                if(client.getResponseHeaders().containsKey("X-Files-Cursor")) {
-                    final Optional<String> header = client.getResponseHeaders().get("X-Files-Cursor").stream().findFirst();
-                    cursor = header.orElse(null);
-                }
-                else {
-                    cursor = null;
-                }
                 listener.chunk(directory, children);
             }
-            while(cursor != null);
-            return children;
-        }
-        catch(ApiException e) {
-            throw new BrickExceptionMappingService().map("Listing directory {0} failed", e, directory);
         }
+        return children;
     }
 }
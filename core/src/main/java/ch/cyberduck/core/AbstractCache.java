@@ -23,28 +23,75 @@ import ch.cyberduck.core.cache.LRUCache;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.RemovalNotification;
 
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = LogManager.getLogger(AbstractCache.class);
 
     private final LRUCache<T, AttributedList<T>> impl;
 
+    /**
+     * Index of all children in cached directory listings by reference
+     */
+    private final Map<CacheReference<?>, IndexEntry<T>> index = new ConcurrentHashMap<>();
+    /**
+     * Keys added to index for each cached directory listing. Children may be modified after being cached and no longer
+     * match the key they were indexed with.
+     */
+    private final Map<AttributedList<T>, Set<CacheReference<?>>> keys = Collections.synchronizedMap(new IdentityHashMap<>());
+
     public AbstractCache(int size) {
         if(size == Integer.MAX_VALUE) {
             // Unlimited
-            impl = LRUCache.build();
+            impl = LRUCache.build(this::removed);
         }
         else {
             // Will inflate to the given size
-            impl = LRUCache.build(size);
+            impl = LRUCache.build(this::removed, size);
         }
     }
 
+    /**
+     * Remove children of directory listing replaced, removed or evicted from cache from index
+     */
+    private void removed(final RemovalNotification<T, AttributedList<T>> notification) {
+        final AttributedList<T> removed = notification.getValue();
+        if(null == removed) {
+            return;
+        }
+        if(removed == impl.get(notification.getKey())) {
+            // Same listing cached again
+            return;
+        }
+        final Set<CacheReference<?>> inserted = keys.remove(removed);
+        if(null == inserted) {
+            return;
+        }
+        for(CacheReference<?> key : inserted) {
+            // Keep entry when child is contained in directory listing cached for another parent
+            index.computeIfPresent(key, (reference, entry) -> entry.list == removed ? null : entry);
+        }
+    }
+
+    /**
+     * @param reference Must match reference of child as returned by {@link #reference(Referenceable)}
+     * @return Null if not found
+     */
     @Override
     public T lookup(final CacheReference<T> reference) {
-        for(AttributedList<T> entry : impl.asMap().values()) {
-            final T f = entry.find(reference);
+        final IndexEntry<T> entry = index.get(reference);
+        if(null != entry && reference.test(entry.value)) {
+            return entry.value;
+        }
+        // Child modified after being cached is not found in index
+        for(AttributedList<T> list : impl.asMap().values()) {
+            final T f = list.find(reference);
             if(null == f) {
                 continue;
             }
@@ -123,6 +170,13 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
             log.debug(String.format("Caching %s", reference));
         }
         final AttributedList<T> replaced = impl.get(reference);
+        // Record keys prior caching listing to allow removal when evicted
+        final Set<CacheReference<?>> inserted = keys.computeIfAbsent(children, list -> ConcurrentHashMap.newKeySet());
+        for(T f : children) {
+            final CacheReference<?> key = this.reference(f);
+            inserted.add(key);
+            index.put(key, new IndexEntry<>(children, f));
+        }
         impl.put(reference, children);
         if(null == replaced) {
             // Not previously in cache
@@ -170,6 +224,8 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
             log.info(String.format("Clear cache %s", this));
         }
         impl.clear();
+        index.clear();
+        keys.clear();
     }
 
     @Override
@@ -179,4 +235,17 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         sb.append('}');
         return sb.toString();
     }
+
+    private static final class IndexEntry<T extends Referenceable> {
+        /**
+         * Directory listing containing value
+         */
+        private final AttributedList<T> list;
+        private final T value;
+
+        public IndexEntry(final AttributedList<T> list, final T value) {
+            this.list = list;
+            this.value = value;
+        }
+    }
 }
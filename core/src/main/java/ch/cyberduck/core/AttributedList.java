@@ -18,20 +18,31 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.transfer.TransferItem;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.RandomAccess;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
- * A sortable list with a map to lookup values by key.
+ * A sortable list with a map to lookup values by key. Appending is amortized constant time. Lookup by element
+ * is constant time using an index built on first use. Iteration and conversion operate on a snapshot of the
+ * contents at the time of the read and are not affected by concurrent modifications.
  */
 public class AttributedList<E extends Referenceable> implements Iterable<E> {
     private static final Logger log = LogManager.getLogger(AttributedList.class);
@@ -53,8 +64,23 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         }
     };
 
-    private final List<E> impl
-            = new CopyOnWriteArrayList<>();
+    /**
+     * Elements up to size. Appended in place but replaced with a copy on any other modification as the
+     * array is shared with snapshots.
+     */
+    private Object[] elements = new Object[10];
+    private int size = 0;
+
+    /**
+     * Positions of elements by path which is not changed when attributes of an element are modified. Null
+     * if not yet built or invalidated by structural modification.
+     */
+    private Map<Object, List<Integer>> index;
+
+    /**
+     * Read only view of contents. Null if invalidated by modification
+     */
+    private volatile List<E> snapshot;
 
     /**
      * Metadata of file listing
@@ -92,12 +118,28 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return attributes;
     }
 
-    public boolean add(final E e) {
-        return impl.add(e);
+    public synchronized boolean add(final E e) {
+        if(size == elements.length) {
+            elements = Arrays.copyOf(elements, size + (size >> 1) + 1);
+        }
+        // Position beyond size of any snapshot
+        elements[size++] = e;
+        if(index != null) {
+            this.index(e, size - 1);
+        }
+        snapshot = null;
+        return true;
     }
 
-    public void add(final int index, final E e) {
-        impl.add(index, e);
+    public synchronized void add(final int index, final E e) {
+        if(index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+        }
+        final Object[] copy = new Object[size + 1];
+        System.arraycopy(elements, 0, copy, 0, index);
+        copy[index] = e;
+        System.arraycopy(elements, index, copy, index + 1, size - index);
+        this.replace(copy, size + 1);
     }
 
     public boolean addAll(final Iterable<? extends E> c) {
@@ -107,25 +149,34 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return true;
     }
 
-    public E get(final int index) {
-        return impl.get(index);
+    @SuppressWarnings("unchecked")
+    public synchronized E get(final int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+        }
+        return (E) elements[index];
     }
 
-    public E get(final E reference) {
-        final int index = impl.indexOf(reference);
+    public synchronized E get(final E reference) {
+        final int index = this.indexOf(reference);
         if(-1 == index) {
             return null;
         }
-        return impl.get(index);
+        return this.get(index);
     }
 
-    public void set(final int i, final E e) {
-        impl.set(i, e);
+    public synchronized void set(final int i, final E e) {
+        if(i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, size));
+        }
+        final Object[] copy = Arrays.copyOf(elements, size);
+        copy[i] = e;
+        this.replace(copy, size);
     }
 
     @Override
     public Iterator<E> iterator() {
-        return impl.iterator();
+        return this.snapshot().iterator();
     }
 
     /**
@@ -154,7 +205,7 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      * @return Filtered list sorted with comparator. Does not modify this list but returns a copy instead.
      */
     public AttributedList<E> filter(final Comparator<E> comparator, final Filter<E> filter) {
-        return this.filter(new AttributedList<>(impl), comparator, filter);
+        return this.filter(new AttributedList<>(this.snapshot()), comparator, filter);
     }
 
     /**
@@ -163,18 +214,29 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      * @param filter     Filter
      * @return Filtered list
      */
+    @SuppressWarnings("unchecked")
     public AttributedList<E> filter(final AttributedList<E> filtered, final Comparator<E> comparator, final Filter<E> filter) {
-        if(null != comparator) {
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Sort list %s with comparator %s", this, comparator));
+        synchronized(filtered) {
+            final Object[] copy = Arrays.copyOf(filtered.elements, filtered.size);
+            if(null != comparator) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Sort list %s with comparator %s", this, comparator));
+                }
+                Arrays.sort(copy, (o1, o2) -> comparator.compare((E) o1, (E) o2));
             }
-            filtered.impl.sort(comparator);
-        }
-        if(null != filter) {
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Filter list %s with filter %s", this, filter));
+            int length = copy.length;
+            if(null != filter) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Filter list %s with filter %s", this, filter));
+                }
+                length = 0;
+                for(Object e : copy) {
+                    if(filter.accept((E) e)) {
+                        copy[length++] = e;
+                    }
+                }
             }
-            filtered.impl.removeIf(e -> !filter.accept(e));
+            filtered.replace(copy, length);
         }
         return filtered;
     }
@@ -182,54 +244,171 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     /**
      * Clear the list and all references.
      */
-    public void clear() {
-        impl.clear();
+    public synchronized void clear() {
+        this.replace(new Object[10], 0);
     }
 
-    public boolean isEmpty() {
-        return impl.isEmpty();
+    public synchronized boolean isEmpty() {
+        return 0 == size;
     }
 
-    public int size() {
-        return impl.size();
+    public synchronized int size() {
+        return size;
     }
 
     public boolean contains(final E e) {
-        return impl.contains(e);
+        return this.indexOf(e) != -1;
     }
 
     public E find(final Predicate<E> predicate) {
-        final Optional<E> optional = impl.stream().filter(predicate).findFirst();
+        final Optional<E> optional = this.snapshot().stream().filter(predicate).findFirst();
         return optional.orElse(null);
     }
 
     @SuppressWarnings("unchecked")
     public E[] toArray() {
-        return (E[]) impl.toArray(new Referenceable[impl.size()]);
+        final List<E> snapshot = this.snapshot();
+        return (E[]) snapshot.toArray(new Referenceable[snapshot.size()]);
     }
 
+    /**
+     * @return Read only snapshot of current contents
+     */
     public List<E> toList() {
-        return impl;
+        return this.snapshot();
     }
 
     public Stream<E> toStream() {
-        return impl.parallelStream();
+        return this.snapshot().parallelStream();
     }
 
-    public int indexOf(final E e) {
-        return impl.indexOf(e);
+    public synchronized int indexOf(final E e) {
+        if(null == index) {
+            index = new HashMap<>(size);
+            for(int i = 0; i < size; i++) {
+                this.index(elements[i], i);
+            }
+        }
+        final List<Integer> positions = index.get(key(e));
+        if(null == positions) {
+            return -1;
+        }
+        for(int i : positions) {
+            if(Objects.equals(elements[i], e)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
-    public void remove(final int index) {
-        impl.remove(index);
+    public synchronized void remove(final int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+        }
+        final Object[] copy = new Object[size - 1];
+        System.arraycopy(elements, 0, copy, 0, index);
+        System.arraycopy(elements, index + 1, copy, index, size - index - 1);
+        this.replace(copy, size - 1);
     }
 
-    public boolean remove(final E e) {
-        return impl.remove(e);
+    public synchronized boolean remove(final E e) {
+        final int i = this.indexOf(e);
+        if(-1 == i) {
+            return false;
+        }
+        this.remove(i);
+        return true;
     }
 
-    public boolean removeAll(final java.util.Collection<E> e) {
-        return impl.removeAll(e);
+    public synchronized boolean removeAll(final Collection<E> e) {
+        final Object[] copy = new Object[size];
+        int length = 0;
+        for(int i = 0; i < size; i++) {
+            if(!e.contains(elements[i])) {
+                copy[length++] = elements[i];
+            }
+        }
+        if(length == size) {
+            return false;
+        }
+        this.replace(copy, length);
+        return true;
+    }
+
+    private void index(final Object e, final int position) {
+        final Object key = key(e);
+        final List<Integer> positions = index.get(key);
+        if(null == positions) {
+            index.put(key, Collections.singletonList(position));
+        }
+        else {
+            final List<Integer> added = new ArrayList<>(positions);
+            added.add(position);
+            index.put(key, added);
+        }
+    }
+
+    /**
+     * @return Key not changed when attributes or type of element are modified
+     */
+    private static Object key(final Object e) {
+        if(e instanceof Path) {
+            return new NormalizedPath((Path) e);
+        }
+        if(e instanceof TransferItem) {
+            return null == ((TransferItem) e).remote ? e : key(((TransferItem) e).remote);
+        }
+        return e;
+    }
+
+    /**
+     * Replace contents after modification other than append and invalidate index and snapshot
+     */
+    private void replace(final Object[] contents, final int length) {
+        elements = contents;
+        size = length;
+        index = null;
+        snapshot = null;
+    }
+
+    private List<E> snapshot() {
+        List<E> view = snapshot;
+        if(null == view) {
+            synchronized(this) {
+                view = snapshot;
+                if(null == view) {
+                    snapshot = view = new Snapshot<>(elements, size);
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Read only view of elements up to size. Elements in range are never modified in place.
+     */
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+        private final Object[] elements;
+        private final int size;
+
+        public Snapshot(final Object[] elements, final int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(final int index) {
+            if(index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+            }
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 
     @Override
@@ -241,11 +420,11 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
             return false;
         }
         final AttributedList<?> that = (AttributedList<?>) o;
-        return Objects.equals(impl, that.impl);
+        return Objects.equals(this.snapshot(), that.snapshot());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(impl);
+        return Objects.hash(this.snapshot());
     }
 }
@@ -24,31 +24,40 @@ import ch.cyberduck.core.unicode.UnicodeNormalizer;
 import org.apache.commons.lang3.StringUtils;
 
 /**
- * Path predicate that takes the region and version id of the path into account for comparisons.
+ * Path predicate that takes the region and version id of the path into account for comparisons. The hash code and
+ * equality are derived from the parent and name of the path without retaining its absolute path.
  */
 public class DefaultPathPredicate implements CacheReference<Path> {
 
     private static final UnicodeNormalizer normalizer = new NFCNormalizer();
 
-    private final String reference;
+    private final Path.Type type;
+    /**
+     * Region of container or null
+     */
+    private final String region;
+    /**
+     * File id or null
+     */
+    private final String fileId;
+    /**
+     * Version id of file or null
+     */
+    private final String versionId;
+    private final NormalizedPath path;
+
+    /**
+     * Computed on first use
+     */
+    private int hash;
 
     public DefaultPathPredicate(final Path file) {
-        final Path.Type type = file.isSymbolicLink() ? Path.Type.symboliclink : file.isFile() ? Path.Type.file : Path.Type.directory;
-        String qualifier = StringUtils.EMPTY;
-        if(StringUtils.isNotBlank(file.attributes().getRegion())) {
-            if(new DefaultPathContainerService().isContainer(file)) {
-                qualifier += file.attributes().getRegion();
-            }
-        }
-        if(StringUtils.isNotBlank(file.attributes().getFileId())) {
-            qualifier += file.attributes().getFileId();
-        }
-        if(file.isFile()) {
-            if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
-                qualifier += file.attributes().getVersionId();
-            }
-        }
-        reference = "[" + type + "]" + "-" + qualifier + normalizer.normalize(file.getAbsolute());
+        this.type = file.isSymbolicLink() ? Path.Type.symboliclink : file.isFile() ? Path.Type.file : Path.Type.directory;
+        this.region = StringUtils.isNotBlank(file.attributes().getRegion())
+                && new DefaultPathContainerService().isContainer(file) ? file.attributes().getRegion() : null;
+        this.fileId = StringUtils.isNotBlank(file.attributes().getFileId()) ? file.attributes().getFileId() : null;
+        this.versionId = file.isFile() && StringUtils.isNotBlank(file.attributes().getVersionId()) ? file.attributes().getVersionId() : null;
+        this.path = new NormalizedPath(file);
     }
 
     /**
@@ -58,7 +67,15 @@ public class DefaultPathPredicate implements CacheReference<Path> {
      */
     @Override
     public String toString() {
-        return reference;
+        return this.prefix() + path;
+    }
+
+    /**
+     * @return Type and qualifiers
+     */
+    private String prefix() {
+        return "[" + type + "]" + "-"
+                + StringUtils.defaultString(region) + StringUtils.defaultString(fileId) + StringUtils.defaultString(versionId);
     }
 
     @Override
@@ -66,20 +83,37 @@ public class DefaultPathPredicate implements CacheReference<Path> {
         if(null == o) {
             return false;
         }
+        if(this == o) {
+            return true;
+        }
         if(o instanceof CacheReference) {
             if(this.hashCode() == o.hashCode()) {
-                return reference.equals(o.toString());
+                if(o instanceof DefaultPathPredicate) {
+                    final DefaultPathPredicate other = (DefaultPathPredicate) o;
+                    if(type == other.type
+                            && StringUtils.equals(region, other.region)
+                            && StringUtils.equals(fileId, other.fileId)
+                            && StringUtils.equals(versionId, other.versionId)) {
+                        return path.equals(other.path);
+                    }
+                }
+                return this.toString().equals(o.toString());
             }
         }
         return false;
     }
 
     /**
-     * @return Matches hash code of NSObjectPathReference
+     * @return Matches hash code of NSObjectPathReference and of string representation
      */
     @Override
     public int hashCode() {
-        return reference.hashCode();
+        int h = hash;
+        if(0 == h) {
+            h = NormalizedPath.hash(this.prefix().hashCode(), path.length(), path.hashCode());
+            hash = h;
+        }
+        return h;
     }
 
     @Override
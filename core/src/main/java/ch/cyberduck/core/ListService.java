@@ -21,4 +21,24 @@ import ch.cyberduck.core.exception.BackgroundException;
 
 public interface ListService {
     AttributedList<Path> list(Path directory, ListProgressListener listener) throws BackgroundException;
+
+    /**
+     * @param directory Directory
+     * @return True if all descendants of the directory can be retrieved with a single flat listing
+     */
+    default boolean isRecursive(final Path directory) {
+        return false;
+    }
+
+    /**
+     * List all descendants of directory. Directories are always returned before their children.
+     *
+     * @param directory Directory
+     * @param listener  Callback
+     * @return All files and directories below directory
+     * @see #isRecursive(Path)
+     */
+    default AttributedList<Path> listRecursive(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        return new RecursiveListService(this).list(directory, listener);
+    }
 }
@@ -0,0 +1,136 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.unicode.NFCNormalizer;
+import ch.cyberduck.core.unicode.UnicodeNormalizer;
+
+/**
+ * Unicode normalized absolute path of a file derived from its parent and name. Hash code and equality match the
+ * normalized absolute path string which is not retained.
+ */
+public final class NormalizedPath {
+
+    private static final UnicodeNormalizer normalizer = new NFCNormalizer();
+
+    /**
+     * Parent directory or null for root
+     */
+    private final Path parent;
+    private final String name;
+
+    /**
+     * Computed on first use. Length is set prior hash code.
+     */
+    private volatile int hash;
+    private int length;
+
+    public NormalizedPath(final Path file) {
+        this.parent = file.isRoot() ? null : file.getParent();
+        this.name = file.getName();
+    }
+
+    /**
+     * @return Number of characters in normalized absolute path
+     */
+    public int length() {
+        if(0 == hash) {
+            this.hashCode();
+        }
+        return length;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if(0 == h) {
+            int l = 0;
+            if(null != parent) {
+                final String directory = normalizer.normalize(parent.getAbsolute()).toString();
+                h = directory.hashCode();
+                l = directory.length();
+                if(!parent.isRoot()) {
+                    h = 31 * h + Path.DELIMITER;
+                    l++;
+                }
+            }
+            final String segment = normalizer.normalize(name).toString();
+            // Hash code of string is cached
+            h = hash(h, segment.length(), segment.hashCode());
+            length = l + segment.length();
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * @param h      Hash code of preceding characters
+     * @param length Number of characters appended
+     * @param append Hash code of characters appended
+     * @return Hash code of concatenated string
+     */
+    static int hash(final int h, final int length, final int append) {
+        // Multiply with 31 to the power of the number of characters appended
+        int factor = 1;
+        int base = 31;
+        for(int n = length; n > 0; n >>= 1) {
+            if((n & 1) == 1) {
+                factor *= base;
+            }
+            base *= base;
+        }
+        return h * factor + append;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof NormalizedPath)) {
+            return false;
+        }
+        final NormalizedPath other = (NormalizedPath) o;
+        if(this.hashCode() != other.hashCode()) {
+            return false;
+        }
+        if(name.equals(other.name)) {
+            if(parent == other.parent) {
+                return true;
+            }
+            if(null != parent && null != other.parent && parent.getAbsolute().equals(other.parent.getAbsolute())) {
+                return true;
+            }
+        }
+        // Same path with different split of parent and name or different Unicode normalization
+        return this.toString().equals(other.toString());
+    }
+
+    /**
+     * @return Normalized absolute path
+     */
+    @Override
+    public String toString() {
+        final StringBuilder path = new StringBuilder();
+        if(null != parent) {
+            path.append(normalizer.normalize(parent.getAbsolute()));
+            if(!parent.isRoot()) {
+                path.append(Path.DELIMITER);
+            }
+        }
+        return path.append(normalizer.normalize(name)).toString();
+    }
+}
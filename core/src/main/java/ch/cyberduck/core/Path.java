@@ -20,24 +20,34 @@ package ch.cyberduck.core;
 
 import ch.cyberduck.core.serializer.Serializer;
 
-import org.apache.commons.lang3.StringUtils;
-
 import java.util.EnumSet;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
 public class Path extends AbstractPath implements Referenceable, Serializable {
 
     /**
      * The path delimiter for remote paths
      */
     public static final char DELIMITER = '/';
+    /**
+     * Shared instances of directory names repeated in parent references of many paths
+     */
+    private static final Interner<String> segments = Interners.newWeakInterner();
+
     /**
      * Reference to the parent
      */
     protected Path parent;
     /**
-     * The absolute remote path
+     * The filename relative to the parent or the absolute path for root
      */
-    private String path;
+    private String name;
+    /**
+     * The absolute remote path. Materialized on first use for directories only
+     */
+    private volatile String path;
     /**
      * An absolute reference here the symbolic link is pointing to
      */
@@ -54,6 +64,7 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
 
     public Path(final Path copy) {
         this.parent = copy.parent;
+        this.name = copy.name;
         this.path = copy.path;
         this.symlink = null == copy.symlink ? null : new Path(copy.symlink);
         this.type = EnumSet.copyOf(copy.type);
@@ -131,20 +142,18 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
     private void _setPath(final Path parent, final String name) {
         this.parent = parent;
         if(null == parent) {
+            this.name = name;
             this.path = name;
         }
         else {
-            if(parent.isRoot()) {
-                this.path = parent.getAbsolute() + name;
+            final String segment;
+            if(!parent.isRoot() && name.startsWith(String.valueOf(DELIMITER))) {
+                segment = name.substring(1);
             }
             else {
-                if(name.startsWith(String.valueOf(DELIMITER))) {
-                    this.path = parent.getAbsolute() + name;
-                }
-                else {
-                    this.path = parent.getAbsolute() + Path.DELIMITER + name;
-                }
+                segment = name;
             }
+            this.name = this.isFile() ? segment : segments.intern(segment);
         }
     }
 
@@ -187,6 +196,14 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
         return String.valueOf(DELIMITER).charAt(0);
     }
 
+    @Override
+    public boolean isRoot() {
+        if(null == parent) {
+            return String.valueOf(DELIMITER).equals(name);
+        }
+        return name.isEmpty() && parent.isRoot();
+    }
+
     public Path getParent() {
         if(this.isRoot()) {
             return this;
@@ -215,10 +232,7 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
         if(this.isRoot()) {
             return String.valueOf(DELIMITER);
         }
-        if(parent.isRoot()) {
-            return StringUtils.substringAfter(path, parent.getAbsolute());
-        }
-        return StringUtils.substringAfter(path, parent.getAbsolute() + Path.DELIMITER);
+        return name;
     }
 
     /**
@@ -226,7 +240,22 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      */
     @Override
     public String getAbsolute() {
-        return path;
+        final String cached = path;
+        if(null != cached) {
+            return cached;
+        }
+        final String absolute;
+        if(parent.isRoot()) {
+            absolute = parent.getAbsolute() + name;
+        }
+        else {
+            absolute = parent.getAbsolute() + DELIMITER + name;
+        }
+        if(!this.isFile()) {
+            // Parent and name are not changed after construction. Shared by children as parent reference
+            path = absolute;
+        }
+        return absolute;
     }
 
     /**
@@ -259,6 +288,9 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
         if(null == other) {
             return false;
         }
+        if(this == other) {
+            return true;
+        }
         if(other instanceof Path) {
             return new DefaultPathPredicate(this).equals(new DefaultPathPredicate((Path) other));
         }
@@ -268,7 +300,7 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Path{");
-        sb.append("path='").append(path).append('\'');
+        sb.append("path='").append(this.getAbsolute()).append('\'');
         sb.append(", type=").append(type);
         sb.append('}');
         return sb.toString();
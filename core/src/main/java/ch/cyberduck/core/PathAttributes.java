@@ -32,6 +32,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
 /**
  * Attributes of a remote directory or file.
  */
@@ -41,14 +44,14 @@ public class PathAttributes extends Attributes implements Serializable {
     public static final PathAttributes EMPTY = new PathAttributes();
 
     /**
-     * The file length
+     * Shared instances of owner, group, storage class and region repeated for many files
      */
-    private long size = TransferStatus.UNKNOWN_LENGTH;
+    private static final Interner<String> values = Interners.newWeakInterner();
 
     /**
-     * Quota of folder
+     * The file length
      */
-    private long quota = TransferStatus.UNKNOWN_LENGTH;
+    private long size = TransferStatus.UNKNOWN_LENGTH;
 
     /**
      * The file modification date in milliseconds
@@ -68,28 +71,11 @@ public class PathAttributes extends Attributes implements Serializable {
 
     private Permission permission = Permission.EMPTY;
 
-    private Acl acl = Acl.EMPTY;
-
     /**
      * MD5 checksum
      */
     private Checksum checksum = Checksum.NONE;
 
-    /**
-     * ETag header in HTTP
-     */
-    private String etag;
-
-    /**
-     * Redundancy level if available
-     */
-    private String storageClass;
-
-    /**
-     * Server side encryption (SSE) algorithm and key or null
-     */
-    private Encryption.Algorithm encryption = Encryption.Algorithm.NONE;
-
     /**
      * Unique identifier for a given file. Must remain constant even after updating the file.
      */
@@ -100,93 +86,43 @@ public class PathAttributes extends Attributes implements Serializable {
      */
     private String versionId;
 
-    /**
-     * Lock id
-     */
-    private String lockId;
-
-    /**
-     * Should be hidden in the browser by default
-     */
-    private Boolean duplicate;
-    /**
-     * Hidden flag set on server
-     */
-    private Boolean hidden;
-
-    /**
-     * Revision number
-     */
-    private Long revision;
-
     /**
      * Geographical location
      */
     private String region;
 
     /**
-     *
+     * Attributes not set for most files
      */
-    private String displayname;
-
-    private DescriptiveUrl link = DescriptiveUrl.EMPTY;
-
-    /**
-     * HTTP headers
-     */
-    private Map<String, String> metadata = Collections.emptyMap();
-
-    /**
-     * Cryptomator vault
-     */
-    private Path vault;
-    /**
-     * Cryptomator decrypted path
-     */
-    private Path decrypted;
-    /**
-     * Cryptomator encrypted path.
-     */
-    private Path encrypted;
-    /**
-     * Unique identifier for cryptomator
-     */
-    private String directoryId;
-
-    private Map<String, String> custom = Collections.emptyMap();
+    private Extension extension = Extension.NONE;
 
     public PathAttributes() {
     }
 
     public PathAttributes(final PathAttributes copy) {
         size = copy.size;
-        quota = copy.quota;
         modified = copy.modified;
         accessed = copy.accessed;
         created = copy.created;
         owner = copy.owner;
         group = copy.group;
-        permission = Permission.EMPTY == copy.permission ? Permission.EMPTY : new Permission(copy.permission);
-        acl = Acl.EMPTY == copy.acl ? Acl.EMPTY : new Acl(copy.acl);
+        // Shared instance or subclass
+        permission = copy.permission;
         checksum = Checksum.NONE == copy.checksum ? Checksum.NONE : new Checksum(copy.checksum);
-        etag = copy.etag;
-        storageClass = copy.storageClass;
-        encryption = copy.encryption;
         fileId = copy.fileId;
         versionId = copy.versionId;
-        lockId = copy.lockId;
-        duplicate = copy.duplicate;
-        hidden = copy.hidden;
-        revision = copy.revision;
         region = copy.region;
-        displayname = copy.displayname;
-        link = DescriptiveUrl.EMPTY == copy.link ? DescriptiveUrl.EMPTY : new DescriptiveUrl(copy.link);
-        metadata = new HashMap<>(copy.metadata);
-        custom = new HashMap<>(copy.custom);
-        vault = copy.vault;
-        decrypted = copy.decrypted;
-        encrypted = copy.encrypted;
-        directoryId = copy.directoryId;
+        extension = Extension.NONE == copy.extension ? Extension.NONE : new Extension(copy.extension);
+    }
+
+    /**
+     * @return Extension block allocated for this instance
+     */
+    private Extension extension() {
+        if(Extension.NONE == extension) {
+            extension = new Extension();
+        }
+        return extension;
     }
 
     @Override
@@ -194,8 +130,8 @@ public class PathAttributes extends Attributes implements Serializable {
         if(size != -1) {
             dict.setStringForKey(String.valueOf(size), "Size");
         }
-        if(quota != -1) {
-            dict.setStringForKey(String.valueOf(quota), "Quota");
+        if(extension.quota != -1) {
+            dict.setStringForKey(String.valueOf(extension.quota), "Quota");
         }
         if(modified != -1) {
             dict.setStringForKey(String.valueOf(modified), "Modified");
@@ -203,11 +139,11 @@ public class PathAttributes extends Attributes implements Serializable {
         if(created != -1) {
             dict.setStringForKey(String.valueOf(created), "Created");
         }
-        if(revision != null) {
-            dict.setStringForKey(String.valueOf(revision), "Revision");
+        if(extension.revision != null) {
+            dict.setStringForKey(String.valueOf(extension.revision), "Revision");
         }
-        if(etag != null) {
-            dict.setStringForKey(etag, "ETag");
+        if(extension.etag != null) {
+            dict.setStringForKey(extension.etag, "ETag");
         }
         if(permission != Permission.EMPTY) {
             dict.setObjectForKey(permission, "Permission");
@@ -218,13 +154,13 @@ public class PathAttributes extends Attributes implements Serializable {
         if(group != null) {
             dict.setStringForKey(group, "Group");
         }
-        if(acl != Acl.EMPTY) {
-            dict.setObjectForKey(acl, "Acl");
+        if(extension.acl != Acl.EMPTY) {
+            dict.setObjectForKey(extension.acl, "Acl");
         }
-        if(link != DescriptiveUrl.EMPTY) {
+        if(extension.link != DescriptiveUrl.EMPTY) {
             final Map<String, String> wrapper = new HashMap<>();
-            wrapper.put("Url", link.getUrl());
-            wrapper.put("Type", link.getType().name());
+            wrapper.put("Url", extension.link.getUrl());
+            wrapper.put("Type", extension.link.getType().name());
             dict.setMapForKey(wrapper, "Link");
         }
         if(checksum != Checksum.NONE) {
@@ -239,31 +175,31 @@ public class PathAttributes extends Attributes implements Serializable {
         if(StringUtils.isNotBlank(fileId)) {
             dict.setStringForKey(fileId, "File Id");
         }
-        if(StringUtils.isNotBlank(lockId)) {
-            dict.setStringForKey(lockId, "Lock Id");
+        if(StringUtils.isNotBlank(extension.lockId)) {
+            dict.setStringForKey(extension.lockId, "Lock Id");
         }
-        if(duplicate != null) {
-            dict.setStringForKey(String.valueOf(duplicate), "Duplicate");
+        if(extension.duplicate != null) {
+            dict.setStringForKey(String.valueOf(extension.duplicate), "Duplicate");
         }
-        if(hidden != null) {
-            dict.setStringForKey(String.valueOf(hidden), "Hidden");
+        if(extension.hidden != null) {
+            dict.setStringForKey(String.valueOf(extension.hidden), "Hidden");
         }
         if(StringUtils.isNotBlank(region)) {
             dict.setStringForKey(region, "Region");
         }
-        if(StringUtils.isNotBlank(storageClass)) {
-            dict.setStringForKey(storageClass, "Storage Class");
+        if(StringUtils.isNotBlank(extension.storageClass)) {
+            dict.setStringForKey(extension.storageClass, "Storage Class");
         }
-        if(vault != null) {
-            if(vault.attributes() == this) {
-                log.debug(String.format("Skip serializing vault attribute %s to avoid recursion", vault));
+        if(extension.vault != null) {
+            if(extension.vault.attributes() == this) {
+                log.debug(String.format("Skip serializing vault attribute %s to avoid recursion", extension.vault));
             }
             else {
-                dict.setObjectForKey(vault, "Vault");
+                dict.setObjectForKey(extension.vault, "Vault");
             }
         }
-        if(!custom.isEmpty()) {
-            dict.setMapForKey(custom, "Custom");
+        if(!extension.custom.isEmpty()) {
+            dict.setMapForKey(extension.custom, "Custom");
         }
         return dict.getSerialized();
     }
@@ -289,11 +225,11 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public long getQuota() {
-        return quota;
+        return extension.quota;
     }
 
     public void setQuota(final long quota) {
-        this.quota = quota;
+        this.extension().quota = quota;
     }
 
     public PathAttributes withQuota(final long quota) {
@@ -345,7 +281,7 @@ public class PathAttributes extends Attributes implements Serializable {
      * @param p UNIX permissions
      */
     public void setPermission(final Permission p) {
-        this.permission = p;
+        this.permission = null == p ? null : Permission.shared(p);
     }
 
     public PathAttributes withPermission(final Permission p) {
@@ -354,11 +290,11 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public Acl getAcl() {
-        return acl;
+        return extension.acl;
     }
 
     public void setAcl(final Acl acl) {
-        this.acl = acl;
+        this.extension().acl = acl;
     }
 
     public PathAttributes withAcl(final Acl acl) {
@@ -372,7 +308,7 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public void setOwner(final String o) {
-        this.owner = o;
+        this.owner = null == o ? null : values.intern(o);
     }
 
     @Override
@@ -381,7 +317,7 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public void setGroup(final String g) {
-        this.group = g;
+        this.group = null == g ? null : values.intern(g);
     }
 
     @Override
@@ -399,11 +335,11 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public String getETag() {
-        return etag;
+        return extension.etag;
     }
 
     public void setETag(final String etag) {
-        this.etag = etag;
+        this.extension().etag = etag;
     }
 
     public PathAttributes withETag(final String etag) {
@@ -415,22 +351,22 @@ public class PathAttributes extends Attributes implements Serializable {
      * @return Storage redundancy identifier.
      */
     public String getStorageClass() {
-        return storageClass;
+        return extension.storageClass;
     }
 
     /**
      * @param storageClass Storage redundancy identifier.
      */
     public void setStorageClass(final String storageClass) {
-        this.storageClass = storageClass;
+        this.extension().storageClass = null == storageClass ? null : values.intern(storageClass);
     }
 
     public Encryption.Algorithm getEncryption() {
-        return encryption;
+        return extension.encryption;
     }
 
     public void setEncryption(final Encryption.Algorithm encryption) {
-        this.encryption = encryption;
+        this.extension().encryption = encryption;
     }
 
     /**
@@ -475,11 +411,11 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public String getLockId() {
-        return lockId;
+        return extension.lockId;
     }
 
     public void setLockId(final String lockId) {
-        this.lockId = lockId;
+        this.extension().lockId = lockId;
     }
 
     public PathAttributes withLockId(final String lockId) {
@@ -488,52 +424,52 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public String getDirectoryId() {
-        return directoryId;
+        return extension.directoryId;
     }
 
     public void setDirectoryId(final String directoryId) {
-        this.directoryId = directoryId;
+        this.extension().directoryId = directoryId;
     }
 
     /**
      * @return The incrementing revision number of the file or null if not versioned.
      */
     public Long getRevision() {
-        return revision;
+        return extension.revision;
     }
 
     public void setRevision(final Long revision) {
-        this.revision = revision;
+        this.extension().revision = revision;
     }
 
     /**
      * @return Null if path is missing flag encrypted
      */
     public Path getDecrypted() {
-        return decrypted;
+        return extension.decrypted;
     }
 
     public void setDecrypted(final Path decrypted) {
-        this.decrypted = decrypted;
+        this.extension().decrypted = decrypted;
     }
 
     /**
      * @return Null if path is missing flag decrypted
      */
     public Path getEncrypted() {
-        return encrypted;
+        return extension.encrypted;
     }
 
     public void setEncrypted(final Path encrypted) {
-        this.encrypted = encrypted;
+        this.extension().encrypted = encrypted;
     }
 
     public void setVault(final Path vault) {
-        this.vault = vault;
+        this.extension().vault = vault;
     }
 
     public Path getVault() {
-        return vault;
+        return extension.vault;
     }
 
     /**
@@ -543,7 +479,7 @@ public class PathAttributes extends Attributes implements Serializable {
      * @return True if hidden by default.
      */
     public boolean isDuplicate() {
-        return duplicate != null && duplicate;
+        return extension.duplicate != null && extension.duplicate;
     }
 
     /**
@@ -552,23 +488,23 @@ public class PathAttributes extends Attributes implements Serializable {
      * @param duplicate Flag
      */
     public void setDuplicate(final boolean duplicate) {
-        this.duplicate = duplicate;
+        this.extension().duplicate = duplicate;
     }
 
     public Boolean isHidden() {
-        return hidden != null && hidden;
+        return extension.hidden != null && extension.hidden;
     }
 
     public void setHidden(final boolean hidden) {
-        this.hidden = hidden;
+        this.extension().hidden = hidden;
     }
 
     public Map<String, String> getMetadata() {
-        return metadata;
+        return extension.metadata;
     }
 
     public void setMetadata(final Map<String, String> metadata) {
-        this.metadata = metadata;
+        this.extension().metadata = metadata;
     }
 
     public String getRegion() {
@@ -576,36 +512,37 @@ public class PathAttributes extends Attributes implements Serializable {
     }
 
     public void setRegion(final String region) {
-        this.region = region;
+        this.region = null == region ? null : values.intern(region);
     }
 
     public String getDisplayname() {
-        return displayname;
+        return extension.displayname;
     }
 
     public void setDisplayname(final String displayname) {
-        this.displayname = displayname;
+        this.extension().displayname = displayname;
     }
 
     public DescriptiveUrl getLink() {
-        return link;
+        return extension.link;
     }
 
     public void setLink(final DescriptiveUrl link) {
-        this.link = link;
+        this.extension().link = link;
     }
 
     public Map<String, String> getCustom() {
-        return custom;
+        return extension.custom;
     }
 
     public void setCustom(final Map<String, String> custom) {
-        this.custom = custom;
+        this.extension().custom = custom;
     }
 
     public PathAttributes withCustom(final String key, final String value) {
-        custom = new HashMap<>(custom);
-        custom.put(key, value);
+        final Extension extension = this.extension();
+        extension.custom = new HashMap<>(extension.custom);
+        extension.custom.put(key, value);
         return this;
     }
 
@@ -630,7 +567,7 @@ public class PathAttributes extends Attributes implements Serializable {
         if(!Objects.equals(permission, that.permission)) {
             return false;
         }
-        if(!Objects.equals(acl, that.acl)) {
+        if(!Objects.equals(extension.acl, that.extension.acl)) {
             return false;
         }
         if(!Objects.equals(versionId, that.versionId)) {
@@ -639,13 +576,13 @@ public class PathAttributes extends Attributes implements Serializable {
         if(!Objects.equals(fileId, that.fileId)) {
             return false;
         }
-        if(!Objects.equals(revision, that.revision)) {
+        if(!Objects.equals(extension.revision, that.extension.revision)) {
             return false;
         }
         if(!Objects.equals(region, that.region)) {
             return false;
         }
-        if(!Objects.equals(custom, that.custom)) {
+        if(!Objects.equals(extension.custom, that.extension.custom)) {
             return false;
         }
         return true;
@@ -656,13 +593,13 @@ public class PathAttributes extends Attributes implements Serializable {
         int result = (int) (size ^ (size >>> 32));
         result = 31 * result + (int) (modified ^ (modified >>> 32));
         result = 31 * result + (permission != null ? permission.hashCode() : 0);
-        result = 31 * result + (acl != null ? acl.hashCode() : 0);
+        result = 31 * result + (extension.acl != null ? extension.acl.hashCode() : 0);
         result = 31 * result + (checksum != null ? checksum.hashCode() : 0);
         result = 31 * result + (versionId != null ? versionId.hashCode() : 0);
         result = 31 * result + (fileId != null ? fileId.hashCode() : 0);
-        result = 31 * result + (revision != null ? revision.hashCode() : 0);
+        result = 31 * result + (extension.revision != null ? extension.revision.hashCode() : 0);
         result = 31 * result + (region != null ? region.hashCode() : 0);
-        result = 31 * result + (custom != null ? custom.hashCode() : 0);
+        result = 31 * result + (extension.custom != null ? extension.custom.hashCode() : 0);
         return result;
     }
 
@@ -676,21 +613,126 @@ public class PathAttributes extends Attributes implements Serializable {
         sb.append(", owner='").append(owner).append('\'');
         sb.append(", group='").append(group).append('\'');
         sb.append(", permission=").append(permission);
-        sb.append(", acl=").append(acl);
+        sb.append(", acl=").append(extension.acl);
         sb.append(", checksum='").append(checksum).append('\'');
-        sb.append(", etag='").append(etag).append('\'');
-        sb.append(", storageClass='").append(storageClass).append('\'');
-        sb.append(", encryption='").append(encryption).append('\'');
+        sb.append(", etag='").append(extension.etag).append('\'');
+        sb.append(", storageClass='").append(extension.storageClass).append('\'');
+        sb.append(", encryption='").append(extension.encryption).append('\'');
         sb.append(", versionId='").append(versionId).append('\'');
         sb.append(", fileId='").append(fileId).append('\'');
-        sb.append(", lockId='").append(lockId).append('\'');
-        sb.append(", duplicate=").append(duplicate);
-        sb.append(", hidden=").append(hidden);
-        sb.append(", revision=").append(revision);
+        sb.append(", lockId='").append(extension.lockId).append('\'');
+        sb.append(", duplicate=").append(extension.duplicate);
+        sb.append(", hidden=").append(extension.hidden);
+        sb.append(", revision=").append(extension.revision);
         sb.append(", region='").append(region).append('\'');
-        sb.append(", metadata=").append(metadata).append('\'');
-        sb.append(", custom=").append(custom).append('\'');
+        sb.append(", metadata=").append(extension.metadata).append('\'');
+        sb.append(", custom=").append(extension.custom).append('\'');
         sb.append('}');
         return sb.toString();
     }
+
+    /**
+     * Attributes only set by some protocols or for few files
+     */
+    private static final class Extension {
+        /**
+         * Shared defaults until a value is set. Must not be modified.
+         */
+        private static final Extension NONE = new Extension();
+
+        /**
+         * Quota of folder
+         */
+        private long quota = TransferStatus.UNKNOWN_LENGTH;
+
+        private Acl acl = Acl.EMPTY;
+
+        /**
+         * ETag header in HTTP
+         */
+        private String etag;
+
+        /**
+         * Redundancy level if available
+         */
+        private String storageClass;
+
+        /**
+         * Server side encryption (SSE) algorithm and key or null
+         */
+        private Encryption.Algorithm encryption = Encryption.Algorithm.NONE;
+
+        /**
+         * Lock id
+         */
+        private String lockId;
+
+        /**
+         * Should be hidden in the browser by default
+         */
+        private Boolean duplicate;
+        /**
+         * Hidden flag set on server
+         */
+        private Boolean hidden;
+
+        /**
+         * Revision number
+         */
+        private Long revision;
+
+        /**
+         *
+         */
+        private String displayname;
+
+        private DescriptiveUrl link = DescriptiveUrl.EMPTY;
+
+        /**
+         * HTTP headers
+         */
+        private Map<String, String> metadata = Collections.emptyMap();
+
+        /**
+         * Cryptomator vault
+         */
+        private Path vault;
+        /**
+         * Cryptomator decrypted path
+         */
+        private Path decrypted;
+        /**
+         * Cryptomator encrypted path.
+         */
+        private Path encrypted;
+        /**
+         * Unique identifier for cryptomator
+         */
+        private String directoryId;
+
+        private Map<String, String> custom = Collections.emptyMap();
+
+        private Extension() {
+        }
+
+        private Extension(final Extension copy) {
+            quota = copy.quota;
+            acl = Acl.EMPTY == copy.acl ? Acl.EMPTY : new Acl(copy.acl);
+            etag = copy.etag;
+            storageClass = copy.storageClass;
+            encryption = copy.encryption;
+            lockId = copy.lockId;
+            duplicate = copy.duplicate;
+            hidden = copy.hidden;
+            revision = copy.revision;
+            displayname = copy.displayname;
+            link = DescriptiveUrl.EMPTY == copy.link ? DescriptiveUrl.EMPTY : new DescriptiveUrl(copy.link);
+            metadata = new HashMap<>(copy.metadata);
+            custom = new HashMap<>(copy.custom);
+            vault = copy.vault;
+            decrypted = copy.decrypted;
+            encrypted = copy.encrypted;
+            directoryId = copy.directoryId;
+        }
+    }
 }
@@ -25,6 +25,8 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Encapsulating UNIX file permissions.
  */
@@ -61,6 +63,12 @@ public class Permission implements Serializable {
         }
     };
     private static final Logger log = LogManager.getLogger(Permission.class);
+
+    /**
+     * Shared instances indexed by mode including setuid, setgid and sticky bit
+     */
+    private static final AtomicReferenceArray<Permission> shared = new AtomicReferenceArray<>(07777 + 1);
+
     private Action user;
     private Action group;
     private Action other;
@@ -144,6 +152,24 @@ public class Permission implements Serializable {
                 other.sticky, other.setuid, other.setgid);
     }
 
+    /**
+     * @param permission Mode
+     * @return Immutable instance shared for all permissions with the same mode. Instances of subclasses are
+     * returned unchanged.
+     */
+    public static Permission shared(final Permission permission) {
+        if(permission.getClass() != Permission.class) {
+            return permission;
+        }
+        final int mode = permission.toInteger();
+        final Permission instance = shared.get(mode);
+        if(null != instance) {
+            return instance;
+        }
+        shared.compareAndSet(mode, null, new Shared(permission));
+        return shared.get(mode);
+    }
+
     @Override
     public <T> T serialize(final Serializer<T> dict) {
         dict.setStringForKey(this.getSymbol(), "Mask");
@@ -439,4 +465,43 @@ public class Permission implements Serializable {
             return values[7 - ordinal()];
         }
     }
+
+    /**
+     * Permission shared between attributes of many files that must not be modified
+     */
+    private static final class Shared extends Permission {
+        private Shared(final Permission other) {
+            super(other);
+        }
+
+        @Override
+        public void setUser(final Action user) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setGroup(final Action group) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setOther(final Action other) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setSetuid(final boolean setuid) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setSetgid(final boolean setgid) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setSticky(final boolean sticky) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
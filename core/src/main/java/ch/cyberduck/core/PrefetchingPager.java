@@ -0,0 +1,187 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Iterate over pages of a chunked listing. While the caller converts a page, requests for the following pages are
+ * sent in the background up to the prefetch depth. The first page is retrieved in the calling thread and prefetching
+ * only starts when the caller asks for a second page so that probing a listing for a single chunk does not send
+ * additional requests.
+ *
+ * @param <T> Response for a single page
+ */
+public class PrefetchingPager<T> implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(PrefetchingPager.class);
+
+    private static final Object END = new Object();
+
+    public interface Fetcher<T> {
+        /**
+         * @param previous Previous page or null to retrieve first page
+         * @return Page following previous
+         */
+        T fetch(T previous) throws BackgroundException;
+
+        /**
+         * @param page Last page retrieved
+         * @return False if the listing is complete
+         */
+        boolean hasNext(T page);
+    }
+
+    private final Fetcher<T> fetcher;
+    /**
+     * Maximum number of pages retrieved but not yet consumed
+     */
+    private final int depth;
+    private final BlockingQueue<Object> queue;
+
+    private ThreadPool pool;
+    private volatile boolean closed;
+
+    /**
+     * Last page returned
+     */
+    private T page;
+    /**
+     * Page retrieved but not yet returned
+     */
+    private Object next;
+
+    public PrefetchingPager(final Fetcher<T> fetcher) {
+        this(fetcher, PreferencesFactory.get().getInteger("listing.prefetch.depth"));
+    }
+
+    /**
+     * @param fetcher Retrieve single page
+     * @param depth   Number of pages to request ahead or zero to disable prefetching
+     */
+    public PrefetchingPager(final Fetcher<T> fetcher, final int depth) {
+        this.fetcher = fetcher;
+        this.depth = depth;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, depth));
+    }
+
+    public boolean hasNext() throws BackgroundException {
+        if(null == next) {
+            next = this.take();
+        }
+        return next != END;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T next() throws BackgroundException {
+        if(!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        page = (T) next;
+        next = null;
+        return page;
+    }
+
+    private Object take() throws BackgroundException {
+        if(null == page) {
+            // First page
+            return fetcher.fetch(null);
+        }
+        if(next == END) {
+            return END;
+        }
+        if(depth <= 0) {
+            return fetcher.hasNext(page) ? fetcher.fetch(page) : END;
+        }
+        if(null == pool) {
+            if(!fetcher.hasNext(page)) {
+                return END;
+            }
+            this.start(page);
+        }
+        try {
+            final Object element = queue.take();
+            if(element instanceof Failure) {
+                next = END;
+                final Throwable failure = ((Failure) element).failure;
+                if(failure instanceof BackgroundException) {
+                    throw (BackgroundException) failure;
+                }
+                throw (RuntimeException) failure;
+            }
+            return element;
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+    }
+
+    private void start(final T first) {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Prefetch up to %d pages with %s", depth, fetcher));
+        }
+        pool = ThreadPoolFactory.get("pager", 1);
+        pool.execute(() -> {
+            T previous = first;
+            try {
+                do {
+                    if(closed) {
+                        return null;
+                    }
+                    previous = fetcher.fetch(previous);
+                    // Block until consumer catches up
+                    queue.put(previous);
+                }
+                while(fetcher.hasNext(previous));
+                queue.put(END);
+            }
+            catch(BackgroundException | RuntimeException e) {
+                queue.put(new Failure(e));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Stop requesting further pages
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if(pool != null) {
+            queue.clear();
+            pool.shutdown(false);
+        }
+    }
+
+    private static final class Failure {
+        private final Throwable failure;
+
+        public Failure(final Throwable failure) {
+            this.failure = failure;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * List all descendants of a directory by listing each directory in turn. Symbolic links are not followed.
+ */
+public class RecursiveListService implements ListService {
+    private static final Logger log = LogManager.getLogger(RecursiveListService.class);
+
+    private final ListService delegate;
+
+    public RecursiveListService(final ListService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("List %s recursively with %s", directory, delegate));
+        }
+        final AttributedList<Path> result = new AttributedList<>();
+        this.list(directory, listener, result);
+        return result;
+    }
+
+    private void list(final Path directory, final ListProgressListener listener, final AttributedList<Path> result) throws BackgroundException {
+        for(Path f : delegate.list(directory, listener)) {
+            result.add(f);
+            if(f.isDirectory() && !f.isSymbolicLink()) {
+                this.list(f, listener, result);
+            }
+        }
+    }
+
+    @Override
+    public AttributedList<Path> listRecursive(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        return this.list(directory, listener);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RecursiveListService{");
+        sb.append("delegate=").append(delegate);
+        sb.append('}');
+        return sb.toString();
+    }
+}
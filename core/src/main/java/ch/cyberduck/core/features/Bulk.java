@@ -43,4 +43,18 @@ public interface Bulk<R> {
     void post(Transfer.Type type, Map<TransferItem, TransferStatus> files, ConnectionCallback callback) throws BackgroundException;
 
     Bulk<R> withDelete(Delete delete);
+
+    /**
+     * @return True if pre can be called repeatedly with subsets of all files in a transfer
+     */
+    default boolean isIncremental() {
+        return true;
+    }
+
+    /**
+     * @return False if post does not require the complete status of transferred files
+     */
+    default boolean isPostProcessing() {
+        return true;
+    }
 }
@@ -0,0 +1,31 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.Checksum;
+
+/**
+ * Checksum of file computed by server for protocols not including a checksum in file attributes
+ */
+public interface ChecksumFinder {
+    /**
+     * @param file File on server
+     * @return Checksum or {@link Checksum#NONE} if not supported by server
+     */
+    Checksum find(Path file) throws BackgroundException;
+}
@@ -0,0 +1,86 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hierarchy of bandwidth throttles shared by all transfers in the process. The throttle of a transfer is a child of
+ * the throttle for its host, which is a child of a global throttle. Limits are set with
+ * <code>queue.bandwidth.bytes</code> for the sum of all transfers and <code>queue.bandwidth.host.bytes</code> for
+ * all transfers to the same host.
+ */
+public final class BandwidthScheduler {
+
+    private static final BandwidthScheduler global = new BandwidthScheduler(PreferencesFactory.get());
+
+    public static BandwidthScheduler get() {
+        return global;
+    }
+
+    private final BandwidthThrottle root;
+    private final float host;
+
+    private final Map<String, BandwidthThrottle> hosts = new ConcurrentHashMap<>();
+
+    private BandwidthScheduler(final Preferences preferences) {
+        this(preferences.getFloat("queue.bandwidth.bytes"), preferences.getFloat("queue.bandwidth.host.bytes"));
+    }
+
+    /**
+     * @param global Limit in bytes per second for all transfers
+     * @param host   Limit in bytes per second for transfers of a single host
+     */
+    public BandwidthScheduler(final float global, final float host) {
+        this.root = new BandwidthThrottle(global);
+        this.host = host;
+    }
+
+    /**
+     * @return Throttle limiting all transfers
+     */
+    public BandwidthThrottle getRoot() {
+        return root;
+    }
+
+    /**
+     * @param hostname Server
+     * @return Throttle limiting all transfers to hostname
+     */
+    public BandwidthThrottle getHost(final String hostname) {
+        return hosts.computeIfAbsent(StringUtils.defaultString(hostname), key -> new BandwidthThrottle(host, root));
+    }
+
+    /**
+     * Attach transfer throttle to hierarchy of hostname
+     *
+     * @param hostname Server
+     * @param throttle Throttle of single transfer
+     * @return Same throttle
+     */
+    public BandwidthThrottle schedule(final String hostname, final BandwidthThrottle throttle) {
+        if(null == throttle.getParent()) {
+            throttle.setParent(this.getHost(hostname));
+        }
+        return throttle;
+    }
+}
@@ -3,9 +3,10 @@ package ch.cyberduck.core.io;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.concurrent.TimeUnit;
-
-import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
 
 /**
  * Limits throughput of a stream to at most N bytes per T seconds.  Mutable and thread-safe.<p>
@@ -27,9 +28,10 @@ import com.google.common.util.concurrent.Uninterruptibles;
  * have been exceeded, subsequent calls to request(..) will block.  The default value of T is 100 milliseconds. Smaller
  * window values T allow fairer bandwidth sharing and less noticeable pauses but may decrease efficiency slightly.<p>
  * <p/>
- * Note that throttles are <i>not</i> cumulative.  In the future, this may allow enable fancier control.  Also,
- * BandwidthThrottle may be able delegate to other throttles.  This would allow, for example, a 15 KB/s Gnutella
- * messaging throttle, with no more than 10 KB/s devoted to uploads.<p>
+ * Throttles can be nested by setting a parent throttle that additionally limits the sum of bytes requested by all
+ * its children. Bytes of a parent throttle are shared between children requesting bandwidth in the current or the
+ * previous window in proportion to their weight. Bytes left unused by a child in a window are available to other
+ * children. When no throttle in the hierarchy is limited, requests return immediately without locking.<p>
  * <p/>
  * This implementation is based on the <a href="http://cvs.sourceforge.net/cgi-bin/viewcvs.cgi/freenet/freenet/src/freenet/support/io/Bandwidth.java">Bandwidth</a>
  * class from the Freenet project.  It has been simplified and better documented.<p>
@@ -64,6 +66,29 @@ public final class BandwidthThrottle {
      * The system time when the window is reset so more bytes can be sent.
      */
     private long nextTickTime;
+    /**
+     * Counter of windows elapsed
+     */
+    private long tick;
+
+    /**
+     * Throttle limiting the sum of all children
+     */
+    private volatile BandwidthThrottle parent;
+    /**
+     * Relative share of bandwidth of parent throttle
+     */
+    private volatile int weight = 1;
+
+    /**
+     * Children with requests in current or previous window. Guarded by this monitor.
+     */
+    private final Set<BandwidthThrottle> active = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Bytes granted by parent in window with index <code>window</code>. Guarded by parent monitor.
+     */
+    private int consumed;
+    private long window = -1L;
 
     /**
      * Creates a new bandwidth throttle at the given throttle rate. The default windows size T is used.  The bytes per
@@ -75,6 +100,17 @@ public final class BandwidthThrottle {
         this.setRate(bytesPerSecond);
     }
 
+    /**
+     * Creates a new bandwidth throttle at the given throttle rate additionally limited by the parent throttle.
+     *
+     * @param bytesPerSecond the limits in bytes (not bits!) per second (not milliseconds!)
+     * @param parent         Throttle shared with other children or null
+     */
+    public BandwidthThrottle(float bytesPerSecond, BandwidthThrottle parent) {
+        this.setRate(bytesPerSecond);
+        this.setParent(parent);
+    }
+
     /**
      * Creates a new bandwidth throttle at the given throttle rate, only allowing bandwidth to be used every other
      * second if switching is true. The default windows size T is used.  The bytes per windows N is calculated from
@@ -97,7 +133,7 @@ public final class BandwidthThrottle {
     /**
      * Bytes per second allowed
      */
-    private float rate = UNLIMITED;
+    private volatile float rate = UNLIMITED;
 
     /**
      * Sets the throttle to the given throttle rate.  The default windows size T is used.  The bytes per windows N is
@@ -128,6 +164,31 @@ public final class BandwidthThrottle {
         return rate;
     }
 
+    /**
+     * @param parent Throttle limiting the sum of this and other children or null
+     */
+    public void setParent(final BandwidthThrottle parent) {
+        if(this == parent) {
+            throw new IllegalArgumentException();
+        }
+        this.parent = parent;
+    }
+
+    public BandwidthThrottle getParent() {
+        return parent;
+    }
+
+    /**
+     * @param weight Relative share of bandwidth of parent throttle compared to other children
+     */
+    public void setWeight(final int weight) {
+        this.weight = Math.max(1, weight);
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
     /**
      * Sets whether or not this throttle is switching bandwidth on/off.
      */
@@ -159,37 +220,119 @@ public final class BandwidthThrottle {
     }
 
     /**
-     * Blocks until the caller can send at least one byte without violating bandwidth constraints.  Records the number
-     * of byte sent.
+     * Blocks until the caller can send at least one byte without violating bandwidth constraints of this and all
+     * parent throttles.  Records the number of byte sent.
      *
      * @param desired the number of bytes the caller would like to send
      * @return the number of bytes the sender is expected to send, which is always greater than one and less than or
      * equal to desired
      */
-    public synchronized int request(int desired) {
-        if(UNLIMITED == rate) {
+    public int request(int desired) {
+        if(desired <= 0) {
             return desired;
         }
-        waitForBandwidth();
-        int result = Math.min(desired, availableBytes);
-        availableBytes -= result;
-        return result;
+        return this.request(null, desired);
+    }
+
+    /**
+     * Request bandwidth from this and all parent throttles
+     *
+     * @param child Child throttle requesting bandwidth or null for direct request from stream
+     */
+    private int request(final BandwidthThrottle child, final int desired) {
+        final boolean limited = UNLIMITED != rate;
+        final int allowed = limited ? this.acquire(child, desired) : desired;
+        final BandwidthThrottle parent = this.parent;
+        if(null == parent) {
+            return allowed;
+        }
+        final int granted = parent.request(this, allowed);
+        if(limited && granted < allowed) {
+            this.refund(allowed - granted);
+        }
+        return granted;
     }
 
     /**
-     * Waits until data is _availableBytes.
+     * Waits until bytes are available in the current window for the child.
+     *
+     * @param child Child throttle requesting bandwidth or null for direct request from stream
+     * @return Number of bytes granted from this window
      */
-    private void waitForBandwidth() {
-        while(true) {
-            long now = System.currentTimeMillis();
-            updateWindow(now);
-            if(availableBytes != 0) {
-                break;
+    private synchronized int acquire(final BandwidthThrottle child, final int desired) {
+        boolean interrupted = false;
+        try {
+            while(true) {
+                final long now = System.currentTimeMillis();
+                this.updateWindow(now);
+                if(null != child) {
+                    if(child.window != tick) {
+                        child.window = tick;
+                        child.consumed = 0;
+                    }
+                    active.add(child);
+                }
+                final int allowance = this.allowance(child);
+                if(allowance > 0) {
+                    final int result = Math.min(desired, allowance);
+                    availableBytes -= result;
+                    if(null != child) {
+                        child.consumed += result;
+                    }
+                    return result;
+                }
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Throttling bandwidth for %d milliseconds", nextTickTime - now));
+                }
+                try {
+                    this.wait(Math.max(1L, nextTickTime - now));
+                }
+                catch(InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        finally {
+            if(interrupted) {
+                Thread.currentThread().interrupt();
             }
-            if(log.isInfoEnabled()) {
-                log.info(String.format("Throttling bandwidth for %d milliseconds", nextTickTime - now));
+        }
+    }
+
+    /**
+     * @return Number of bytes available in current window for child respecting the share of other active children
+     */
+    private int allowance(final BandwidthThrottle child) {
+        if(null == child || active.size() == 1) {
+            return availableBytes;
+        }
+        int weights = 0;
+        for(BandwidthThrottle c : active) {
+            weights += c.weight;
+        }
+        // Bytes reserved for other children not yet used in this window
+        long reserved = 0L;
+        for(BandwidthThrottle c : active) {
+            if(c == child) {
+                continue;
             }
-            Uninterruptibles.sleepUninterruptibly(nextTickTime - now, TimeUnit.MILLISECONDS);
+            final long share = (long) bytesPerTick * c.weight / weights;
+            reserved += Math.max(0L, share - (c.window == tick ? c.consumed : 0));
+        }
+        final long share = Math.max(1L, (long) bytesPerTick * child.weight / weights);
+        final long fair = Math.min(availableBytes, Math.max(0L, share - child.consumed));
+        // Work conserving use of bytes not claimed by other children
+        final long excess = Math.max(0L, availableBytes - reserved);
+        return (int) Math.max(fair, excess);
+    }
+
+    /**
+     * Return bytes to current window not granted by parent
+     */
+    private synchronized void refund(final int bytes) {
+        if(System.currentTimeMillis() < nextTickTime) {
+            availableBytes = Math.min(bytesPerTick, availableBytes + bytes);
+            this.notifyAll();
         }
     }
 
@@ -198,6 +341,13 @@ public final class BandwidthThrottle {
      */
     private void updateWindow(long now) {
         if(now >= nextTickTime) {
+            tick++;
+            // Remove children without request in previous window
+            for(Iterator<BandwidthThrottle> iter = active.iterator(); iter.hasNext(); ) {
+                if(iter.next().window < tick - 1) {
+                    iter.remove();
+                }
+            }
             if(!switching || ((now / 1000) % 2) == 0) {
                 availableBytes = bytesPerTick;
                 nextTickTime = now + MILLIS_PER_TICK;
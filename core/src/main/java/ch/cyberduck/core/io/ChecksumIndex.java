@@ -0,0 +1,41 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.BackgroundException;
+
+/**
+ * Lookup of previously computed checksums for local files
+ */
+public interface ChecksumIndex {
+
+    /**
+     * @param file      Local file
+     * @param algorithm Hash algorithm
+     * @return Checksum previously recorded for the file or Checksum.NONE if missing or the file has been modified since
+     */
+    Checksum get(Local file, HashAlgorithm algorithm);
+
+    /**
+     * Compute checksum from file contents and record it unless the file is modified while reading
+     *
+     * @param file      Local file
+     * @param algorithm Hash algorithm
+     * @return Checksum computed from file contents
+     */
+    Checksum compute(Local file, HashAlgorithm algorithm) throws BackgroundException;
+}
@@ -0,0 +1,33 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+public class DisabledChecksumIndex implements ChecksumIndex {
+
+    @Override
+    public Checksum get(final Local file, final HashAlgorithm algorithm) {
+        return Checksum.NONE;
+    }
+
+    @Override
+    public Checksum compute(final Local file, final HashAlgorithm algorithm) throws BackgroundException {
+        return ChecksumComputeFactory.get(algorithm).compute(file.getInputStream(), new TransferStatus());
+    }
+}
@@ -0,0 +1,269 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.cache.LRUCache;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Checksums of local files stored in the application support directory with a bounded in-memory cache. Records
+ * are keyed by absolute path and only returned when size, modification date and file key (inode where available)
+ * of the file are unchanged. Looking up an unmodified file requires a single stat of the file. Records not read
+ * from disk within the expiration period are deleted on first use of the index.
+ */
+public class PersistentChecksumIndex implements ChecksumIndex {
+    private static final Logger log = LogManager.getLogger(PersistentChecksumIndex.class);
+
+    private static final PersistentChecksumIndex DEFAULT_INDEX = new PersistentChecksumIndex(
+            LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Checksums"));
+
+    /**
+     * @return Singleton instance
+     */
+    public static PersistentChecksumIndex defaultIndex() {
+        return DEFAULT_INDEX;
+    }
+
+    private static final char SEPARATOR = '\t';
+
+    private final Local folder;
+    private final LRUCache<String, Record> cache;
+    /**
+     * Expiration of records in milliseconds
+     */
+    private final long expiration;
+    private final AtomicBoolean pruned = new AtomicBoolean();
+
+    public PersistentChecksumIndex(final Local folder) {
+        this(folder, PreferencesFactory.get());
+    }
+
+    private PersistentChecksumIndex(final Local folder, final Preferences preferences) {
+        this(folder, preferences.getLong("queue.compare.checksum.index.cache.size"),
+                TimeUnit.DAYS.toMillis(preferences.getLong("queue.compare.checksum.index.expiration.days")));
+    }
+
+    /**
+     * @param folder     Folder to store records
+     * @param size       Maximum number of records kept in memory
+     * @param expiration Delete records written more than given number of milliseconds ago
+     */
+    public PersistentChecksumIndex(final Local folder, final long size, final long expiration) {
+        this.folder = folder;
+        this.cache = LRUCache.build(size);
+        this.expiration = expiration;
+    }
+
+    @Override
+    public Checksum get(final Local file, final HashAlgorithm algorithm) {
+        final BasicFileAttributes attributes = this.stat(file);
+        if(null == attributes) {
+            return Checksum.NONE;
+        }
+        Record record = cache.get(file.getAbsolute());
+        if(null == record) {
+            record = this.read(file);
+            if(null == record) {
+                return Checksum.NONE;
+            }
+            cache.put(file.getAbsolute(), record);
+        }
+        if(!record.matches(attributes)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Invalidate checksum %s for modified file %s", record.checksum, file));
+            }
+            this.remove(file);
+            return Checksum.NONE;
+        }
+        if(record.checksum.algorithm != algorithm) {
+            return Checksum.NONE;
+        }
+        return record.checksum;
+    }
+
+    @Override
+    public Checksum compute(final Local file, final HashAlgorithm algorithm) throws BackgroundException {
+        if(pruned.compareAndSet(false, true)) {
+            this.prune();
+        }
+        // Attributes must be read before contents to detect modification while computing
+        final BasicFileAttributes attributes = this.stat(file);
+        final Checksum checksum = ChecksumComputeFactory.get(algorithm).compute(file.getInputStream(), new TransferStatus());
+        if(null == attributes || Checksum.NONE == checksum) {
+            return checksum;
+        }
+        final Record record = new Record(file.getAbsolute(), attributes.size(), attributes.lastModifiedTime().toMillis(),
+                Objects.toString(attributes.fileKey(), StringUtils.EMPTY), checksum);
+        final BasicFileAttributes modified = this.stat(file);
+        if(null == modified || !record.matches(modified)) {
+            log.warn(String.format("Skip recording checksum for %s modified while computing", file));
+            return checksum;
+        }
+        cache.put(file.getAbsolute(), record);
+        this.write(file, record);
+        return checksum;
+    }
+
+    /**
+     * Delete records written before expiration period. Reading a record does not defer its expiration to not write to
+     * disk when comparing files.
+     */
+    public void prune() {
+        final long threshold = System.currentTimeMillis() - expiration;
+        try (Stream<java.nio.file.Path> records = Files.walk(Paths.get(folder.getAbsolute()))) {
+            records.filter(Files::isRegularFile).forEach(record -> {
+                try {
+                    if(Files.getLastModifiedTime(record).toMillis() < threshold) {
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Delete expired checksum record %s", record));
+                        }
+                        Files.deleteIfExists(record);
+                    }
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure deleting checksum record %s. %s", record, e.getMessage()));
+                }
+            });
+        }
+        catch(NoSuchFileException e) {
+            // No records
+        }
+        catch(IOException | UncheckedIOException e) {
+            log.warn(String.format("Failure listing checksum records in %s. %s", folder, e.getMessage()));
+        }
+    }
+
+    public void remove(final Local file) {
+        cache.remove(file.getAbsolute());
+        try {
+            Files.deleteIfExists(Paths.get(this.toRecord(file)));
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure deleting checksum record for %s. %s", file, e.getMessage()));
+        }
+    }
+
+    private BasicFileAttributes stat(final Local file) {
+        try {
+            return Files.readAttributes(Paths.get(file.getAbsolute()), BasicFileAttributes.class);
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading attributes of %s. %s", file, e.getMessage()));
+            return null;
+        }
+    }
+
+    private Record read(final Local file) {
+        try {
+            final java.nio.file.Path path = Paths.get(this.toRecord(file));
+            final String line = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            final String[] fields = StringUtils.splitPreserveAllTokens(line, SEPARATOR);
+            if(fields.length != 6) {
+                log.warn(String.format("Ignore invalid checksum record for %s", file));
+                return null;
+            }
+            if(!StringUtils.equals(file.getAbsolute(), fields[5])) {
+                // Hash collision
+                return null;
+            }
+            final Record record = new Record(fields[5], Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2],
+                    new Checksum(HashAlgorithm.valueOf(fields[3]), fields[4]));
+            return record;
+        }
+        catch(NoSuchFileException e) {
+            return null;
+        }
+        catch(IOException | IllegalArgumentException e) {
+            log.warn(String.format("Failure reading checksum record for %s. %s", file, e.getMessage()));
+            return null;
+        }
+    }
+
+    private void write(final Local file, final Record record) {
+        final String line = StringUtils.join(new Object[]{record.size, record.modified, record.key,
+                record.checksum.algorithm, record.checksum.hash, record.path}, SEPARATOR);
+        try {
+            final java.nio.file.Path target = Paths.get(this.toRecord(file));
+            Files.createDirectories(target.getParent());
+            final java.nio.file.Path temporary = Files.createTempFile(target.getParent(), null, null);
+            Files.write(temporary, line.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch(AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure writing checksum record for %s. %s", file, e.getMessage()));
+        }
+    }
+
+    /**
+     * @return Path of record sharded by first two characters of key to limit number of entries per folder
+     */
+    private String toRecord(final Local file) {
+        final String key = DigestUtils.sha256Hex(file.getAbsolute());
+        return LocalFactory.get(LocalFactory.get(folder, key.substring(0, 2)), key).getAbsolute();
+    }
+
+    private static final class Record {
+        private final String path;
+        private final long size;
+        private final long modified;
+        private final String key;
+        private final Checksum checksum;
+
+        public Record(final String path, final long size, final long modified, final String key, final Checksum checksum) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.key = key;
+            this.checksum = checksum;
+        }
+
+        public boolean matches(final BasicFileAttributes attributes) {
+            return size == attributes.size()
+                    && modified == attributes.lastModifiedTime().toMillis()
+                    && StringUtils.equals(key, Objects.toString(attributes.fileKey(), StringUtils.EMPTY));
+        }
+    }
+}
@@ -27,10 +27,18 @@ import org.apache.logging.log4j.Logger;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class StreamCopier {
     private static final Logger log = LogManager.getLogger(StreamCopier.class);
 
+    /**
+     * Copy buffer of last transfer on thread
+     */
+    private static final ThreadLocal<byte[]> buffers = new ThreadLocal<>();
+
     private final StreamCancelation cancel;
     private final StreamProgress progress;
 
@@ -85,7 +93,9 @@ public final class StreamCopier {
     }
 
     /**
-     * Updates the current number of bytes transferred in the status reference.
+     * Updates the current number of bytes transferred in the status reference. Copies with
+     * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} when both streams are
+     * backed by a file channel.
      *
      * @param in  The stream to read from
      * @param out The stream to write to
@@ -95,7 +105,33 @@ public final class StreamCopier {
             if(offset > 0) {
                 skip(in, offset);
             }
-            final byte[] buffer = new byte[chunksize];
+            final List<BandwidthThrottle> throttles = new ArrayList<>();
+            final FileChannel source = channel(in, throttles);
+            final FileChannel target = null == source ? null : channel(out, throttles);
+            if(null == target) {
+                this.copy(in, out);
+            }
+            else {
+                this.copy(source, target, throttles);
+            }
+            final StreamCloser c = new DefaultStreamCloser();
+            c.close(out);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map(e);
+        }
+        finally {
+            if(autoclose) {
+                final StreamCloser c = new DefaultStreamCloser();
+                c.close(in);
+            }
+        }
+        cancel.validate();
+    }
+
+    private void copy(final InputStream in, final OutputStream out) throws IOException, BackgroundException {
+        final byte[] buffer = acquire(chunksize);
+        try {
             long total = 0;
             int len = chunksize;
             if(limit > 0 && limit < chunksize) {
@@ -129,19 +165,104 @@ public final class StreamCopier {
                     progress.setComplete();
                 }
             }
-            final StreamCloser c = new DefaultStreamCloser();
-            c.close(out);
-        }
-        catch(IOException e) {
-            throw new DefaultIOExceptionMappingService().map(e);
         }
         finally {
-            if(autoclose) {
-                final StreamCloser c = new DefaultStreamCloser();
-                c.close(in);
+            buffers.set(buffer);
+        }
+    }
+
+    /**
+     * Copy in chunks of buffer size to report progress and apply bandwidth limits with the same granularity as
+     * copying streams
+     */
+    private void copy(final FileChannel source, final FileChannel target, final List<BandwidthThrottle> throttles) throws IOException, BackgroundException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Transfer from channel %s to %s", source, target));
+        }
+        long position = source.position();
+        long total = 0;
+        int len = chunksize;
+        if(limit > 0 && limit < chunksize) {
+            len = limit.intValue();
+        }
+        while(len > 0) {
+            cancel.validate();
+            for(BandwidthThrottle throttle : throttles) {
+                len = throttle.request(len);
+            }
+            final long transferred = source.transferTo(position, len, target);
+            if(0 == transferred && position >= source.size()) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            position += transferred;
+            source.position(position);
+            listener.recv(transferred);
+            listener.sent(transferred);
+            total += transferred;
+            if(limit > 0) {
+                len = (int) Math.min(limit - total, chunksize);
+            }
+            else {
+                len = chunksize;
+            }
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from channel", limit));
+                }
+                progress.setComplete();
             }
         }
-        cancel.validate();
+    }
+
+    /**
+     * @param throttles Bandwidth limits of wrapping streams
+     * @return Null if not reading from file channel
+     */
+    private static FileChannel channel(final InputStream in, final List<BandwidthThrottle> throttles) {
+        if(in instanceof ThrottledInputStream) {
+            throttles.add(((ThrottledInputStream) in).getThrottle());
+            return channel(((ThrottledInputStream) in).getDelegate(), throttles);
+        }
+        if(in instanceof FileChannelInputStream) {
+            return ((FileChannelInputStream) in).getChannel();
+        }
+        return null;
+    }
+
+    /**
+     * @param throttles Bandwidth limits of wrapping streams
+     * @return Null if not writing to file channel
+     */
+    private static FileChannel channel(final OutputStream out, final List<BandwidthThrottle> throttles) {
+        if(out instanceof ThrottledOutputStream) {
+            throttles.add(((ThrottledOutputStream) out).getThrottle());
+            return channel(((ThrottledOutputStream) out).getDelegate(), throttles);
+        }
+        if(out.getClass() == VoidStatusOutputStream.class) {
+            return channel(((VoidStatusOutputStream) out).getProxy(), throttles);
+        }
+        if(out instanceof FileChannelOutputStream) {
+            return ((FileChannelOutputStream) out).getChannel();
+        }
+        return null;
+    }
+
+    /**
+     * Reuse buffer of calling thread. Removed from pool while in use by nested copy on the same thread.
+     *
+     * @param size Buffer size
+     */
+    private static byte[] acquire(final int size) {
+        final byte[] buffer = buffers.get();
+        if(null == buffer || buffer.length != size) {
+            return new byte[size];
+        }
+        buffers.remove();
+        return buffer;
     }
 
     public static InputStream skip(final InputStream in, final long offset) throws BackgroundException {
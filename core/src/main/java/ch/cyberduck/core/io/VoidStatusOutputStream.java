@@ -30,4 +30,8 @@ public class VoidStatusOutputStream extends StatusOutputStream<Void> {
         // No remote attributes from server returned after upload
         return null;
     }
+
+    public OutputStream getProxy() {
+        return out;
+    }
 }
@@ -0,0 +1,253 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Factory;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Segment of a local file mapped into memory once. Input streams returned read from the mapped region and are
+ * positioned as if reading the whole file. Skipping to the start of the segment is free and reading outside
+ * the segment is not supported. Allows to read the same segment multiple times, as for computing a checksum
+ * prior to upload, without reading from disk twice. Must be closed when no longer read from to unmap the region
+ * as the file cannot be modified or deleted on Windows while mapped.
+ */
+public class MappedSegmentLocal extends Local implements Closeable {
+    private static final Logger log = LogManager.getLogger(MappedSegmentLocal.class);
+
+    /**
+     * Null if buffers cannot be unmapped explicitly
+     */
+    private static final Unmapper unmapper = unmapper();
+
+    /**
+     * File to obtain security scoped access
+     */
+    private final Local file;
+    private final long offset;
+    private final MappedByteBuffer buffer;
+
+    private boolean closed;
+
+    /**
+     * @param file   Local file
+     * @param offset Start of segment in file
+     * @param length Length of segment
+     * @throws LocalAccessDeniedException Failure mapping file region or mapping not supported on platform
+     */
+    public MappedSegmentLocal(final Local file, final long offset, final long length) throws AccessDeniedException {
+        super(file.getAbsolute());
+        this.file = file;
+        this.offset = offset;
+        if(null == unmapper && Factory.Platform.getDefault() == Factory.Platform.Name.windows) {
+            // Mapped file is locked until buffer is garbage collected
+            throw new LocalAccessDeniedException(String.format("Failure mapping %s without support to unmap", file));
+        }
+        final Object lock = this.lock();
+        try (FileChannel channel = FileChannel.open(Paths.get(file.getAbsolute()), StandardOpenOption.READ)) {
+            // Mapping remains valid after channel is closed
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+        catch(IOException | RuntimeException e) {
+            throw new LocalAccessDeniedException(String.format("Failure mapping %d bytes at offset %d of %s", length, offset, file), e);
+        }
+        finally {
+            this.release(lock);
+        }
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws AccessDeniedException {
+        if(closed) {
+            throw new LocalAccessDeniedException(String.format("Mapped segment of %s already closed", file));
+        }
+        return new SegmentInputStream(buffer.duplicate(), offset);
+    }
+
+    /**
+     * Unmap region. Input streams previously returned must not be read from after closing.
+     */
+    @Override
+    public synchronized void close() {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        if(null == unmapper) {
+            return;
+        }
+        try {
+            unmapper.unmap(buffer);
+        }
+        catch(ReflectiveOperationException | RuntimeException e) {
+            log.warn(String.format("Failure unmapping segment at offset %d of %s. %s", offset, file, e));
+        }
+    }
+
+    /**
+     * @return Security scoped lock of file or null
+     */
+    private Object lock() {
+        try {
+            return this.lock(false);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", file, e));
+            return null;
+        }
+    }
+
+    /**
+     * @return Security scoped lock of file
+     */
+    @Override
+    public Object lock(final boolean interactive) throws AccessDeniedException {
+        return file.lock(interactive);
+    }
+
+    @Override
+    public void release(final Object lock) {
+        file.release(lock);
+    }
+
+    private interface Unmapper {
+        void unmap(ByteBuffer buffer) throws ReflectiveOperationException;
+    }
+
+    private static Unmapper unmapper() {
+        try {
+            // Java 9 and later
+            final Class<?> clazz = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = clazz.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field field = clazz.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            final Object unsafe = field.get(null);
+            return buffer -> invokeCleaner.invoke(unsafe, buffer);
+        }
+        catch(ReflectiveOperationException | RuntimeException e) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Missing Unsafe.invokeCleaner. %s", e));
+            }
+        }
+        try {
+            // Java 8
+            final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> clean.invoke(cleaner.invoke(buffer));
+        }
+        catch(ReflectiveOperationException | RuntimeException e) {
+            log.warn(String.format("Unmapping buffers not supported. %s", e));
+            return null;
+        }
+    }
+
+    private static final class SegmentInputStream extends InputStream {
+        private final ByteBuffer buffer;
+        private final long offset;
+        /**
+         * Position in file
+         */
+        private long position = 0L;
+        private long mark = 0L;
+
+        public SegmentInputStream(final ByteBuffer buffer, final long offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        @Override
+        public int read() throws IOException {
+            this.validate();
+            if(!buffer.hasRemaining()) {
+                return -1;
+            }
+            position++;
+            return buffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            this.validate();
+            if(len == 0) {
+                return 0;
+            }
+            if(!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) {
+            if(n <= 0) {
+                return 0L;
+            }
+            final long target = Math.min(position + n, offset + buffer.limit());
+            if(target > offset) {
+                buffer.position((int) (target - offset));
+            }
+            final long skipped = target - position;
+            position = target;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return position < offset ? 0 : buffer.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public void mark(final int readlimit) {
+            mark = position;
+        }
+
+        @Override
+        public void reset() {
+            position = mark;
+            buffer.position((int) Math.max(0L, position - offset));
+        }
+
+        private void validate() throws IOException {
+            if(position < offset) {
+                throw new IOException(String.format("Read at position %d before mapped segment at offset %d", position, offset));
+            }
+        }
+    }
+}
@@ -39,4 +39,9 @@ public class DisabledBulkFeature implements Bulk<Map<TransferItem, TransferStatu
     public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) {
         //
     }
+
+    @Override
+    public boolean isPostProcessing() {
+        return false;
+    }
 }
@@ -26,20 +26,29 @@ import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.ChecksumFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.ChecksumIndex;
+import ch.cyberduck.core.io.DisabledChecksumIndex;
+import ch.cyberduck.core.io.PersistentChecksumIndex;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferItem;
-import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.transfer.download.DownloadSegmentBitmap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.text.MessageFormat;
 import java.util.Map;
 import java.util.TimeZone;
 
 public class DefaultComparePathFilter implements ComparePathFilter {
+    private static final Logger log = LogManager.getLogger(DefaultComparePathFilter.class);
 
     private Find finder;
     private AttributesFinder attribute;
@@ -48,12 +57,28 @@ public class DefaultComparePathFilter implements ComparePathFilter {
     private final ComparisonService size;
     private final ComparisonService timestamp;
 
+    /**
+     * Previously computed checksums of local files
+     */
+    private final ChecksumIndex index;
+    /**
+     * Checksum computed by server or null if not supported
+     */
+    private final ChecksumFinder hash;
+
     public DefaultComparePathFilter(final Session<?> session, final TimeZone tz) {
+        this(session, tz, PreferencesFactory.get().getBoolean("queue.compare.checksum.index.enable") ?
+                PersistentChecksumIndex.defaultIndex() : new DisabledChecksumIndex());
+    }
+
+    public DefaultComparePathFilter(final Session<?> session, final TimeZone tz, final ChecksumIndex index) {
         this.finder = session.getFeature(Find.class, new DefaultFindFeature(session));
         this.attribute = session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session));
         this.timestamp = new TimestampComparisonService(tz);
         this.size = new SizeComparisonService();
         this.checksum = new ChecksumComparisonService();
+        this.index = index;
+        this.hash = session.getFeature(ChecksumFinder.class);
     }
 
     @Override
@@ -81,7 +106,7 @@ public class DefaultComparePathFilter implements ComparePathFilter {
                     // Do not compare directories
                     return Comparison.equal;
                 }
-                final PathAttributes attributes = attribute.find(file);
+                PathAttributes attributes = attribute.find(file);
                 final LocalAttributes l = local.attributes();
                 // We must always compare the size because the download filter will have already created a temporary 0 byte file
                 switch(size.compare(attributes, l)) {
@@ -90,11 +115,30 @@ public class DefaultComparePathFilter implements ComparePathFilter {
                     case local:
                         return Comparison.local;
                 }
+                if(DownloadSegmentBitmap.toSidecar(local).exists()) {
+                    // Interrupted download of segments to preallocated file with full length
+                    return Comparison.remote;
+                }
+                if(Checksum.NONE == attributes.getChecksum() && null != hash && !file.getType().contains(Path.Type.decrypted)) {
+                    // Compute checksum on server when not included in attributes
+                    try {
+                        attributes = new PathAttributes(attributes).withChecksum(hash.find(file));
+                    }
+                    catch(ConnectionCanceledException e) {
+                        throw e;
+                    }
+                    catch(BackgroundException e) {
+                        log.warn(String.format("Failure computing checksum for %s. %s", file, e));
+                    }
+                }
                 if(Checksum.NONE != attributes.getChecksum()) {
                     // MD5/ETag Checksum is supported
-                    listener.message(MessageFormat.format(LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), file.getName()));
-                    l.setChecksum(ChecksumComputeFactory.get(attributes.getChecksum().algorithm)
-                            .compute(local.getInputStream(), new TransferStatus()));
+                    Checksum current = index.get(local, attributes.getChecksum().algorithm);
+                    if(Checksum.NONE == current) {
+                        listener.message(MessageFormat.format(LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), file.getName()));
+                        current = index.compute(local, attributes.getChecksum().algorithm);
+                    }
+                    l.setChecksum(current);
                     switch(checksum.compare(attributes, l)) {
                         case equal:
                             // Decision is available
@@ -0,0 +1,271 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread pool for parts of a single segmented transfer. Tasks are not run in a dedicated executor but in
+ * threads of a scheduler shared by all segmented transfers with a global limit of concurrent tasks set
+ * with <code>queue.segments.concurrency</code>. Pools with pending tasks are served in turn, so parts of
+ * concurrent transfers are interleaved fairly. The number of concurrent tasks per pool is additionally
+ * limited to the given size.
+ */
+public class SegmentThreadPool implements ThreadPool {
+    private static final Logger log = LogManager.getLogger(SegmentThreadPool.class);
+
+    private static final Scheduler SCHEDULER = new Scheduler(
+            PreferencesFactory.get().getInteger("queue.segments.concurrency"));
+
+    private final Scheduler scheduler;
+    private final int size;
+
+    /**
+     * Pending tasks not yet dispatched to the scheduler
+     */
+    private final Deque<FutureTask<?>> pending = new ArrayDeque<>();
+    /**
+     * All tasks submitted and not yet completed
+     */
+    private final Set<FutureTask<?>> submitted = new HashSet<>();
+
+    /**
+     * Number of tasks currently running
+     */
+    private int running = 0;
+    private boolean shutdown = false;
+
+    /**
+     * @param size Maximum number of concurrent tasks for this pool
+     */
+    public SegmentThreadPool(final int size) {
+        this(SCHEDULER, size);
+    }
+
+    public SegmentThreadPool(final Scheduler scheduler, final int size) {
+        this.scheduler = scheduler;
+        this.size = Math.max(1, size);
+    }
+
+    @Override
+    public <T> Future<T> execute(final Callable<T> command) {
+        final FutureTask<T> task = new FutureTask<>(command);
+        synchronized(scheduler) {
+            if(shutdown) {
+                throw new RejectedExecutionException(String.format("Pool %s is shutdown", this));
+            }
+            submitted.add(task);
+            pending.add(task);
+            scheduler.ready(this);
+        }
+        return task;
+    }
+
+    @Override
+    public void shutdown(final boolean gracefully) {
+        final List<FutureTask<?>> cancel;
+        synchronized(scheduler) {
+            shutdown = true;
+            if(gracefully) {
+                cancel = Collections.emptyList();
+            }
+            else {
+                cancel = new ArrayList<>(submitted);
+                pending.clear();
+            }
+        }
+        for(FutureTask<?> task : cancel) {
+            // Interrupt running tasks
+            task.cancel(true);
+        }
+        synchronized(scheduler) {
+            while(running > 0 || !pending.isEmpty()) {
+                try {
+                    scheduler.wait(1000L);
+                }
+                catch(InterruptedException e) {
+                    log.error(String.format("Failure awaiting pool termination. %s", e.getMessage()));
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        scheduler.idle();
+    }
+
+    @Override
+    public AbstractExecutorService executor() {
+        return new AbstractExecutorService() {
+            @Override
+            public void shutdown() {
+                SegmentThreadPool.this.shutdown(true);
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                SegmentThreadPool.this.shutdown(false);
+                return Collections.emptyList();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                synchronized(scheduler) {
+                    return shutdown;
+                }
+            }
+
+            @Override
+            public boolean isTerminated() {
+                synchronized(scheduler) {
+                    return shutdown && running == 0 && pending.isEmpty();
+                }
+            }
+
+            @Override
+            public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+                final long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+                synchronized(scheduler) {
+                    while(!this.isTerminated()) {
+                        final long remaining = deadline - System.currentTimeMillis();
+                        if(remaining <= 0) {
+                            return false;
+                        }
+                        scheduler.wait(remaining);
+                    }
+                    return true;
+                }
+            }
+
+            @Override
+            public void execute(final Runnable command) {
+                SegmentThreadPool.this.execute(Executors.callable(command));
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentThreadPool{");
+        sb.append("size=").append(size);
+        sb.append(", running=").append(running);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Runs tasks of all segment pools in turn with a global limit of concurrent tasks. All state of the
+     * scheduler and its pools is guarded by the scheduler monitor. Threads are obtained from a pool created
+     * with the thread pool factory on demand and shutdown when the last segment pool is shutdown.
+     */
+    public static final class Scheduler {
+        private final int size;
+        /**
+         * Threads running tasks or null when idle
+         */
+        private ThreadPool threads;
+
+        /**
+         * Pools with pending tasks and below their concurrency limit in order of service
+         */
+        private final Deque<SegmentThreadPool> ready = new ArrayDeque<>();
+        /**
+         * Number of tasks currently running
+         */
+        private int running = 0;
+
+        public Scheduler(final int size) {
+            this.size = Math.max(1, size);
+        }
+
+        /**
+         * Shutdown threads when no tasks of any pool are running or pending
+         */
+        private void idle() {
+            final ThreadPool terminate;
+            synchronized(this) {
+                if(null == threads || running > 0 || !ready.isEmpty()) {
+                    return;
+                }
+                terminate = threads;
+                threads = null;
+            }
+            terminate.shutdown(true);
+        }
+
+        /**
+         * Enqueue pool for service if it has pending tasks and is below its concurrency limit
+         */
+        private void ready(final SegmentThreadPool pool) {
+            if(!pool.pending.isEmpty() && pool.running < pool.size && !ready.contains(pool)) {
+                ready.addLast(pool);
+            }
+            this.dispatch();
+        }
+
+        private void dispatch() {
+            while(running < size && !ready.isEmpty()) {
+                final SegmentThreadPool pool = ready.pollFirst();
+                final FutureTask<?> task = pool.pending.pollFirst();
+                if(null == task) {
+                    continue;
+                }
+                pool.running++;
+                running++;
+                // Move to end of queue to interleave with other pools
+                if(!pool.pending.isEmpty() && pool.running < pool.size) {
+                    ready.addLast(pool);
+                }
+                if(null == threads) {
+                    threads = ThreadPoolFactory.get("segment", size, Priority.norm, new LinkedBlockingQueue<>());
+                }
+                threads.execute(() -> {
+                    try {
+                        task.run();
+                    }
+                    finally {
+                        synchronized(Scheduler.this) {
+                            pool.running--;
+                            running--;
+                            pool.submitted.remove(task);
+                            this.ready(pool);
+                            this.notifyAll();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Limit of concurrent connections for a transfer adjusted while running. Throughput is sampled in fixed
+ * intervals from the number of bytes transferred. While all permits are in use the limit is increased by one
+ * connection and reverted when throughput did not improve with the additional connection. The limit is halved
+ * when the server refuses connections or throttles requests.
+ */
+public class AdaptiveTransferConnectionLimiter {
+    private static final Logger log = LogManager.getLogger(AdaptiveTransferConnectionLimiter.class);
+
+    /**
+     * Minimum relative gain in throughput to keep an additional connection
+     */
+    private static final double GAIN = 0.1d;
+
+    private final LongSupplier transferred;
+    private final int maximum;
+    private final long interval;
+
+    /**
+     * Target number of concurrent connections
+     */
+    private int limit;
+    /**
+     * Number of permits currently acquired
+     */
+    private int active = 0;
+    /**
+     * Number of threads waiting for a permit
+     */
+    private int waiting = 0;
+
+    private long timestamp;
+    private long bytes;
+    /**
+     * Throughput in bytes per second measured in previous interval
+     */
+    private double rate = 0d;
+    /**
+     * Limit was increased in previous interval
+     */
+    private boolean probing = false;
+    /**
+     * Limit was decreased in previous interval
+     */
+    private boolean backoff = false;
+
+    /**
+     * @param transferred Number of bytes transferred so far
+     * @param initial     Initial number of concurrent connections
+     * @param maximum     Upper bound for number of concurrent connections
+     * @param interval    Sampling interval in milliseconds
+     */
+    public AdaptiveTransferConnectionLimiter(final LongSupplier transferred, final int initial, final int maximum, final long interval) {
+        this.transferred = transferred;
+        this.maximum = Math.max(1, maximum);
+        this.limit = Math.max(1, Math.min(initial, this.maximum));
+        this.interval = interval;
+        this.timestamp = System.currentTimeMillis();
+        this.bytes = transferred.getAsLong();
+    }
+
+    /**
+     * Block until the number of active connections is below the current limit
+     */
+    public synchronized void acquire() throws InterruptedException {
+        this.sample(System.currentTimeMillis());
+        waiting++;
+        try {
+            while(active >= limit) {
+                this.wait(interval);
+                this.sample(System.currentTimeMillis());
+            }
+        }
+        finally {
+            waiting--;
+        }
+        active++;
+    }
+
+    public synchronized void release() {
+        active--;
+        this.sample(System.currentTimeMillis());
+        this.notifyAll();
+    }
+
+    /**
+     * Decrease limit multiplicatively when connection is refused or request is throttled by server
+     *
+     * @param failure Failure transferring file
+     */
+    public synchronized void failure(final BackgroundException failure) {
+        if(failure instanceof ConnectionRefusedException || failure instanceof RetriableAccessDeniedException) {
+            if(backoff) {
+                // Already decreased in current interval
+                return;
+            }
+            this.update(Math.max(1, limit / 2), String.format("failure %s", failure.getMessage()));
+            probing = false;
+            backoff = true;
+        }
+    }
+
+    /**
+     * Sample throughput and adjust limit once per interval
+     *
+     * @param now Current timestamp in milliseconds
+     */
+    protected synchronized void sample(final long now) {
+        final long elapsed = now - timestamp;
+        if(elapsed < interval) {
+            return;
+        }
+        final long current = transferred.getAsLong();
+        final double measured = (current - bytes) * 1000d / elapsed;
+        timestamp = now;
+        bytes = current;
+        if(backoff) {
+            // Skip interval with decreased limit
+            backoff = false;
+            rate = measured;
+            return;
+        }
+        if(0 == measured) {
+            // Idle while preparing or waiting for prompt
+            return;
+        }
+        if(probing) {
+            probing = false;
+            if(measured < rate * (1 + GAIN)) {
+                // No improvement with additional connection
+                this.update(limit - 1, String.format("throughput %.0f B/s not improved from %.0f B/s", measured, rate));
+                backoff = true;
+            }
+        }
+        else if(active >= limit && waiting > 0 && limit < maximum) {
+            this.update(limit + 1, String.format("throughput %.0f B/s", measured));
+            probing = true;
+        }
+        rate = measured;
+    }
+
+    private void update(final int target, final String reason) {
+        if(target == limit) {
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Change connection limit from %d to %d with %d active for %s", limit, target, active, reason));
+        }
+        limit = target;
+        this.notifyAll();
+    }
+
+    /**
+     * @return Target number of concurrent connections
+     */
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return Number of connections currently in use
+     */
+    public synchronized int getActive() {
+        return active;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("AdaptiveTransferConnectionLimiter{");
+        sb.append("limit=").append(limit);
+        sb.append(", active=").append(active);
+        sb.append(", maximum=").append(maximum);
+        sb.append('}');
+        return sb.toString();
+    }
+}
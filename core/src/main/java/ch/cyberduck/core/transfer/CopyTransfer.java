@@ -54,6 +54,8 @@ public class CopyTransfer extends Transfer {
     private Cache<Path> cache
         = new PathCache(PreferencesFactory.get().getInteger("transfer.cache.size"));
 
+    private final RecursiveListCache prefetched = new RecursiveListCache();
+
     /**
      * Temporary mapping for source to destination files
      */
@@ -190,7 +192,7 @@ public class CopyTransfer extends Transfer {
         if(log.isDebugEnabled()) {
             log.debug(String.format("List children for %s", directory));
         }
-        final AttributedList<Path> list = session.getFeature(ListService.class).list(directory, listener).filter(comparator, filter);
+        final AttributedList<Path> list = prefetched.list(session.getFeature(ListService.class), directory, listener).filter(comparator, filter);
         final Path copy = mapping.get(directory);
         for(Path p : list) {
             mapping.put(p, new Path(copy, p.getName(), p.getType(), p.attributes()));
@@ -269,6 +271,12 @@ public class CopyTransfer extends Transfer {
         //
     }
 
+    @Override
+    public void stop() {
+        prefetched.clear();
+        super.stop();
+    }
+
     private static final class CopyStreamListener extends DelegateStreamListener {
         private final CopyTransfer transfer;
 
@@ -71,6 +71,8 @@ public class DownloadTransfer extends Transfer {
     private Cache<Path> cache
             = new PathCache(PreferencesFactory.get().getInteger("transfer.cache.size"));
 
+    private final RecursiveListCache prefetched = new RecursiveListCache();
+
     private DownloadFilterOptions options = new DownloadFilterOptions(host);
 
     public DownloadTransfer(final Host host, final Path root, final Local local) {
@@ -133,7 +135,7 @@ public class DownloadTransfer extends Transfer {
                 list = cache.get(directory);
             }
             else {
-                list = session.getFeature(ListService.class).list(directory, listener);
+                list = prefetched.list(session.getFeature(ListService.class), directory, listener);
                 cache.put(directory, list);
             }
             final List<TransferItem> children = new ArrayList<>();
@@ -186,6 +188,16 @@ public class DownloadTransfer extends Transfer {
         return new OverwriteFilter(resolver, source, options).withFinder(find).withAttributes(attributes);
     }
 
+    @Override
+    public boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        return source.getFeature(Bulk.class).isIncremental();
+    }
+
+    @Override
+    public boolean isPostProcessing(final Session<?> source, final Session<?> destination) {
+        return source.getFeature(Bulk.class).isPostProcessing();
+    }
+
     @Override
     public TransferAction action(final Session<?> source, final Session<?> destination, final boolean resumeRequested, final boolean reloadRequested,
                                  final TransferPrompt prompt, final ListProgressListener listener) throws BackgroundException {
@@ -345,6 +357,7 @@ public class DownloadTransfer extends Transfer {
     @Override
     public void stop() {
         cache.clear();
+        prefetched.clear();
         super.stop();
     }
 
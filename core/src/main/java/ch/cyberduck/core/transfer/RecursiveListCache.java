@@ -0,0 +1,112 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Listings of subdirectories obtained from a single recursive listing of a directory. Each listing is removed when
+ * the transfer lists the subdirectory. Listings of subdirectories exceeding the maximum number of files kept are
+ * discarded and listed again when required.
+ */
+public class RecursiveListCache {
+    private static final Logger log = LogManager.getLogger(RecursiveListCache.class);
+
+    private final Map<SimplePathPredicate, AttributedList<Path>> listings = new ConcurrentHashMap<>();
+    /**
+     * Number of files in saved listings
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * Maximum number of files in saved listings
+     */
+    private final int limit;
+
+    public RecursiveListCache() {
+        this(PreferencesFactory.get().getInteger("queue.transfer.listing.recursive.cache.size"));
+    }
+
+    public RecursiveListCache(final int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @param service   List service of session
+     * @param directory Directory
+     * @param listener  Callback
+     * @return Children of directory
+     */
+    public AttributedList<Path> list(final ListService service, final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final AttributedList<Path> prefetched = listings.remove(new SimplePathPredicate(directory));
+        if(null != prefetched) {
+            size.addAndGet(-prefetched.size());
+            return prefetched;
+        }
+        if(!service.isRecursive(directory)) {
+            return service.list(directory, listener);
+        }
+        final Map<SimplePathPredicate, AttributedList<Path>> children = new HashMap<>();
+        children.put(new SimplePathPredicate(directory), new AttributedList<>());
+        for(Path f : service.listRecursive(directory, listener)) {
+            children.computeIfAbsent(new SimplePathPredicate(f.getParent()), key -> new AttributedList<>()).add(f);
+            if(f.isDirectory()) {
+                // Empty directory
+                children.putIfAbsent(new SimplePathPredicate(f), new AttributedList<>());
+            }
+        }
+        final AttributedList<Path> list = children.remove(new SimplePathPredicate(directory));
+        int skipped = 0;
+        for(Map.Entry<SimplePathPredicate, AttributedList<Path>> entry : children.entrySet()) {
+            final int count = entry.getValue().size();
+            if(size.addAndGet(count) > limit) {
+                size.addAndGet(-count);
+                skipped++;
+                continue;
+            }
+            final AttributedList<Path> previous = listings.put(entry.getKey(), entry.getValue());
+            if(null != previous) {
+                // Replaced listing from previous recursive listing
+                size.addAndGet(-previous.size());
+            }
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Save listing of %d subdirectories of %s", children.size() - skipped, directory));
+        }
+        if(skipped > 0) {
+            log.warn(String.format("Discard listing of %d subdirectories of %s exceeding limit of %d files", skipped, directory, limit));
+        }
+        return list;
+    }
+
+    public void clear() {
+        listings.clear();
+        size.set(0);
+    }
+}
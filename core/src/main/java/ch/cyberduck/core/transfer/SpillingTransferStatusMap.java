@@ -0,0 +1,309 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AbstractPath;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.UUIDRandomStringService;
+import ch.cyberduck.core.local.TemporaryFileServiceFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transfer status table keeping only files not yet transferred in memory. The status of files retired after
+ * completion is appended as a compact record to a temporary file and dropped from memory. Records only retain the
+ * path with its type, the local file, length, offset and state flags. Lookup by key is limited to entries in memory
+ * while iteration includes all entries written to disk. Entries are only retired when post processing of the transfer
+ * does not require the complete status of files. Files pending transfer are kept in memory as their status is
+ * required in full to transfer the file.
+ *
+ * @see ch.cyberduck.core.transfer.Transfer#isPostProcessing
+ */
+public class SpillingTransferStatusMap extends AbstractMap<TransferItem, TransferStatus> {
+    private static final Logger log = LogManager.getLogger(SpillingTransferStatusMap.class);
+
+    private static final int EXISTS = 1;
+    private static final int APPEND = 1 << 1;
+    private static final int COMPLETE = 1 << 2;
+    private static final int REJECTED = 1 << 3;
+
+    private static final AbstractPath.Type[] TYPES = AbstractPath.Type.values();
+
+    /**
+     * Files pending transfer
+     */
+    private final Map<TransferItem, TransferStatus> active = new ConcurrentHashMap<>();
+
+    private final Local file;
+    /**
+     * Number of records written to disk. Guarded by this monitor.
+     */
+    private int spilled = 0;
+    private DataOutputStream out;
+
+    public SpillingTransferStatusMap() {
+        this(TemporaryFileServiceFactory.get().create(String.format("%s.status", new UUIDRandomStringService().random())));
+    }
+
+    /**
+     * @param file Temporary file to write records of retired entries to
+     */
+    public SpillingTransferStatusMap(final Local file) {
+        this.file = file;
+    }
+
+    /**
+     * Remove status of transferred file from memory and append record to disk
+     *
+     * @param item File
+     */
+    public void retire(final TransferItem item) {
+        final TransferStatus status = active.remove(item);
+        if(null == status) {
+            return;
+        }
+        synchronized(this) {
+            try {
+                if(null == out) {
+                    out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(Paths.get(file.getAbsolute()))));
+                }
+                this.write(out, item, status);
+                spilled++;
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure writing status of %s to %s. %s", item, file, e.getMessage()));
+                // Keep in memory
+                active.put(item, status);
+            }
+        }
+    }
+
+    private void write(final DataOutputStream out, final TransferItem item, final TransferStatus status) throws IOException {
+        this.writeString(out, item.remote.getAbsolute());
+        int types = 0;
+        for(AbstractPath.Type type : item.remote.getType()) {
+            types |= 1 << type.ordinal();
+        }
+        out.writeShort(types);
+        this.writeString(out, null == item.local ? null : item.local.getAbsolute());
+        int flags = 0;
+        if(status.isExists()) {
+            flags |= EXISTS;
+        }
+        if(status.isAppend()) {
+            flags |= APPEND;
+        }
+        if(status.isComplete()) {
+            flags |= COMPLETE;
+        }
+        if(status.isRejected()) {
+            flags |= REJECTED;
+        }
+        out.writeByte(flags);
+        out.writeLong(status.getLength());
+        out.writeLong(status.getOffset());
+    }
+
+    private Map.Entry<TransferItem, TransferStatus> read(final DataInputStream in) throws IOException {
+        final String remote = this.readString(in);
+        final int types = in.readShort();
+        final EnumSet<AbstractPath.Type> type = EnumSet.noneOf(AbstractPath.Type.class);
+        for(AbstractPath.Type t : TYPES) {
+            if((types & 1 << t.ordinal()) != 0) {
+                type.add(t);
+            }
+        }
+        final String local = this.readString(in);
+        final int flags = in.readByte();
+        final TransferStatus status = new TransferStatus()
+                .exists((flags & EXISTS) != 0)
+                .append((flags & APPEND) != 0)
+                .reject((flags & REJECTED) != 0)
+                .withLength(in.readLong())
+                .withOffset(in.readLong());
+        if((flags & COMPLETE) != 0) {
+            status.setComplete();
+        }
+        return new SimpleImmutableEntry<>(new TransferItem(new Path(remote, type),
+                null == local ? null : LocalFactory.get(local)), status);
+    }
+
+    private void writeString(final DataOutputStream out, final String value) throws IOException {
+        if(null == value) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if(-1 == length) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public TransferStatus put(final TransferItem key, final TransferStatus value) {
+        return active.put(key, value);
+    }
+
+    @Override
+    public TransferStatus get(final Object key) {
+        return active.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return active.containsKey(key);
+    }
+
+    @Override
+    public TransferStatus remove(final Object key) {
+        return active.remove(key);
+    }
+
+    /**
+     * @return Entries of files not yet retired
+     */
+    public Map<TransferItem, TransferStatus> getActive() {
+        return active;
+    }
+
+    @Override
+    public synchronized int size() {
+        return active.size() + spilled;
+    }
+
+    @Override
+    public synchronized void clear() {
+        active.clear();
+        if(out != null) {
+            try {
+                out.close();
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure closing %s. %s", file, e.getMessage()));
+            }
+            out = null;
+        }
+        spilled = 0;
+        try {
+            Files.deleteIfExists(Paths.get(file.getAbsolute()));
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
+        }
+    }
+
+    @Override
+    public Set<Entry<TransferItem, TransferStatus>> entrySet() {
+        return new AbstractSet<Entry<TransferItem, TransferStatus>>() {
+            @Override
+            public Iterator<Entry<TransferItem, TransferStatus>> iterator() {
+                final int count;
+                synchronized(SpillingTransferStatusMap.this) {
+                    count = spilled;
+                    if(out != null) {
+                        try {
+                            out.flush();
+                        }
+                        catch(IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }
+                return new SpilledIterator(active.entrySet().iterator(), count);
+            }
+
+            @Override
+            public int size() {
+                return SpillingTransferStatusMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Iterate entries in memory followed by records read from disk. The file is closed when all records are read.
+     */
+    private final class SpilledIterator implements Iterator<Entry<TransferItem, TransferStatus>> {
+        private final Iterator<Entry<TransferItem, TransferStatus>> memory;
+        /**
+         * Number of records remaining on disk
+         */
+        private int remaining;
+        private DataInputStream in;
+
+        public SpilledIterator(final Iterator<Entry<TransferItem, TransferStatus>> memory, final int remaining) {
+            this.memory = memory;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return memory.hasNext() || remaining > 0;
+        }
+
+        @Override
+        public Entry<TransferItem, TransferStatus> next() {
+            if(memory.hasNext()) {
+                return memory.next();
+            }
+            if(remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                if(null == in) {
+                    in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(file.getAbsolute()))));
+                }
+                final Entry<TransferItem, TransferStatus> entry = read(in);
+                if(--remaining == 0) {
+                    in.close();
+                }
+                return entry;
+            }
+            catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -32,6 +32,7 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.UUIDRandomStringService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.io.BandwidthScheduler;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.serializer.Serializer;
@@ -166,7 +167,7 @@ public abstract class Transfer implements Serializable {
     public Transfer(final Host host, final List<TransferItem> roots, final BandwidthThrottle bandwidth) {
         this.host = host;
         this.roots.addAll(roots);
-        this.bandwidth = bandwidth;
+        this.bandwidth = null == bandwidth ? null : BandwidthScheduler.get().schedule(host.getHostname(), bandwidth);
     }
 
     public abstract Transfer withCache(final Cache<Path> cache);
@@ -201,7 +202,13 @@ public abstract class Transfer implements Serializable {
         bandwidth.setRate(bytesPerSecond);
     }
 
+    /**
+     * @param bandwidth Throttle for this transfer additionally limited by throttles shared with other transfers
+     */
     public void setBandwidth(final BandwidthThrottle bandwidth) {
+        if(bandwidth != null) {
+            BandwidthScheduler.get().schedule(host.getHostname(), bandwidth);
+        }
         this.bandwidth = bandwidth;
     }
 
@@ -301,6 +308,26 @@ public abstract class Transfer implements Serializable {
      */
     public abstract List<TransferItem> list(Session<?> session, Path directory, Local local, ListProgressListener listener) throws BackgroundException;
 
+    /**
+     * @param source      Connection to source server of transfer. May be null.
+     * @param destination Connection to target server of transfer
+     * @return True if files can be transferred while remaining files are still prepared. Then pre is called for
+     * every batch of files prepared instead of once with all files of the transfer.
+     */
+    public boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        return false;
+    }
+
+    /**
+     * @param source      Connection to source server of transfer. May be null.
+     * @param destination Connection to target server of transfer
+     * @return False if post only requires the path and transfer state of completed files. Then the status of
+     * completed files can be dropped from memory.
+     */
+    public boolean isPostProcessing(final Session<?> source, final Session<?> destination) {
+        return true;
+    }
+
     /**
      * @param source      Connection to source server of transfer. May be null.
      * @param destination Connection to target server of transfer
@@ -312,20 +339,27 @@ public abstract class Transfer implements Serializable {
      */
     public void pre(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files,
                     final TransferPathFilter filter, final TransferErrorCallback error, final ProgressListener listener, final ConnectionCallback callback) throws BackgroundException {
-        for(TransferItem item : roots) {
-            try {
-                switch(this.getType()) {
-                    case download:
-                        final Local directory = item.local.getParent();
-                        locks.put(directory, directory.lock(true));
-                        break;
-                    case upload:
-                        locks.put(item.local, item.local.lock(true));
-                        break;
+        synchronized(locks) {
+            for(TransferItem item : roots) {
+                try {
+                    switch(this.getType()) {
+                        case download:
+                            final Local directory = item.local.getParent();
+                            // Called repeatedly for pipelined transfer
+                            if(!locks.containsKey(directory)) {
+                                locks.put(directory, directory.lock(true));
+                            }
+                            break;
+                        case upload:
+                            if(!locks.containsKey(item.local)) {
+                                locks.put(item.local, item.local.lock(true));
+                            }
+                            break;
+                    }
+                }
+                catch(LocalAccessDeniedException e) {
+                    log.warn(String.format("Failure obtaining lock for %s. %s", item.local, e));
                 }
-            }
-            catch(LocalAccessDeniedException e) {
-                log.warn(String.format("Failure obtaining lock for %s. %s", item.local, e));
             }
         }
     }
@@ -340,18 +374,20 @@ public abstract class Transfer implements Serializable {
      */
     public void post(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files,
                      final TransferErrorCallback error, final ProgressListener listener, final ConnectionCallback callback) throws BackgroundException {
-        for(Iterator<Map.Entry<Local, Object>> iter = locks.entrySet().iterator(); iter.hasNext(); ) {
-            final Map.Entry<Local, Object> entry = iter.next();
-            switch(this.getType()) {
-                case download:
-                    final Local directory = entry.getKey().getParent();
-                    directory.release(entry.getValue());
-                    break;
-                case upload:
-                    entry.getKey().release(entry.getValue());
-                    break;
+        synchronized(locks) {
+            for(Iterator<Map.Entry<Local, Object>> iter = locks.entrySet().iterator(); iter.hasNext(); ) {
+                final Map.Entry<Local, Object> entry = iter.next();
+                switch(this.getType()) {
+                    case download:
+                        final Local directory = entry.getKey().getParent();
+                        directory.release(entry.getValue());
+                        break;
+                    case upload:
+                        entry.getKey().release(entry.getValue());
+                        break;
+                }
+                iter.remove();
             }
-            iter.remove();
         }
     }
 
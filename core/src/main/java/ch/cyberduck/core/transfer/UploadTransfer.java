@@ -187,6 +187,16 @@ public class UploadTransfer extends Transfer {
         return new OverwriteFilter(resolver, source, options).withFinder(find).withAttributes(attributes);
     }
 
+    @Override
+    public boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        return source.getFeature(Bulk.class).isIncremental();
+    }
+
+    @Override
+    public boolean isPostProcessing(final Session<?> source, final Session<?> destination) {
+        return source.getFeature(Bulk.class).isPostProcessing();
+    }
+
     @Override
     public TransferAction action(final Session<?> source, final Session<?> destination, final boolean resumeRequested, final boolean reloadRequested,
                                  final TransferPrompt prompt, final ListProgressListener listener) throws BackgroundException {
@@ -32,9 +32,11 @@ import ch.cyberduck.core.UrlProvider;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.ChecksumFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.io.Checksum;
@@ -59,6 +61,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
@@ -77,13 +80,18 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
     private final IconService icon = IconServiceFactory.get();
 
     protected AttributesFinder attribute;
-    private DownloadFilterOptions options;
+    protected DownloadFilterOptions options;
+    /**
+     * Checksum computed by server or null if not supported
+     */
+    private final ChecksumFinder hash;
 
     protected AbstractDownloadFilter(final SymlinkResolver<Path> symlinkResolver, final Session<?> session, final DownloadFilterOptions options) {
         this.symlinkResolver = symlinkResolver;
         this.session = session;
         this.options = options;
         this.attribute = session.getFeature(AttributesFinder.class);
+        this.hash = session.getFeature(ChecksumFinder.class);
     }
 
     @Override
@@ -184,7 +192,8 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                 }
             }
             else {
-                permission = attributes.getPermission();
+                // Copy of shared instance modified below
+                permission = Permission.EMPTY == attributes.getPermission() ? Permission.EMPTY : new Permission(attributes.getPermission());
             }
             status.setPermission(permission);
         }
@@ -204,7 +213,8 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                         log.warn(String.format("Failure to determine disk space for %s", file.getParent()));
                     }
                     long threshold = preferences.getLong("queue.download.segments.threshold");
-                    if(status.getLength() * 2 > space) {
+                    // Segments are concatenated to target file unless written in place
+                    if(status.getLength() * (options.preallocate ? 1 : 2) > space) {
                         log.warn(String.format("Insufficient free disk space %d for segmented download of %s", space, file));
                     }
                     else if(status.getLength() > threshold) {
@@ -220,8 +230,9 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                         // Sorted list
                         final List<TransferStatus> segments = new ArrayList<>();
                         final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
+                        final DownloadSegmentBitmap bitmap = new DownloadSegmentBitmap(local, status.getLength(), segmentSize);
                         for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                            final Local segmentFile = LocalFactory.get(
+                            final Local segmentFile = options.preallocate ? new DownloadSegmentLocal(local, offset, bitmap) : LocalFactory.get(
                                 segmentsFolder, String.format("%d.cyberducksegment", segmentNumber));
                             // Last part can be less than 5 MB. Adjust part size.
                             long length = Math.min(segmentSize, remaining);
@@ -244,7 +255,21 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             }
         }
         if(options.checksum) {
-            status.setChecksum(attributes.getChecksum());
+            if(Checksum.NONE == attributes.getChecksum() && null != hash && file.isFile() && !file.getType().contains(Path.Type.decrypted)) {
+                // Compute checksum on server when not included in attributes
+                try {
+                    status.setChecksum(hash.find(file.isSymbolicLink() ? file.getSymlinkTarget() : file));
+                }
+                catch(ConnectionCanceledException e) {
+                    throw e;
+                }
+                catch(BackgroundException e) {
+                    log.warn(String.format("Failure computing checksum for %s. %s", file, e));
+                }
+            }
+            else {
+                status.setChecksum(attributes.getChecksum());
+            }
         }
         return status;
     }
@@ -252,7 +277,74 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(status.isSegmented() && options.preallocate) {
+            this.preallocate(local, status);
+        }
+    }
+
+    /**
+     * Allocate target file with full length to write segments at their offset. Sparse where supported by the
+     * filesystem. Segments are moved to the final target when renamed by filter.
+     */
+    private void preallocate(final Local local, final TransferStatus status) throws BackgroundException {
+        final List<TransferStatus> segments = status.getSegments();
+        final TransferStatus last = segments.get(segments.size() - 1);
+        final long length = last.getOffset() + last.getLength();
+        DownloadSegmentBitmap bitmap = ((DownloadSegmentLocal) segments.get(0).getRename().local).getBitmap();
+        boolean resume = false;
+        for(TransferStatus segment : segments) {
+            if(segment.isComplete()) {
+                resume = true;
+            }
+        }
+        if(!segments.get(0).getRename().local.equals(local)) {
+            // Target changed by filter
+            bitmap = new DownloadSegmentBitmap(local, length, segments.get(0).getLength());
+            for(TransferStatus segment : segments) {
+                segment.withRename(new DownloadSegmentLocal(local, segment.getOffset(), bitmap));
+            }
+            resume = false;
+        }
+        else if(!resume) {
+            // Discard segments saved for previous download
+            bitmap.delete();
+        }
+        if(!local.getParent().exists()) {
+            // Created with first segment written
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Allocate %d bytes for %d segments in %s", length, segments.size(), local));
+        }
+        // Save before allocating to detect interrupted download with full length
+        bitmap.save();
+        final Object lock = this.lock(local);
+        try (RandomAccessFile file = new RandomAccessFile(local.getAbsolute(), "rw")) {
+            if(!resume) {
+                // Truncate previous content
+                file.setLength(0L);
+            }
+            file.setLength(length);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(String.format("Failure allocating %d bytes for %s", length, local), e);
+        }
+        finally {
+            local.release(lock);
+        }
+    }
+
+    /**
+     * @return Security scoped lock or null
+     */
+    private Object lock(final Local local) {
+        try {
+            return local.lock(false);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", local, e));
+            return null;
+        }
     }
 
     /**
@@ -268,10 +360,23 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Skip completion for single segment %s", status));
             }
+            if(status.isComplete()) {
+                if(local instanceof DownloadSegmentLocal) {
+                    // Save for resume
+                    ((DownloadSegmentLocal) local).complete();
+                }
+            }
             return;
         }
         if(status.isComplete()) {
-            if(status.isSegmented()) {
+            if(status.isSegmented() && status.getSegments().get(0).getRename().local instanceof DownloadSegmentLocal) {
+                // Segments written in place
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Completed %d segments in file %s", status.getSegments().size(), local));
+                }
+                ((DownloadSegmentLocal) status.getSegments().get(0).getRename().local).getBitmap().delete();
+            }
+            else if(status.isSegmented()) {
                 // Obtain ordered list of segments to reassemble
                 final List<TransferStatus> segments = status.getSegments();
                 if(log.isInfoEnabled()) {
@@ -29,6 +29,10 @@ public final class DownloadFilterOptions {
      * Split download into segments
      */
     public boolean segments;
+    /**
+     * Write segments at their offset in the target file instead of concatenating separate files
+     */
+    public boolean preallocate;
     public boolean permissions;
     public boolean timestamp;
     public boolean wherefrom;
@@ -43,6 +47,7 @@ public final class DownloadFilterOptions {
     public DownloadFilterOptions(final Host bookmark) {
         final PreferencesReader preferences = new HostPreferences(bookmark);
         segments = preferences.getBoolean("queue.download.segments");
+        preallocate = preferences.getBoolean("queue.download.segments.preallocate");
         permissions = preferences.getBoolean("queue.download.permissions.change");
         timestamp = preferences.getBoolean("queue.download.timestamp.change");
         wherefrom = preferences.getBoolean("queue.download.wherefrom");
@@ -56,6 +61,7 @@ public final class DownloadFilterOptions {
     public String toString() {
         final StringBuilder sb = new StringBuilder("DownloadFilterOptions{");
         sb.append("segments=").append(segments);
+        sb.append(", preallocate=").append(preallocate);
         sb.append(", permissions=").append(permissions);
         sb.append(", timestamp=").append(timestamp);
         sb.append(", wherefrom=").append(wherefrom);
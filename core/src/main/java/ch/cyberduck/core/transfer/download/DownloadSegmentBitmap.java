@@ -0,0 +1,191 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+
+/**
+ * Completed segments of a download written in place to the target file. Saved to a sidecar file next to the
+ * target on every completed segment to allow resuming an interrupted download without comparing file contents.
+ */
+public final class DownloadSegmentBitmap {
+    private static final Logger log = LogManager.getLogger(DownloadSegmentBitmap.class);
+
+    private final Local file;
+    /**
+     * Length of target file
+     */
+    private final long length;
+    /**
+     * Length of all but the last segment
+     */
+    private final long size;
+
+    private BitSet completed = new BitSet();
+    /**
+     * Sidecar file written
+     */
+    private boolean saved;
+
+    /**
+     * @param target Download target
+     * @param length Length of target file
+     * @param size   Segment size
+     */
+    public DownloadSegmentBitmap(final Local target, final long length, final long size) {
+        this.file = toSidecar(target);
+        this.length = length;
+        this.size = size;
+    }
+
+    /**
+     * @param target Download target
+     * @return File with completed segments of download
+     */
+    public static Local toSidecar(final Local target) {
+        return LocalFactory.get(target.getParent(), String.format("%s.cyberducksegments", target.getName()));
+    }
+
+    /**
+     * Read completed segments saved by previous attempt. Ignored if file length or segment size differs.
+     *
+     * @return False if no segments saved for file
+     */
+    public synchronized boolean resume() {
+        if(!file.exists()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(Paths.get(file.getAbsolute())))) {
+            if(in.readLong() != length || in.readLong() != size) {
+                log.warn(String.format("Ignore segments in %s with mismatch of file length %d or segment size %d", file, length, size));
+                return false;
+            }
+            final long[] words = new long[in.readInt()];
+            for(int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            completed = BitSet.valueOf(words);
+            saved = true;
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Resume with %d completed segments from %s", completed.cardinality(), file));
+            }
+            return true;
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading segments from %s. %s", file, e.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * @param offset Segment offset
+     * @return True if segment at offset was completed
+     */
+    public synchronized boolean isComplete(final long offset) {
+        return completed.get(this.index(offset));
+    }
+
+    /**
+     * Mark segment complete and save to sidecar file
+     *
+     * @param offset Segment offset
+     */
+    public synchronized void complete(final long offset) throws AccessDeniedException {
+        completed.set(this.index(offset));
+        this.save();
+    }
+
+    /**
+     * Save sidecar file unless already saved before any content is written to the target
+     */
+    public synchronized void create() throws AccessDeniedException {
+        if(!saved) {
+            this.save();
+        }
+    }
+
+    /**
+     * Save completed segments to sidecar file. Must be saved before the target is allocated to not mistake an
+     * interrupted download for a complete file with matching length.
+     */
+    public synchronized void save() throws AccessDeniedException {
+        final Path target = Paths.get(file.getAbsolute());
+        final Path temporary = Paths.get(String.format("%s.tmp", file.getAbsolute()));
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporary))) {
+                out.writeLong(length);
+                out.writeLong(size);
+                final long[] words = completed.toLongArray();
+                out.writeInt(words.length);
+                for(long word : words) {
+                    out.writeLong(word);
+                }
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch(AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            saved = true;
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(String.format("Failure saving segments to %s", file), e);
+        }
+    }
+
+    /**
+     * Remove sidecar file when download is complete
+     */
+    public synchronized void delete() throws BackgroundException {
+        if(file.exists()) {
+            file.delete();
+        }
+        completed.clear();
+        saved = false;
+    }
+
+    private int index(final long offset) {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DownloadSegmentBitmap{");
+        sb.append("file=").append(file);
+        sb.append(", length=").append(length);
+        sb.append(", size=").append(size);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.io.FileChannelOutputStream;
+
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Segment of download target file. Output streams write at the offset of the segment in the target file
+ * instead of to a separate file to be concatenated when all segments are complete.
+ */
+public class DownloadSegmentLocal extends Local {
+    private static final Logger log = LogManager.getLogger(DownloadSegmentLocal.class);
+
+    /**
+     * Download target to obtain security scoped access
+     */
+    private final Local target;
+    private final long offset;
+    private final DownloadSegmentBitmap bitmap;
+
+    /**
+     * @param target Download target
+     * @param offset Segment offset in file
+     * @param bitmap Completed segments of target
+     */
+    public DownloadSegmentLocal(final Local target, final long offset, final DownloadSegmentBitmap bitmap) {
+        super(target.getAbsolute());
+        this.target = target;
+        this.offset = offset;
+        this.bitmap = bitmap;
+    }
+
+    /**
+     * @param append Ignored as segment is always written from its offset
+     */
+    @Override
+    public OutputStream getOutputStream(final boolean append) throws AccessDeniedException {
+        // Sidecar must exist before any content is written
+        bitmap.create();
+        final Object lock = this.lock();
+        try {
+            final FileChannel channel = FileChannel.open(Paths.get(this.getAbsolute()), StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            channel.position(offset);
+            return new ProxyOutputStream(new FileChannelOutputStream(channel)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    }
+                    finally {
+                        release(lock);
+                    }
+                }
+            };
+        }
+        catch(IOException | RuntimeException e) {
+            this.release(lock);
+            throw new LocalAccessDeniedException(String.format("Failure opening %s at offset %d", this.getAbsolute(), offset), e);
+        }
+    }
+
+    /**
+     * @return Security scoped lock of target or null
+     */
+    private Object lock() {
+        try {
+            return this.lock(false);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", target, e));
+            return null;
+        }
+    }
+
+    /**
+     * @return Security scoped lock of download target
+     */
+    @Override
+    public Object lock(final boolean interactive) throws AccessDeniedException {
+        return target.lock(interactive);
+    }
+
+    @Override
+    public void release(final Object lock) {
+        target.release(lock);
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public DownloadSegmentBitmap getBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * @return True if segment was completed in previous attempt
+     */
+    public boolean isComplete() {
+        return bitmap.isComplete(offset);
+    }
+
+    /**
+     * Save segment as completed
+     */
+    public void complete() throws AccessDeniedException {
+        bitmap.complete(offset);
+    }
+}
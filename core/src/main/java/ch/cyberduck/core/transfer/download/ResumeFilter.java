@@ -59,7 +59,7 @@ public class ResumeFilter extends AbstractDownloadFilter {
             if(local.exists()) {
                 // Read remote attributes
                 final PathAttributes attributes = attribute.find(file);
-                if(local.attributes().getSize() == attributes.getSize()) {
+                if(local.attributes().getSize() == attributes.getSize() && !DownloadSegmentBitmap.toSidecar(local).exists()) {
                     if(Checksum.NONE != attributes.getChecksum()) {
                         final ChecksumCompute compute = ChecksumComputeFactory.get(attributes.getChecksum().algorithm);
                         if(compute.compute(local.getInputStream(), parent).equals(attributes.getChecksum())) {
@@ -88,7 +88,19 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
-        if(status.isSegmented()) {
+        if(status.isSegmented() && options.preallocate) {
+            final DownloadSegmentBitmap bitmap = ((DownloadSegmentLocal) status.getSegments().get(0).getRename().local).getBitmap();
+            if(local.exists() && bitmap.resume()) {
+                for(TransferStatus segmentStatus : status.getSegments()) {
+                    if(((DownloadSegmentLocal) segmentStatus.getRename().local).isComplete()) {
+                        segmentStatus.setComplete();
+                        status.setLength(status.getLength() - segmentStatus.getLength());
+                        status.setOffset(status.getOffset() + segmentStatus.getLength());
+                    }
+                }
+            }
+        }
+        else if(status.isSegmented()) {
             for(TransferStatus segmentStatus : status.getSegments()) {
                 final Local segmentFile = segmentStatus.getRename().local;
                 if(segmentFile.exists()) {
@@ -104,7 +116,13 @@ public class ResumeFilter extends AbstractDownloadFilter {
             }
         }
         else {
-            if(download.offset(file)) {
+            final Local sidecar = DownloadSegmentBitmap.toSidecar(local);
+            if(sidecar.exists()) {
+                // Content of file preallocated for segments cannot be appended to
+                log.warn(String.format("Discard segments saved in %s for %s", sidecar, local));
+                sidecar.delete();
+            }
+            else if(download.offset(file)) {
                 if(local.isFile()) {
                     if(local.exists()) {
                         if(local.attributes().getSize() > 0) {
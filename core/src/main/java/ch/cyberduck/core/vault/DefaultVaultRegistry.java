@@ -93,6 +93,16 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
         return false;
     }
 
+    @Override
+    public boolean containsDescendant(final Path directory) {
+        for(Vault vault : this) {
+            if(vault.getHome().isChild(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void clear() {
         if(log.isInfoEnabled()) {
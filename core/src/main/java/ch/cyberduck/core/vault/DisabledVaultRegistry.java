@@ -41,6 +41,11 @@ public class DisabledVaultRegistry implements VaultRegistry {
         return false;
     }
 
+    @Override
+    public boolean containsDescendant(final Path directory) {
+        return false;
+    }
+
     @Override
     public boolean add(final Vault vault) {
         return false;
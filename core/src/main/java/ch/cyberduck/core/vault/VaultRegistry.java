@@ -54,4 +54,10 @@ public interface VaultRegistry {
     <T> T getFeature(Session<?> session, Class<T> type, T proxy);
 
     boolean contains(Path vault);
+
+    /**
+     * @param directory Directory
+     * @return True if any registered vault is located in directory or one of its subdirectories
+     */
+    boolean containsDescendant(Path directory);
 }
@@ -55,6 +55,16 @@ public class VaultRegistryBulkFeature<R> implements Bulk<R> {
         return this;
     }
 
+    @Override
+    public boolean isIncremental() {
+        return proxy.isIncremental();
+    }
+
+    @Override
+    public boolean isPostProcessing() {
+        return proxy.isPostProcessing();
+    }
+
     @Override
     public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
         for(Map.Entry<TransferItem, TransferStatus> file : files.entrySet()) {
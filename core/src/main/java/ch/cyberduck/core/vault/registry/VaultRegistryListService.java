@@ -19,8 +19,11 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ProxyListProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.features.Vault;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.vault.VaultFinderListProgressListener;
@@ -69,6 +72,79 @@ public class VaultRegistryListService implements ListService {
         }
     }
 
+    @Override
+    public boolean isRecursive(final Path directory) {
+        return proxy.isRecursive(directory);
+    }
+
+    /**
+     * Flat listing is only returned when no vault is found in the directory or any of its subdirectories. Otherwise
+     * each directory is listed to decrypt or detect vaults. The flat listing is not started for directories containing
+     * a registered vault and is interrupted when a vault is detected in a chunk received.
+     */
+    @Override
+    public AttributedList<Path> listRecursive(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        try {
+            if(proxy.isRecursive(directory) && !registry.find(session, directory).contains(directory)
+                    && !registry.containsDescendant(directory)) {
+                return proxy.listRecursive(directory, new VaultDetectingListProgressListener(listener));
+            }
+        }
+        catch(VaultFoundException e) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Found vault in %s. List each directory", directory));
+            }
+        }
+        catch(VaultUnlockCancelException e) {
+            log.warn(String.format("Canceled loading vault %s. %s", e.getVault(), e));
+        }
+        return ListService.super.listRecursive(directory, listener);
+    }
+
+    private boolean isVault(final Path f, final String masterkey) {
+        if(f.isDirectory() && registry.contains(f)) {
+            return true;
+        }
+        return autodetect && f.isFile() && masterkey.equals(f.getName());
+    }
+
+    /**
+     * Interrupt listing when a vault is found in the files received
+     */
+    private final class VaultDetectingListProgressListener extends ProxyListProgressListener {
+        private final String masterkey = new HostPreferences(session.getHost()).getProperty("cryptomator.vault.masterkey.filename");
+
+        private AttributedList<Path> list;
+        /**
+         * Number of files in list already checked
+         */
+        private int index;
+
+        public VaultDetectingListProgressListener(final ListProgressListener proxy) {
+            super(proxy);
+        }
+
+        @Override
+        public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
+            super.chunk(folder, list);
+            if(list != this.list) {
+                this.list = list;
+                index = 0;
+            }
+            for(; index < list.size(); index++) {
+                if(isVault(list.get(index), masterkey)) {
+                    throw new VaultFoundException(list);
+                }
+            }
+        }
+    }
+
+    private static final class VaultFoundException extends ListCanceledException {
+        public VaultFoundException(final AttributedList<Path> chunk) {
+            super(chunk);
+        }
+    }
+
     public VaultRegistryListService withAutodetect(final boolean autodetect) {
         this.autodetect = autodetect && new HostPreferences(session.getHost()).getBoolean("cryptomator.enable");
         return this;
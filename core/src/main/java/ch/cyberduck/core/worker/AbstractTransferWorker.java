@@ -36,7 +36,9 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.TransferCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
+import ch.cyberduck.core.transfer.SpillingTransferStatusMap;
 import ch.cyberduck.core.transfer.SynchronizingTransferErrorCallback;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferAction;
@@ -54,10 +56,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private static final Logger log = LogManager.getLogger(AbstractTransferWorker.class);
@@ -86,6 +92,22 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private final Cache<TransferItem> cache;
     private final ProgressListener progress;
     private final StreamListener stream;
+    /**
+     * Files are transferred as soon as prepared
+     */
+    private volatile boolean pipelined;
+    /**
+     * Status of completed files can be dropped from memory
+     */
+    private volatile boolean retire;
+    /**
+     * Number of directory listings submitted to pool in pipelined transfer
+     */
+    private final Semaphore frontier = new Semaphore(PreferencesFactory.get().getInteger("queue.transfer.pipeline.frontier"));
+    /**
+     * Number of files submitted to pool and waiting for transfer in pipelined transfer
+     */
+    private final Semaphore pending = new Semaphore(PreferencesFactory.get().getInteger("queue.transfer.pipeline.pending"));
 
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
@@ -144,6 +166,17 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
      */
     protected abstract Future<TransferStatus> submit(TransferCallable callable) throws BackgroundException;
 
+    /**
+     * Submit segment of file transferred in multiple segments
+     *
+     * @param callable Repeatable
+     * @return Future transfer status
+     * @throws BackgroundException On transfer failure when executed instantly
+     */
+    protected Future<TransferStatus> segment(final TransferCallable callable) throws BackgroundException {
+        return this.submit(callable);
+    }
+
     /**
      * Borrow session from pool for transfer
      */
@@ -154,6 +187,13 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
      */
     protected abstract void release(Session session, Connection type, BackgroundException failure);
 
+    /**
+     * @return True if files can be submitted for transfer while preparing remaining files
+     */
+    protected boolean isPipelined() {
+        return false;
+    }
+
     @Override
     public Boolean initialize() {
         return false;
@@ -161,7 +201,9 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
 
     @Override
     public void cancel() {
-        for(TransferStatus status : table.values()) {
+        // Skip completed files retired from table
+        for(TransferStatus status : table instanceof SpillingTransferStatusMap ?
+                ((SpillingTransferStatusMap) table).getActive().values() : table.values()) {
             for(TransferStatus segment : status.getSegments()) {
                 segment.setCanceled();
             }
@@ -204,20 +246,33 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             // Normalize Paths before preparing
             transfer.normalize();
 
-            // Calculate information about the files in advance to give progress information
-            for(TransferItem next : transfer.getRoots()) {
-                // Check if parent directory is found in set to determine status
-                this.prepare(next.remote, next.local, new TransferStatus()
-                        .exists(!transfer.getRoots().stream().anyMatch(f -> next.remote.isChild(f.remote))), action);
+            pipelined = this.isPipelined() && transfer.isPipelined(source, destination);
+            retire = table instanceof SpillingTransferStatusMap && !transfer.isPostProcessing(source, destination);
+            if(pipelined) {
+                meter.reset();
+                // Transfer files while remaining files are still prepared
+                for(TransferItem next : transfer.getRoots()) {
+                    this.pipeline(Collections.singletonList(next), new TransferStatus()
+                            .exists(!transfer.getRoots().stream().anyMatch(f -> next.remote.isChild(f.remote))), action);
+                }
+                this.await();
             }
-            this.await();
-            meter.reset();
-            transfer.pre(source, destination, table, transfer.filter(source, destination, action, progress), error, progress, connect);
-            // Transfer all files sequentially
-            for(TransferItem next : transfer.getRoots()) {
-                this.transfer(next, action);
+            else {
+                // Calculate information about the files in advance to give progress information
+                for(TransferItem next : transfer.getRoots()) {
+                    // Check if parent directory is found in set to determine status
+                    this.prepare(next.remote, next.local, new TransferStatus()
+                            .exists(!transfer.getRoots().stream().anyMatch(f -> next.remote.isChild(f.remote))), action);
+                }
+                this.await();
+                meter.reset();
+                transfer.pre(source, destination, table, transfer.filter(source, destination, action, progress), error, progress, connect);
+                // Transfer all files sequentially
+                for(TransferItem next : transfer.getRoots()) {
+                    this.transfer(next, action);
+                }
+                this.await();
             }
-            this.await();
             transfer.post(source, destination, table, error, progress, connect);
         }
         finally {
@@ -341,6 +396,189 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return null;
     }
 
+    /**
+     * Prepare files and submit them for transfer before continuing with the listing of subdirectories. Listing of
+     * subdirectories is submitted to the pool while the number of pending listings is below the limit of the frontier
+     * and continued in the current thread otherwise. Likewise files are transferred in the current thread when the
+     * number of files waiting for transfer exceeds the limit.
+     *
+     * @param items  Files with common parent
+     * @param parent Transfer status of parent directory
+     * @param action Transfer action for existing files
+     */
+    protected Future<TransferStatus> pipeline(final List<TransferItem> items, final TransferStatus parent, final TransferAction action) throws BackgroundException {
+        if(this.isCanceled()) {
+            throw new TransferCanceledException();
+        }
+        return this.submit(new PipelineTransferCallable(null, items, parent, action, false));
+    }
+
+    /**
+     * List directory or use given files, prepare all files with the same connections and submit for transfer
+     */
+    private final class PipelineTransferCallable extends RetryTransferCallable {
+        /**
+         * Directory to list or null
+         */
+        private final TransferItem directory;
+        private final TransferStatus parent;
+        private final TransferAction action;
+        /**
+         * Holding permit of frontier
+         */
+        private final boolean permit;
+
+        private List<TransferItem> items;
+        /**
+         * Index of next file to prepare
+         */
+        private int index = 0;
+        private boolean pre = false;
+
+        public PipelineTransferCallable(final TransferItem directory, final List<TransferItem> items,
+                                        final TransferStatus parent, final TransferAction action, final boolean permit) {
+            super(transfer.getSource());
+            this.directory = directory;
+            this.items = items;
+            this.parent = parent;
+            this.action = action;
+            this.permit = permit;
+        }
+
+        @Override
+        public TransferStatus call() throws BackgroundException {
+            try {
+                final Map<TransferItem, TransferStatus> batch = new LinkedHashMap<>();
+                while(true) {
+                    parent.validate();
+                    if(isCanceled()) {
+                        throw new TransferCanceledException();
+                    }
+                    final Session<?> source = borrow(Connection.source);
+                    final Session<?> destination = borrow(Connection.destination);
+                    BackgroundException failure = null;
+                    try {
+                        if(null == items) {
+                            items = transfer.list(source, directory.remote, directory.local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
+                        }
+                        // Determine transfer filter implementation from selected overwrite action
+                        final TransferPathFilter filter = transfer.filter(source, destination, action, progress);
+                        for(; index < items.size(); index++) {
+                            final TransferItem item = items.get(index);
+                            if(!prompt.isSelected(item)) {
+                                log.info(String.format("Skip unchecked file %s for transfer %s", item, this));
+                                continue;
+                            }
+                            final TransferStatus status = this.prepare(filter, item);
+                            if(status != null) {
+                                batch.put(item, status);
+                            }
+                        }
+                        if(!pre) {
+                            transfer.pre(source, destination, batch, filter, error, progress, connect);
+                            pre = true;
+                        }
+                        break;
+                    }
+                    catch(BackgroundException e) {
+                        failure = e;
+                        if(this.retry(e, progress, new TransferBackgroundActionState(parent))) {
+                            // Retry with new connections
+                            continue;
+                        }
+                        if(null == items) {
+                            // Failure listing directory
+                            if(error.prompt(directory, parent, e, table.size())) {
+                                log.warn(String.format("Ignore transfer failure %s", e));
+                                return null;
+                            }
+                            throw new TransferCanceledException(e);
+                        }
+                        if(index == items.size()) {
+                            // Failure in pre process of files
+                            throw new TransferCanceledException(e);
+                        }
+                        // Prompt to continue or abort for application errors
+                        if(error.prompt(items.get(index), parent, e, table.size())) {
+                            // Continue with next file
+                            log.warn(String.format("Ignore transfer failure %s", e));
+                            index++;
+                        }
+                        else {
+                            throw new TransferCanceledException(e);
+                        }
+                    }
+                    finally {
+                        release(source, Connection.source, failure);
+                        release(destination, Connection.destination, failure);
+                    }
+                }
+                final List<Map.Entry<TransferItem, TransferStatus>> directories = new ArrayList<>();
+                for(Map.Entry<TransferItem, TransferStatus> entry : batch.entrySet()) {
+                    transfer(entry.getKey(), action);
+                    if(entry.getKey().remote.isDirectory()) {
+                        directories.add(entry);
+                    }
+                }
+                for(Map.Entry<TransferItem, TransferStatus> entry : directories) {
+                    if(frontier.tryAcquire()) {
+                        submit(new PipelineTransferCallable(entry.getKey(), null, entry.getValue(), action, true));
+                    }
+                    else {
+                        // Continue depth first with pending listings exceeding frontier
+                        new PipelineTransferCallable(entry.getKey(), null, entry.getValue(), action, false).call();
+                    }
+                }
+                return parent;
+            }
+            finally {
+                if(permit) {
+                    frontier.release();
+                }
+            }
+        }
+
+        /**
+         * @return Transfer status or null if skipped by filter
+         */
+        private TransferStatus prepare(final TransferPathFilter filter, final TransferItem item) throws BackgroundException {
+            progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"),
+                    item.remote.getName(), action.getTitle()));
+            // Only prepare the path it will be actually transferred
+            if(!filter.accept(item.remote, item.local, parent)) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Skip file %s by filter %s for transfer %s", item.remote, filter, this));
+                }
+                return null;
+            }
+            // Determine transfer status
+            final TransferStatus status = filter.prepare(item.remote, item.local, parent, progress);
+            table.put(item, status);
+            // Apply filter
+            filter.apply(
+                    status.getRename().remote != null ? status.getRename().remote : item.remote,
+                    status.getRename().local != null ? status.getRename().local : item.local,
+                    status, progress);
+            // Add transfer length to total bytes
+            transfer.addSize(status.getLength() + status.getOffset());
+            // Add skipped bytes
+            transfer.addTransferred(status.getOffset());
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Determined transfer status %s of %s for transfer %s", status, item.remote, this));
+            }
+            return status;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("PipelineTransferCallable{");
+            sb.append("directory=").append(directory);
+            sb.append(", items=").append(null == items ? -1 : items.size());
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
     /**
      * @param item   File to transfer
      * @param action Transfer action for existing files
@@ -355,8 +593,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             final TransferStatus status = table.get(item);
             // Handle submit of one or more segments
             final List<TransferStatus> segments = status.getSegments();
+            // Transfer in current thread when too many files are waiting for transfer in pipelined transfer
+            final boolean inline = pipelined && !pending.tryAcquire();
             for(final TransferStatus segment : segments) {
-                this.submit(new RetryTransferCallable(transfer.getSource()) {
+                final TransferCallable task = new RetryTransferCallable(transfer.getSource()) {
                     @Override
                     public TransferStatus call() throws BackgroundException {
                         status.validate();
@@ -384,8 +624,8 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             release(source, Connection.source, null);
                             release(destination, Connection.destination, null);
                         }
-                        // Recursive
-                        if(item.remote.isDirectory()) {
+                        // Recursive unless children are submitted when prepared
+                        if(item.remote.isDirectory() && !pipelined) {
                             if(!cache.isCached(item)) {
                                 log.warn(String.format("Missing entry for %s in cache", item));
                             }
@@ -395,6 +635,9 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             }
                             cache.remove(item);
                         }
+                        if(!status.isSegmented()) {
+                            retire(item);
+                        }
                         return segment;
                     }
 
@@ -471,9 +714,18 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         sb.append('}');
                         return sb.toString();
                     }
-                });
+                };
+                if(inline) {
+                    task.call();
+                }
+                else if(status.isSegmented()) {
+                    this.segment(task);
+                }
+                else {
+                    this.submit(task);
+                }
             }
-            return this.submit(new TransferCallable() {
+            final TransferCallable complete = new TransferCallable() {
                 @Override
                 public TransferStatus call() throws BackgroundException {
                     status.validate();
@@ -507,6 +759,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             log.warn(String.format("Skip concatenating segments for failed transfer %s", status));
                             status.setFailure();
                         }
+                        retire(item);
                     }
                     return status;
                 }
@@ -519,7 +772,29 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                     sb.append('}');
                     return sb.toString();
                 }
-            });
+            };
+            if(inline) {
+                return ConcurrentUtils.constantFuture(complete.call());
+            }
+            if(pipelined) {
+                return this.submit(new TransferCallable() {
+                    @Override
+                    public TransferStatus call() throws BackgroundException {
+                        try {
+                            return complete.call();
+                        }
+                        finally {
+                            pending.release();
+                        }
+                    }
+
+                    @Override
+                    public String toString() {
+                        return complete.toString();
+                    }
+                });
+            }
+            return this.submit(complete);
         }
         else {
             log.warn(String.format("Skip file %s with unknown transfer status", item));
@@ -527,6 +802,17 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return ConcurrentUtils.constantFuture(null);
     }
 
+    /**
+     * Drop status of completed file from memory if supported by status table
+     *
+     * @param item File transferred
+     */
+    private void retire(final TransferItem item) {
+        if(retire) {
+            ((SpillingTransferStatusMap) table).retire(item);
+        }
+    }
+
     protected void shutdown() {
         // No-op
     }
@@ -70,7 +70,18 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
         listener.message(MessageFormat.format(LocaleFactory.localizedString("Getting size of {0}", "Status"),
                 p.getName()));
         if(p.isDirectory()) {
-            for(Path next : session.getFeature(ListService.class).list(p, new WorkerListProgressListener(this, listener))) {
+            final ListService service = session.getFeature(ListService.class);
+            if(service.isRecursive(p)) {
+                for(Path next : service.listRecursive(p, new WorkerListProgressListener(this, listener))) {
+                    if(next.isFile()) {
+                        size += next.attributes().getSize();
+                        total += next.attributes().getSize();
+                    }
+                }
+                this.update(total);
+                return size;
+            }
+            for(Path next : service.list(p, new WorkerListProgressListener(this, listener))) {
                 size += this.calculateSize(session, next);
             }
         }
@@ -22,16 +22,23 @@ import ch.cyberduck.core.AlphanumericRandomStringService;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.TransferItemCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.SegmentThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.AdaptiveTransferConnectionLimiter;
 import ch.cyberduck.core.transfer.AutoTransferConnectionLimiter;
+import ch.cyberduck.core.transfer.SpillingTransferStatusMap;
 import ch.cyberduck.core.transfer.Transfer;
+import ch.cyberduck.core.transfer.TransferConnectionLimiter;
 import ch.cyberduck.core.transfer.TransferErrorCallback;
 import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferPrompt;
@@ -41,7 +48,10 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
@@ -57,9 +67,26 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     private final SessionPool destination;
 
     private final CompletionService<TransferStatus> completion;
+    /**
+     * Segments of files scheduled with limit of concurrent segments shared by all transfers
+     */
+    private final CompletionService<TransferStatus> segments;
     // Keep number of submitted tasks
     private final AtomicInteger size = new AtomicInteger();
     private final ThreadPool pool;
+    private final ThreadPool segmentation;
+    /**
+     * Fixed number of concurrent connections or initial limit when adjusted to throughput
+     */
+    private final int connections;
+    /**
+     * Adjust number of concurrent connections to throughput or null for fixed limit
+     */
+    private final AdaptiveTransferConnectionLimiter limiter;
+    /**
+     * Sessions borrowed holding a permit of the limiter
+     */
+    private final Set<Session<?>> permits = ConcurrentHashMap.newKeySet();
 
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
@@ -88,50 +115,89 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
                                     final ProgressListener progressListener,
                                     final StreamListener streamListener,
                                     final NotificationService notification) {
-        super(transfer, options, prompt, meter, error, progressListener, streamListener, connect, notification);
+        super(transfer, options, prompt, meter, error, progressListener, streamListener, connect, notification, new TransferItemCache(Integer.MAX_VALUE),
+                PreferencesFactory.get().getBoolean("queue.transfer.table.spill.enable") ? new SpillingTransferStatusMap() : new ConcurrentHashMap<>());
         this.source = source;
         this.destination = destination;
-        this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
-                new AutoTransferConnectionLimiter().getLimit(transfer.getSource()), priority, new LinkedBlockingQueue<>(Integer.MAX_VALUE));
-        this.completion = new ExecutorCompletionService<>(pool.executor());
+        final Preferences preferences = PreferencesFactory.get();
+        this.connections = new AutoTransferConnectionLimiter().getLimit(transfer.getSource());
+        if(preferences.getBoolean("queue.connections.limit.adaptive.enable")
+                && TransferConnectionLimiter.AUTO == preferences.getInteger("queue.connections.limit")
+                && connections > 1) {
+            this.limiter = new AdaptiveTransferConnectionLimiter(transfer::getTransferred, connections,
+                    preferences.getInteger("queue.connections.limit.adaptive.max"),
+                    preferences.getLong("queue.connections.limit.adaptive.interval"));
+            // Threads in excess of current limit wait for permit to borrow connection
+            this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
+                    Math.max(connections, preferences.getInteger("queue.connections.limit.adaptive.max")), priority, new LinkedBlockingQueue<>(Integer.MAX_VALUE));
+        }
+        else {
+            this.limiter = null;
+            this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
+                    connections, priority, new LinkedBlockingQueue<>(Integer.MAX_VALUE));
+        }
+        this.segmentation = new SegmentThreadPool(connections);
+        // Completed segments are retrieved in the same queue as other tasks
+        final BlockingQueue<Future<TransferStatus>> completed = new LinkedBlockingQueue<>();
+        this.completion = new ExecutorCompletionService<>(pool.executor(), completed);
+        this.segments = new ExecutorCompletionService<>(segmentation.executor(), completed);
     }
 
     @Override
     protected Session<?> borrow(final Connection type) throws BackgroundException {
         switch(type) {
             case source:
-                return source.borrow(new BackgroundActionState() {
-                    @Override
-                    public boolean isCanceled() {
-                        return ConcurrentTransferWorker.this.isCanceled();
-                    }
-
-                    @Override
-                    public boolean isRunning() {
-                        return true;
-                    }
-                });
+                if(null == limiter) {
+                    return this.borrow(source);
+                }
+                try {
+                    limiter.acquire();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                final Session<?> session;
+                try {
+                    session = this.borrow(source);
+                }
+                catch(BackgroundException e) {
+                    limiter.release();
+                    throw e;
+                }
+                permits.add(session);
+                return session;
             case destination:
-                return destination.borrow(new BackgroundActionState() {
-                    @Override
-                    public boolean isCanceled() {
-                        return ConcurrentTransferWorker.this.isCanceled();
-                    }
-
-                    @Override
-                    public boolean isRunning() {
-                        return true;
-                    }
-                });
+                return this.borrow(destination);
         }
         return null;
     }
 
+    private Session<?> borrow(final SessionPool sessions) throws BackgroundException {
+        return sessions.borrow(new BackgroundActionState() {
+            @Override
+            public boolean isCanceled() {
+                return ConcurrentTransferWorker.this.isCanceled();
+            }
+
+            @Override
+            public boolean isRunning() {
+                return true;
+            }
+        });
+    }
+
     @Override
     protected void release(final Session session, final Connection type, final BackgroundException failure) {
         switch(type) {
             case source:
                 source.release(session, failure);
+                // Ignore session not borrowed from worker or released before
+                if(limiter != null && permits.remove(session)) {
+                    if(failure != null) {
+                        limiter.failure(failure);
+                    }
+                    limiter.release();
+                }
                 break;
             case destination:
                 destination.release(session, failure);
@@ -139,6 +205,11 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         }
     }
 
+    @Override
+    protected boolean isPipelined() {
+        return PreferencesFactory.get().getBoolean("queue.transfer.pipeline.enable");
+    }
+
     @Override
     public Future<TransferStatus> submit(final TransferCallable callable) {
         if(log.isInfoEnabled()) {
@@ -149,6 +220,30 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         return f;
     }
 
+    @Override
+    protected Future<TransferStatus> segment(final TransferCallable callable) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit %s to segment pool", callable));
+        }
+        final Future<TransferStatus> f = segments.submit(callable);
+        size.incrementAndGet();
+        return f;
+    }
+
+    /**
+     * @return Current number of concurrent connections allowed
+     */
+    public int getConnectionLimit() {
+        return null == limiter ? connections : limiter.getLimit();
+    }
+
+    /**
+     * @return Number of connections currently borrowed when adjusted to throughput or -1 if not tracked
+     */
+    public int getActiveConnections() {
+        return null == limiter ? -1 : limiter.getActive();
+    }
+
     @Override
     public void await() throws BackgroundException {
         while(size.get() > 0) {
@@ -181,6 +276,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     protected void shutdown() {
         // Always shutdown gracefully allowing the threads to return after checking transfer status
         pool.shutdown(true);
+        segmentation.shutdown(true);
     }
 
     @Override
@@ -189,6 +285,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         sb.append("source=").append(source);
         sb.append(", destination=").append(destination);
         sb.append(", pool=").append(completion);
+        sb.append(", limiter=").append(limiter);
         sb.append('}');
         return sb.toString();
     }
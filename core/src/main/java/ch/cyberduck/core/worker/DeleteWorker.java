@@ -28,6 +28,7 @@ import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Delete;
@@ -41,10 +42,12 @@ import org.apache.logging.log4j.Logger;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 public class DeleteWorker extends Worker<List<Path>> {
 
@@ -157,7 +160,35 @@ public class DeleteWorker extends Worker<List<Path>> {
             recursive.put(file, new TransferStatus().withLockId(this.getLockId(file)));
         }
         else if(file.isDirectory()) {
-            if(!delete.isRecursive()) {
+            if(!delete.isRecursive() && list.isRecursive(file)) {
+                // Single listing of all descendants with directories preceding their children
+                final List<Path> children = new ArrayList<>();
+                final Set<SimplePathPredicate> rejected = new HashSet<>();
+                for(Path child : list.listRecursive(file, listener)) {
+                    if(rejected.contains(new SimplePathPredicate(child.getParent())) || !filter.accept(child)) {
+                        if(child.isDirectory()) {
+                            // Skip all descendants of filtered directory
+                            rejected.add(new SimplePathPredicate(child));
+                        }
+                        continue;
+                    }
+                    children.add(child);
+                }
+                // Reverse order to add children before parent
+                Collections.reverse(children);
+                for(Path child : children) {
+                    if(this.isCanceled()) {
+                        throw new ConnectionCanceledException();
+                    }
+                    if(child.isDirectory()) {
+                        recursive.put(child, new TransferStatus().withLockId(this.getLockId(child)));
+                    }
+                    else {
+                        recursive.putAll(this.compile(host, delete, list, listener, child));
+                    }
+                }
+            }
+            else if(!delete.isRecursive()) {
                 for(Path child : list.list(file, listener).filter(filter)) {
                     if(this.isCanceled()) {
                         throw new ConnectionCanceledException();
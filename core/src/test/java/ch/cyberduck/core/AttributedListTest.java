@@ -3,6 +3,8 @@ package ch.cyberduck.core;
 import org.junit.Test;
 
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
@@ -80,4 +82,63 @@ public class AttributedListTest {
         assertNotSame(list, list.filter(new NullFilter<>()));
         assertEquals(list, list.filter(new NullFilter<>()));
     }
+
+    @Test
+    public void testIndexOf() {
+        final AttributedList<Path> list = new AttributedList<>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        final Path c = new Path("/c", EnumSet.of(Path.Type.file));
+        list.add(a);
+        list.add(b);
+        assertEquals(0, list.indexOf(a));
+        assertEquals(1, list.indexOf(b));
+        assertEquals(-1, list.indexOf(c));
+        list.add(c);
+        assertEquals(2, list.indexOf(new Path("/c", EnumSet.of(Path.Type.file))));
+        assertSame(c, list.get(new Path("/c", EnumSet.of(Path.Type.file))));
+        list.add(0, c);
+        assertEquals(0, list.indexOf(c));
+        assertEquals(1, list.indexOf(a));
+        assertTrue(list.remove(c));
+        assertEquals(0, list.indexOf(a));
+        assertEquals(2, list.indexOf(c));
+        list.remove(0);
+        assertFalse(list.contains(a));
+        assertTrue(list.contains(b));
+        assertNull(list.get(a));
+    }
+
+    @Test
+    public void testIndexOfModified() {
+        final AttributedList<Path> list = new AttributedList<>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        list.add(a);
+        list.add(new Path("/b", EnumSet.of(Path.Type.file)));
+        assertEquals(0, list.indexOf(a));
+        // Modify attributes included in reference of element
+        a.attributes().setVersionId("1");
+        assertEquals(0, list.indexOf(a));
+        assertEquals(0, list.indexOf(new Path("/a", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("1"))));
+        assertEquals(-1, list.indexOf(new Path("/a", EnumSet.of(Path.Type.file))));
+        assertTrue(list.contains(a));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final AttributedList<Path> list = new AttributedList<>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        list.add(a);
+        final Iterator<Path> iterator = list.iterator();
+        final List<Path> snapshot = list.toList();
+        list.add(new Path("/b", EnumSet.of(Path.Type.file)));
+        assertSame(a, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(1, snapshot.size());
+        assertEquals(2, list.toList().size());
+        for(Path f : list) {
+            list.remove(f);
+        }
+        assertTrue(list.isEmpty());
+    }
 }
@@ -8,6 +8,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.junit.Test;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,7 +37,8 @@ public class PathAttributesTest {
         attributes.setVersionId("b");
         assertNotEquals(attributes.getVersionId(), clone.getVersionId());
         assertEquals(attributes.getPermission(), clone.getPermission());
-        assertNotSame(attributes.getPermission(), clone.getPermission());
+        // Shared instance per mode
+        assertSame(attributes.getPermission(), clone.getPermission());
         attributes.setLink(new DescriptiveUrl(URI.create("http://g")));
         assertEquals(DescriptiveUrl.EMPTY, clone.getLink());
     }
@@ -94,4 +96,45 @@ public class PathAttributesTest {
         assertEquals(attributes.getCustom(), deserialized.getCustom());
         assertEquals(attributes, deserialized);
     }
+
+    @Test
+    public void testCopyExtension() {
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setSize(1L);
+        final PathAttributes clone = new PathAttributes(attributes);
+        clone.setETag("e");
+        clone.setMetadata(Collections.singletonMap("k", "v"));
+        assertNull(attributes.getETag());
+        assertTrue(attributes.getMetadata().isEmpty());
+        assertEquals(-1L, attributes.getQuota());
+        assertEquals(Acl.EMPTY, attributes.getAcl());
+        final PathAttributes copy = new PathAttributes(clone);
+        assertEquals("e", copy.getETag());
+        assertEquals("v", copy.getMetadata().get("k"));
+        copy.withCustom("c", "v");
+        assertTrue(clone.getCustom().isEmpty());
+        assertTrue(attributes.getCustom().isEmpty());
+    }
+
+    @Test
+    public void testSharedValues() {
+        final PathAttributes a = new PathAttributes();
+        a.setOwner(new String("u"));
+        a.setGroup(new String("g"));
+        a.setStorageClass(new String("STANDARD"));
+        a.setRegion(new String("r"));
+        a.setPermission(new Permission(644));
+        final PathAttributes b = new PathAttributes();
+        b.setOwner(new String("u"));
+        b.setGroup(new String("g"));
+        b.setStorageClass(new String("STANDARD"));
+        b.setRegion(new String("r"));
+        b.setPermission(new Permission("rw-r--r--"));
+        assertSame(a.getOwner(), b.getOwner());
+        assertSame(a.getGroup(), b.getGroup());
+        assertSame(a.getStorageClass(), b.getStorageClass());
+        assertSame(a.getRegion(), b.getRegion());
+        assertSame(a.getPermission(), b.getPermission());
+        assertEquals(a, b);
+    }
 }
@@ -2,6 +2,7 @@ package ch.cyberduck.core;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.EnumSet;
 
 import static org.junit.Assert.*;
@@ -23,6 +24,57 @@ public class PathCacheTest {
         assertNotNull(cache.lookup(new DefaultPathPredicate(file2)));
     }
 
+    @Test
+    public void testLookupIndex() {
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/p", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, "name", EnumSet.of(Path.Type.file));
+        final AttributedList<Path> list = new AttributedList<>();
+        list.add(file);
+        cache.put(directory, list);
+        assertSame(file, cache.lookup(new DefaultPathPredicate(file)));
+        // Replace listing
+        final Path replacement = new Path(directory, "name", EnumSet.of(Path.Type.file));
+        cache.put(directory, new AttributedList<>(Collections.singletonList(replacement)));
+        assertSame(replacement, cache.lookup(new DefaultPathPredicate(file)));
+        // Cache same listing again
+        cache.put(directory, cache.get(directory));
+        assertSame(replacement, cache.lookup(new DefaultPathPredicate(file)));
+        cache.remove(directory);
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+    }
+
+    @Test
+    public void testLookupIndexEvicted() {
+        final PathCache cache = new PathCache(1);
+        final Path directory1 = new Path("/p1", EnumSet.of(Path.Type.directory));
+        final Path file1 = new Path(directory1, "name", EnumSet.of(Path.Type.file));
+        cache.put(directory1, new AttributedList<>(Collections.singletonList(file1)));
+        final Path directory2 = new Path("/p2", EnumSet.of(Path.Type.directory));
+        final Path file2 = new Path(directory2, "name", EnumSet.of(Path.Type.file));
+        cache.put(directory2, new AttributedList<>(Collections.singletonList(file2)));
+        assertFalse(cache.containsKey(directory1));
+        assertNull(cache.lookup(new DefaultPathPredicate(file1)));
+        assertSame(file2, cache.lookup(new DefaultPathPredicate(file2)));
+        cache.clear();
+        assertNull(cache.lookup(new DefaultPathPredicate(file2)));
+    }
+
+    @Test
+    public void testLookupIndexModified() {
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/p", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, "name", EnumSet.of(Path.Type.file));
+        cache.put(directory, new AttributedList<>(Collections.singletonList(file)));
+        final DefaultPathPredicate previous = new DefaultPathPredicate(file);
+        // Modify after caching
+        file.attributes().setFileId("id");
+        assertSame(file, cache.lookup(new DefaultPathPredicate(file)));
+        assertNull(cache.lookup(previous));
+        cache.remove(directory);
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+    }
+
     @Test
     public void testIsEmpty() {
         final PathCache cache = new PathCache(1);
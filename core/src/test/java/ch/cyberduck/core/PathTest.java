@@ -22,7 +22,14 @@ import ch.cyberduck.core.serializer.PathDictionary;
 
 import org.junit.Test;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -155,4 +162,154 @@ public class PathTest {
         assertNotEquals(new Path("19.vcf.gz", EnumSet.of(Path.Type.file)), new Path("0X.vcf.gz", EnumSet.of(Path.Type.file)));
         assertNotEquals(new Path("/d/2R", EnumSet.of(Path.Type.directory)), new Path("/d/33", EnumSet.of(Path.Type.directory)));
     }
+
+    @Test
+    public void testReferenceHashCode() {
+        final Path file = new Path("/d/f", EnumSet.of(Path.Type.file));
+        assertEquals(new DefaultPathPredicate(file).toString().hashCode(), new DefaultPathPredicate(file).hashCode());
+        assertEquals("[file]-/d/f", new DefaultPathPredicate(file).toString());
+        final Path root = new Path("/", EnumSet.of(Path.Type.directory));
+        assertEquals("[directory]-/", new DefaultPathPredicate(root).toString());
+        assertEquals(new DefaultPathPredicate(root).toString().hashCode(), new DefaultPathPredicate(root).hashCode());
+        file.attributes().setVersionId("1");
+        assertEquals("[file]-1/d/f", new DefaultPathPredicate(file).toString());
+        assertEquals(new DefaultPathPredicate(file).toString().hashCode(), new DefaultPathPredicate(file).hashCode());
+    }
+
+    @Test
+    public void testReferenceParentName() {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        // Name with delimiter
+        final Path file = new Path(directory, "a/f", EnumSet.of(Path.Type.file));
+        assertEquals(new Path("/d/a/f", EnumSet.of(Path.Type.file)), file);
+        assertEquals(new Path("/d/a/f", EnumSet.of(Path.Type.file)).hashCode(), file.hashCode());
+        // Unicode normalization
+        assertEquals(new Path(directory, "\u00e4", EnumSet.of(Path.Type.file)), new Path(directory, "a\u0308", EnumSet.of(Path.Type.file)));
+        assertEquals(new Path(directory, "\u00e4", EnumSet.of(Path.Type.file)).hashCode(), new Path(directory, "a\u0308", EnumSet.of(Path.Type.file)).hashCode());
+        assertNotEquals(new Path(directory, "f", EnumSet.of(Path.Type.file)), new Path(directory, "f", EnumSet.of(Path.Type.directory)));
+    }
+
+    @Test
+    public void testReferenceVersionId() {
+        final Path file = new Path("/d/f", EnumSet.of(Path.Type.file));
+        final Path copy = new Path(file);
+        final int hashcode = file.hashCode();
+        file.attributes().setVersionId("1");
+        assertNotEquals(hashcode, file.hashCode());
+        assertNotEquals(file, copy);
+        copy.attributes().setVersionId("1");
+        assertEquals(file, copy);
+        assertEquals(file.hashCode(), copy.hashCode());
+    }
+
+    @Test
+    public void testReferenceFileId() {
+        final Path file = new Path("/d/f", EnumSet.of(Path.Type.file));
+        final DefaultPathPredicate reference = new DefaultPathPredicate(file);
+        file.attributes().setFileId("a");
+        assertNotEquals(reference, new DefaultPathPredicate(file));
+        file.withAttributes(new PathAttributes());
+        assertEquals(reference, new DefaultPathPredicate(file));
+    }
+
+    @Test
+    public void testReferenceType() {
+        final Path file = new Path("/d/f", EnumSet.of(Path.Type.file));
+        final int hashcode = file.hashCode();
+        file.setType(EnumSet.of(Path.Type.directory));
+        assertNotEquals(hashcode, file.hashCode());
+        assertEquals(new Path("/d/f", EnumSet.of(Path.Type.directory)), file);
+    }
+
+    @Test
+    public void testReferenceRegion() {
+        final Path container = new Path("/c", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final int hashcode = container.hashCode();
+        container.attributes().setRegion("us-east-1");
+        assertNotEquals(hashcode, container.hashCode());
+        assertEquals("[directory]-us-east-1/c", new DefaultPathPredicate(container).toString());
+    }
+
+    @Test
+    public void testAbsoluteFromParent() {
+        final Path directory = new Path("/a/b", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        assertEquals("/a/b/f", file.getAbsolute());
+        assertEquals("f", file.getName());
+        assertSame(directory, file.getParent());
+        assertEquals("/a/b", file.getParent().getAbsolute());
+        assertEquals("/a", file.getParent().getParent().getAbsolute());
+        assertTrue(file.getParent().getParent().getParent().isRoot());
+        assertEquals("/f", new Path(file.getParent().getParent().getParent(), "f", EnumSet.of(Path.Type.file)).getAbsolute());
+        assertEquals(file, new Path("/a/b/f", EnumSet.of(Path.Type.file)));
+    }
+
+    @Test
+    public void testAbsoluteCachedDirectory() {
+        final Path directory = new Path(new Path("/a", EnumSet.of(Path.Type.directory)), "b", EnumSet.of(Path.Type.directory));
+        assertSame(directory.getAbsolute(), directory.getAbsolute());
+    }
+
+    @Test
+    public void testFootprint() throws Exception {
+        final Path directory = new Path("/parent/directory/with/long/prefix", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        final AttributedList<Path> list = new AttributedList<>();
+        list.add(file);
+        assertEquals("/parent/directory/with/long/prefix/f", file.getAbsolute());
+        assertEquals(new Path("/parent/directory/with/long/prefix/f", EnumSet.of(Path.Type.file)), file);
+        assertEquals(0, list.indexOf(new Path("/parent/directory/with/long/prefix/f", EnumSet.of(Path.Type.file))));
+        final DefaultPathPredicate reference = new DefaultPathPredicate(file);
+        assertEquals(reference.toString().hashCode(), reference.hashCode());
+        // No copy of the directory prefix retained by file or predicate
+        for(String value : retained(file, directory, Collections.newSetFromMap(new IdentityHashMap<>()))) {
+            assertFalse(value, value.contains(directory.getAbsolute()));
+        }
+        for(String value : retained(reference, directory, Collections.newSetFromMap(new IdentityHashMap<>()))) {
+            assertFalse(value, value.contains(directory.getAbsolute()));
+        }
+    }
+
+    /**
+     * @return Strings reachable from object without traversing into parent
+     */
+    private static List<String> retained(final Object object, final Path parent, final Set<Object> visited) throws IllegalAccessException {
+        final List<String> values = new ArrayList<>();
+        if(null == object || object == parent || !visited.add(object)) {
+            return values;
+        }
+        if(object instanceof String) {
+            values.add((String) object);
+            return values;
+        }
+        if(object.getClass().isArray()) {
+            if(!object.getClass().getComponentType().isPrimitive()) {
+                for(Object element : (Object[]) object) {
+                    values.addAll(retained(element, parent, visited));
+                }
+            }
+            return values;
+        }
+        if(!object.getClass().getName().startsWith("ch.cyberduck.")) {
+            return values;
+        }
+        for(Class<?> clazz = object.getClass(); clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for(Field field : clazz.getDeclaredFields()) {
+                if(Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                values.addAll(retained(field.get(object), parent, visited));
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void testInternDirectoryName() {
+        final Path a = new Path("/d/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/d/b", EnumSet.of(Path.Type.file));
+        assertNotSame(a.getParent(), b.getParent());
+        assertSame(a.getParent().getName(), b.getParent().getName());
+    }
 }
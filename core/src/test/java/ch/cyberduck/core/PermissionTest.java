@@ -172,4 +172,18 @@ public class PermissionTest {
         assertTrue(new Permission("--------t").getOther().implies(Permission.Action.execute));
         assertFalse(new Permission("--------T").getOther().implies(Permission.Action.execute));
     }
+
+    @Test
+    public void testShared() {
+        final Permission shared = Permission.shared(new Permission(755));
+        assertSame(shared, Permission.shared(new Permission("rwxr-xr-x")));
+        assertEquals(new Permission(755), shared);
+        assertNotSame(shared, Permission.shared(new Permission(1755)));
+        assertSame(Permission.EMPTY, Permission.shared(Permission.EMPTY));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSharedModify() {
+        Permission.shared(new Permission(644)).setUser(Permission.Action.all);
+    }
 }
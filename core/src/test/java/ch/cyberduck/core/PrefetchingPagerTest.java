@@ -0,0 +1,101 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class PrefetchingPagerTest {
+
+    private static PrefetchingPager.Fetcher<Integer> pages(final int total, final AtomicInteger requests) {
+        return new PrefetchingPager.Fetcher<Integer>() {
+            @Override
+            public Integer fetch(final Integer previous) {
+                requests.incrementAndGet();
+                return null == previous ? 1 : previous + 1;
+            }
+
+            @Override
+            public boolean hasNext(final Integer page) {
+                return page < total;
+            }
+        };
+    }
+
+    @Test
+    public void testIterate() throws Exception {
+        for(int depth : new int[]{0, 1, 3}) {
+            final AtomicInteger requests = new AtomicInteger();
+            final List<Integer> result = new ArrayList<>();
+            try (PrefetchingPager<Integer> pager = new PrefetchingPager<>(pages(5, requests), depth)) {
+                while(pager.hasNext()) {
+                    result.add(pager.next());
+                }
+            }
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5), result);
+            assertEquals(5, requests.get());
+        }
+    }
+
+    @Test
+    public void testFirstPageOnly() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        try (PrefetchingPager<Integer> pager = new PrefetchingPager<>(pages(5, requests), 2)) {
+            assertEquals(Integer.valueOf(1), pager.next());
+        }
+        // No prefetch until second page is requested
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        try (PrefetchingPager<Integer> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<Integer>() {
+            @Override
+            public Integer fetch(final Integer previous) throws BackgroundException {
+                if(null == previous) {
+                    return 1;
+                }
+                throw new NotfoundException("f");
+            }
+
+            @Override
+            public boolean hasNext(final Integer page) {
+                return true;
+            }
+        }, 1)) {
+            assertEquals(Integer.valueOf(1), pager.next());
+            try {
+                pager.hasNext();
+                fail();
+            }
+            catch(NotfoundException e) {
+                // Expected
+            }
+            assertFalse(pager.hasNext());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BandwidthThrottleTest {
+
+    @Test
+    public void testUnlimited() {
+        final BandwidthScheduler scheduler = new BandwidthScheduler(BandwidthThrottle.UNLIMITED, BandwidthThrottle.UNLIMITED);
+        final BandwidthThrottle throttle = scheduler.schedule("h", new BandwidthThrottle(BandwidthThrottle.UNLIMITED));
+        assertSame(scheduler.getHost("h"), throttle.getParent());
+        assertSame(scheduler.getRoot(), throttle.getParent().getParent());
+        for(int i = 0; i < 1000; i++) {
+            assertEquals(Integer.MAX_VALUE, throttle.request(Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void testLimitedByParent() {
+        final BandwidthThrottle parent = new BandwidthThrottle(10000f);
+        final BandwidthThrottle child = new BandwidthThrottle(BandwidthThrottle.UNLIMITED, parent);
+        // 1000 bytes per window of parent
+        assertEquals(1000, child.request(5000));
+        assertEquals(1000, new BandwidthThrottle(BandwidthThrottle.UNLIMITED).request(1000));
+    }
+
+    @Test
+    public void testCumulative() throws Exception {
+        final BandwidthScheduler scheduler = new BandwidthScheduler(100000f, BandwidthThrottle.UNLIMITED);
+        final AtomicLong a = new AtomicLong();
+        final AtomicLong b = new AtomicLong();
+        final BandwidthThrottle first = scheduler.schedule("a", new BandwidthThrottle(BandwidthThrottle.UNLIMITED));
+        final BandwidthThrottle second = scheduler.schedule("b", new BandwidthThrottle(BandwidthThrottle.UNLIMITED));
+        second.getParent().setWeight(3);
+        final long start = System.currentTimeMillis();
+        final Thread t1 = new Thread(() -> {
+            while(System.currentTimeMillis() - start < 1000L) {
+                a.addAndGet(first.request(1000));
+            }
+        });
+        final Thread t2 = new Thread(() -> {
+            while(System.currentTimeMillis() - start < 1000L) {
+                b.addAndGet(second.request(1000));
+            }
+        });
+        t1.start();
+        t2.start();
+        t1.join();
+        t2.join();
+        // Global limit shared by both transfers
+        assertTrue(a.get() + b.get() <= 120000L);
+        // Weighted share
+        assertTrue(b.get() > a.get() * 2);
+    }
+}
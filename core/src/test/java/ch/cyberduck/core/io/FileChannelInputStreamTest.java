@@ -0,0 +1,51 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+
+public class FileChannelInputStreamTest {
+
+    @Test
+    public void testSkip() throws Exception {
+        final Path file = Files.createTempFile(null, null);
+        final byte[] content = RandomUtils.nextBytes(100);
+        Files.write(file, content);
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        // Channel already positioned
+        channel.position(10L);
+        try (FileChannelInputStream in = new FileChannelInputStream(channel)) {
+            assertEquals(20L, in.skip(20L));
+            assertEquals(content[30] & 0xFF, in.read());
+            assertEquals(0L, in.skip(-1L));
+            // Limited to end of file
+            assertEquals(69L, in.skip(1000L));
+            assertEquals(-1, in.read());
+            assertEquals(0L, in.skip(1L));
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PersistentChecksumIndexTest {
+
+    private Local folder;
+    private Local file;
+
+    @Before
+    public void create() throws Exception {
+        folder = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        try (OutputStream out = file.getOutputStream(false)) {
+            out.write(RandomUtils.nextBytes(100));
+        }
+    }
+
+    @After
+    public void delete() throws Exception {
+        FileUtils.deleteDirectory(new File(folder.getAbsolute()));
+        FileUtils.deleteQuietly(new File(file.getAbsolute()));
+    }
+
+    @Test
+    public void testComputeGet() throws Exception {
+        final Checksum checksum = new MD5ChecksumCompute().compute(file.getInputStream(), new TransferStatus());
+        final PersistentChecksumIndex index = new PersistentChecksumIndex(folder, 10L, TimeUnit.DAYS.toMillis(1L));
+        assertEquals(Checksum.NONE, index.get(file, HashAlgorithm.md5));
+        assertEquals(checksum, index.compute(file, HashAlgorithm.md5));
+        assertEquals(checksum, index.get(file, HashAlgorithm.md5));
+        assertEquals(Checksum.NONE, index.get(file, HashAlgorithm.sha256));
+        // Read from disk
+        assertEquals(checksum, new PersistentChecksumIndex(folder, 10L, TimeUnit.DAYS.toMillis(1L)).get(file, HashAlgorithm.md5));
+    }
+
+    @Test
+    public void testInvalidateModified() throws Exception {
+        final PersistentChecksumIndex index = new PersistentChecksumIndex(folder, 10L, TimeUnit.DAYS.toMillis(1L));
+        final Checksum checksum = index.compute(file, HashAlgorithm.md5);
+        try (OutputStream out = file.getOutputStream(true)) {
+            out.write(RandomUtils.nextBytes(1));
+        }
+        assertEquals(Checksum.NONE, index.get(file, HashAlgorithm.md5));
+        assertEquals(Checksum.NONE, new PersistentChecksumIndex(folder, 10L, TimeUnit.DAYS.toMillis(1L)).get(file, HashAlgorithm.md5));
+        assertNotEquals(checksum, new MD5ChecksumCompute().compute(file.getInputStream(), new TransferStatus()));
+    }
+
+    @Test
+    public void testPrune() throws Exception {
+        final PersistentChecksumIndex index = new PersistentChecksumIndex(folder, 10L, -1L);
+        assertNotEquals(Checksum.NONE, index.compute(file, HashAlgorithm.md5));
+        index.prune();
+        assertEquals(Checksum.NONE, new PersistentChecksumIndex(folder, 10L, -1L).get(file, HashAlgorithm.md5));
+    }
+
+    @Test
+    public void testGetDoesNotWriteRecord() throws Exception {
+        final PersistentChecksumIndex index = new PersistentChecksumIndex(folder, 10L, TimeUnit.DAYS.toMillis(1L));
+        final Checksum checksum = index.compute(file, HashAlgorithm.md5);
+        final Collection<File> records = FileUtils.listFiles(new File(folder.getAbsolute()), null, true);
+        assertEquals(1, records.size());
+        final File record = records.iterator().next();
+        assertTrue(record.setLastModified(1000L));
+        assertEquals(checksum, new PersistentChecksumIndex(folder, 10L, TimeUnit.DAYS.toMillis(1L)).get(file, HashAlgorithm.md5));
+        assertEquals(1000L, record.lastModified());
+    }
+
+    @Test
+    public void testNotfound() {
+        final PersistentChecksumIndex index = new PersistentChecksumIndex(folder, 10L, TimeUnit.DAYS.toMillis(1L));
+        assertEquals(Checksum.NONE, index.get(new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()), HashAlgorithm.md5));
+    }
+}
@@ -1,10 +1,13 @@
 package ch.cyberduck.core.io;
 
 import ch.cyberduck.core.BytecountStreamListener;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.local.DefaultLocalTouchFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.NullInputStream;
 import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.lang3.RandomUtils;
@@ -12,6 +15,9 @@ import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.UUID;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -183,4 +189,34 @@ public class StreamCopierTest {
         assertEquals(32768L, count.getSent());
         assertEquals(0L, status.getOffset());
     }
+
+    @Test
+    public void testTransferFileChannel() throws Exception {
+        final byte[] bytes = RandomUtils.nextBytes(100000);
+        final Local source = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local target = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        try {
+            new DefaultLocalTouchFeature().touch(source);
+            IOUtils.write(bytes, source.getOutputStream(false));
+            final TransferStatus status = new TransferStatus();
+            final BytecountStreamListener count = new BytecountStreamListener() {
+                @Override
+                public void recv(final long bytes) {
+                    assertTrue(bytes <= 32768L);
+                    super.recv(bytes);
+                }
+            };
+            final InputStream in = new ThrottledInputStream(source.getInputStream(), new BandwidthThrottle(BandwidthThrottle.UNLIMITED));
+            new StreamCopier(status, status).withOffset(1L).withLimit(99998L).withListener(count)
+                    .transfer(in, new VoidStatusOutputStream(target.getOutputStream(false)));
+            assertTrue(status.isComplete());
+            assertEquals(99998L, count.getRecv());
+            assertEquals(99998L, count.getSent());
+            assertArrayEquals(Arrays.copyOfRange(bytes, 1, 99999), IOUtils.toByteArray(target.getInputStream()));
+        }
+        finally {
+            source.delete();
+            target.delete();
+        }
+    }
 }
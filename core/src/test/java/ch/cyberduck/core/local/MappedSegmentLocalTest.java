@@ -0,0 +1,68 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.io.MD5ChecksumCompute;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class MappedSegmentLocalTest {
+
+    @Test
+    public void testRead() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(1000);
+        try (OutputStream out = file.getOutputStream(false)) {
+            out.write(content);
+        }
+        final MappedSegmentLocal segment = new MappedSegmentLocal(file, 100L, 200L);
+        final TransferStatus status = new TransferStatus().withOffset(100L).withLength(200L);
+        assertEquals(new MD5ChecksumCompute().compute(file.getInputStream(), status),
+                new MD5ChecksumCompute().compute(segment.getInputStream(), status));
+        try (InputStream in = StreamCopier.skip(segment.getInputStream(), 100L)) {
+            assertArrayEquals(Arrays.copyOfRange(content, 100, 300), IOUtils.toByteArray(in));
+        }
+        file.delete();
+    }
+
+    @Test(expected = LocalAccessDeniedException.class)
+    public void testClose() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        try (OutputStream out = file.getOutputStream(false)) {
+            out.write(RandomUtils.nextBytes(1000));
+        }
+        final MappedSegmentLocal segment = new MappedSegmentLocal(file, 0L, 1000L);
+        segment.close();
+        file.delete();
+        assertFalse(file.exists());
+        segment.getInputStream();
+    }
+}
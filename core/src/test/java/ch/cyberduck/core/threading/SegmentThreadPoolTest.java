@@ -0,0 +1,80 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SegmentThreadPoolTest {
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testShutdown() {
+        final SegmentThreadPool pool = new SegmentThreadPool(new SegmentThreadPool.Scheduler(1), 1);
+        pool.shutdown(true);
+        pool.execute(() -> {
+            fail();
+            return null;
+        });
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        final SegmentThreadPool.Scheduler scheduler = new SegmentThreadPool.Scheduler(3);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maximum = new AtomicInteger();
+        final List<SegmentThreadPool> pools = new ArrayList<>();
+        final List<Future<Integer>> futures = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            final SegmentThreadPool pool = new SegmentThreadPool(scheduler, 2);
+            pools.add(pool);
+            for(int k = 0; k < 5; k++) {
+                futures.add(pool.execute(() -> {
+                    maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(10L);
+                    return running.decrementAndGet();
+                }));
+            }
+        }
+        for(Future<Integer> future : futures) {
+            future.get();
+        }
+        assertTrue(maximum.get() <= 3);
+        for(SegmentThreadPool pool : pools) {
+            pool.shutdown(true);
+        }
+        assertEquals(0, running.get());
+    }
+
+    @Test
+    public void testShutdownNow() {
+        final SegmentThreadPool pool = new SegmentThreadPool(new SegmentThreadPool.Scheduler(1), 1);
+        final Future<Void> future = pool.execute(() -> {
+            Thread.sleep(60000L);
+            return null;
+        });
+        pool.shutdown(false);
+        assertTrue(future.isCancelled());
+    }
+}
@@ -0,0 +1,80 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.exception.ConnectionTimeoutException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveTransferConnectionLimiterTest {
+
+    @Test
+    public void testBackoff() throws Exception {
+        final AdaptiveTransferConnectionLimiter limiter = new AdaptiveTransferConnectionLimiter(() -> 0L, 8, 20, Long.MAX_VALUE);
+        assertEquals(8, limiter.getLimit());
+        limiter.failure(new ConnectionTimeoutException("d"));
+        assertEquals(8, limiter.getLimit());
+        limiter.failure(new ConnectionRefusedException("d", null));
+        assertEquals(4, limiter.getLimit());
+        // Once per interval
+        limiter.failure(new RetriableAccessDeniedException("d"));
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void testIncrease() throws Exception {
+        final AtomicLong transferred = new AtomicLong();
+        final AdaptiveTransferConnectionLimiter limiter = new AdaptiveTransferConnectionLimiter(transferred::get, 1, 3, 1000L);
+        final long timestamp = System.currentTimeMillis();
+        limiter.acquire();
+        assertEquals(1, limiter.getActive());
+        final CountDownLatch entered = new CountDownLatch(1);
+        final Thread waiting = new Thread(() -> {
+            try {
+                entered.countDown();
+                limiter.acquire();
+            }
+            catch(InterruptedException e) {
+                // Ignore
+            }
+        });
+        waiting.start();
+        entered.await();
+        while(waiting.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(10L);
+        }
+        // Saturated with improving throughput
+        transferred.set(1000L);
+        limiter.sample(timestamp + 10000L);
+        assertEquals(2, limiter.getLimit());
+        waiting.join();
+        assertEquals(2, limiter.getActive());
+        // No improvement with additional connection
+        transferred.set(2000L);
+        limiter.sample(timestamp + 20000L);
+        assertEquals(1, limiter.getLimit());
+        limiter.release();
+        limiter.release();
+        assertEquals(0, limiter.getActive());
+    }
+}
@@ -0,0 +1,128 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RecursiveListCacheTest {
+
+    @Test
+    public void testList() throws Exception {
+        final Path directory = new Path("/b/d", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.directory));
+        final Path empty = new Path(a, "e", EnumSet.of(Path.Type.directory));
+        final Path f1 = new Path(a, "f1", EnumSet.of(Path.Type.file));
+        final Path f2 = new Path(directory, "f2", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final ListService service = new ListService() {
+            @Override
+            public AttributedList<Path> list(final Path directory, final ListProgressListener listener) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean isRecursive(final Path directory) {
+                return true;
+            }
+
+            @Override
+            public AttributedList<Path> listRecursive(final Path directory, final ListProgressListener listener) {
+                count.incrementAndGet();
+                final AttributedList<Path> list = new AttributedList<>();
+                list.add(a);
+                list.add(empty);
+                list.add(f1);
+                list.add(f2);
+                return list;
+            }
+        };
+        final RecursiveListCache cache = new RecursiveListCache();
+        final AttributedList<Path> children = cache.list(service, directory, new DisabledListProgressListener());
+        assertEquals(2, children.size());
+        assertTrue(children.contains(a));
+        assertTrue(children.contains(f2));
+        assertEquals(2, cache.list(service, a, new DisabledListProgressListener()).size());
+        assertTrue(cache.list(service, empty, new DisabledListProgressListener()).isEmpty());
+        assertEquals(1, count.get());
+        // Listing consumed
+        cache.list(service, a, new DisabledListProgressListener());
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testListExceedingLimit() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.directory));
+        final Path f1 = new Path(a, "f1", EnumSet.of(Path.Type.file));
+        final Path f2 = new Path(a, "f2", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final ListService service = new ListService() {
+            @Override
+            public AttributedList<Path> list(final Path directory, final ListProgressListener listener) {
+                count.incrementAndGet();
+                return AttributedList.emptyList();
+            }
+
+            @Override
+            public boolean isRecursive(final Path directory) {
+                return true;
+            }
+
+            @Override
+            public AttributedList<Path> listRecursive(final Path directory, final ListProgressListener listener) {
+                count.incrementAndGet();
+                final AttributedList<Path> list = new AttributedList<>();
+                list.add(a);
+                list.add(f1);
+                list.add(f2);
+                return list;
+            }
+        };
+        final RecursiveListCache cache = new RecursiveListCache(1);
+        assertEquals(1, cache.list(service, directory, new DisabledListProgressListener()).size());
+        assertEquals(1, count.get());
+        // Listing of subdirectory discarded
+        cache.list(service, a, new DisabledListProgressListener());
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testListNotRecursive() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final AtomicInteger count = new AtomicInteger();
+        final RecursiveListCache cache = new RecursiveListCache();
+        cache.list(new ListService() {
+            @Override
+            public AttributedList<Path> list(final Path directory, final ListProgressListener listener) {
+                count.incrementAndGet();
+                return AttributedList.emptyList();
+            }
+        }, directory, new DisabledListProgressListener());
+        assertEquals(1, count.get());
+    }
+}
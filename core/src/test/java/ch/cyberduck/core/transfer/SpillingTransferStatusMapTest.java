@@ -0,0 +1,70 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SpillingTransferStatusMapTest {
+
+    @Test
+    public void testRetire() {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final SpillingTransferStatusMap table = new SpillingTransferStatusMap(file);
+        final TransferItem directory = new TransferItem(new Path("/d", EnumSet.of(Path.Type.directory)),
+                new Local(System.getProperty("java.io.tmpdir"), "d"));
+        final TransferItem item = new TransferItem(new Path("/d/fä", EnumSet.of(Path.Type.file)),
+                new Local(System.getProperty("java.io.tmpdir"), "d/fä"));
+        table.put(directory, new TransferStatus().exists(true));
+        table.put(item, new TransferStatus().append(true).withLength(5L).withOffset(2L));
+        assertEquals(2, table.size());
+        table.get(item).setComplete();
+        table.retire(item);
+        assertFalse(table.containsKey(item));
+        assertNull(table.get(item));
+        assertTrue(table.containsKey(directory));
+        assertEquals(1, table.getActive().size());
+        assertEquals(2, table.size());
+        assertTrue(file.exists());
+        final Map<TransferItem, TransferStatus> copy = new HashMap<>(table);
+        assertEquals(2, copy.size());
+        final TransferStatus status = copy.get(item);
+        assertEquals(5L, status.getLength());
+        assertEquals(2L, status.getOffset());
+        assertTrue(status.isAppend());
+        assertTrue(status.isComplete());
+        assertFalse(status.isExists());
+        assertTrue(copy.get(directory).isExists());
+        // Not retired twice
+        table.retire(item);
+        assertEquals(2, table.size());
+        table.clear();
+        assertEquals(0, table.size());
+        assertFalse(file.exists());
+    }
+}
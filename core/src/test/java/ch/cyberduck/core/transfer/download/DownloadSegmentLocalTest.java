@@ -0,0 +1,87 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DownloadSegmentLocalTest {
+
+    @Test
+    public void testWriteInPlace() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final DownloadSegmentBitmap bitmap = new DownloadSegmentBitmap(file, 1000L, 400L);
+        // Write segments in reverse order
+        for(long offset : new long[]{800L, 400L, 0L}) {
+            final DownloadSegmentLocal segment = new DownloadSegmentLocal(file, offset, bitmap);
+            try (OutputStream out = segment.getOutputStream(false)) {
+                out.write(content, (int) offset, (int) Math.min(400L, 1000L - offset));
+            }
+            segment.complete();
+            assertTrue(segment.isComplete());
+        }
+        assertArrayEquals(content, IOUtils.toByteArray(file.getInputStream()));
+        assertTrue(DownloadSegmentBitmap.toSidecar(file).exists());
+        bitmap.delete();
+        assertFalse(DownloadSegmentBitmap.toSidecar(file).exists());
+        file.delete();
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final DownloadSegmentBitmap bitmap = new DownloadSegmentBitmap(file, 1000L, 400L);
+        assertFalse(bitmap.resume());
+        bitmap.complete(400L);
+        final DownloadSegmentBitmap resumed = new DownloadSegmentBitmap(file, 1000L, 400L);
+        assertTrue(resumed.resume());
+        assertFalse(resumed.isComplete(0L));
+        assertTrue(resumed.isComplete(400L));
+        assertFalse(resumed.isComplete(800L));
+        // Layout changed
+        assertFalse(new DownloadSegmentBitmap(file, 1001L, 400L).resume());
+        bitmap.delete();
+    }
+
+    @Test
+    public void testSidecarSavedBeforeWrite() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final DownloadSegmentBitmap bitmap = new DownloadSegmentBitmap(file, 1000L, 400L);
+        final DownloadSegmentLocal segment = new DownloadSegmentLocal(file, 400L, bitmap);
+        try (OutputStream out = segment.getOutputStream(false)) {
+            // Interrupted download must not be mistaken for complete file
+            assertTrue(DownloadSegmentBitmap.toSidecar(file).exists());
+            out.write(RandomUtils.nextBytes(400));
+        }
+        final DownloadSegmentBitmap resumed = new DownloadSegmentBitmap(file, 1000L, 400L);
+        assertTrue(resumed.resume());
+        assertFalse(resumed.isComplete(400L));
+        bitmap.delete();
+        file.delete();
+    }
+}
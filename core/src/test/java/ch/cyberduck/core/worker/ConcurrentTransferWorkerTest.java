@@ -22,6 +22,7 @@ import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.DisabledNotificationService;
 import ch.cyberduck.core.pool.DefaultSessionPool;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
@@ -38,6 +39,7 @@ import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
 import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 import ch.cyberduck.core.vault.DefaultVaultRegistry;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -209,6 +211,102 @@ public class ConcurrentTransferWorkerTest {
         worker.cleanup(true);
     }
 
+    @Test
+    public void testPipelinedDirectory() throws Exception {
+        final Set<Path> transferred = ConcurrentHashMap.newKeySet();
+        final Set<Path> listed = ConcurrentHashMap.newKeySet();
+        final Host host = new Host(new TestProtocol(), "test.cyberduck.ch");
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final Transfer t = new DownloadTransfer(host, root, new NullLocal("l")) {
+            @Override
+            public List<TransferItem> list(final Session<?> session, final Path directory, final Local local, final ListProgressListener listener) {
+                assertTrue(listed.add(directory));
+                final List<TransferItem> children = new ArrayList<>();
+                if(StringUtils.countMatches(directory.getAbsolute(), Path.DELIMITER) < 3) {
+                    for(int i = 0; i < 3; i++) {
+                        children.add(new TransferItem(new Path(directory, "d" + i, EnumSet.of(Path.Type.directory)), new NullLocal(local.getAbsolute(), "d" + i)));
+                    }
+                }
+                for(int i = 0; i < 5; i++) {
+                    children.add(new TransferItem(new Path(directory, "f" + i, EnumSet.of(Path.Type.file)), new NullLocal(local.getAbsolute(), "f" + i)));
+                }
+                return children;
+            }
+
+            @Override
+            public void transfer(final Session<?> source, final Session<?> destination, final Path file, final Local local,
+                                 final TransferOptions options, final TransferStatus overall, final TransferStatus segment,
+                                 final ConnectionCallback connectionCallback,
+                                 final ProgressListener listener, final StreamListener streamListener) {
+                if(file.isFile()) {
+                    // Parent directory listed prior
+                    assertTrue(listed.contains(file.getParent()));
+                    transferred.add(file);
+                }
+            }
+
+            @Override
+            public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                return new AbstractDownloadFilter(new DisabledDownloadSymlinkResolver(), source, null) {
+                    @Override
+                    public boolean accept(final Path file, final Local local, final TransferStatus parent) {
+                        return true;
+                    }
+
+                    @Override
+                    public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) {
+                        return new TransferStatus().exists(true);
+                    }
+
+                    @Override
+                    public void apply(final Path file, final Local local, final TransferStatus status, final ProgressListener listener) {
+                        //
+                    }
+
+                    @Override
+                    public void complete(final Path file, final Local local, final TransferStatus status, final ProgressListener listener) {
+                        //
+                    }
+                };
+            }
+        };
+        final String frontier = PreferencesFactory.get().getProperty("queue.transfer.pipeline.frontier");
+        final String pending = PreferencesFactory.get().getProperty("queue.transfer.pipeline.pending");
+        PreferencesFactory.get().setProperty("queue.transfer.pipeline.frontier", 1);
+        // Transfer files in listing thread when more than one file waits for transfer
+        PreferencesFactory.get().setProperty("queue.transfer.pipeline.pending", 1);
+        try {
+            this.runPipelined(t, host, listed, transferred);
+        }
+        finally {
+            PreferencesFactory.get().setProperty("queue.transfer.pipeline.frontier", frontier);
+            PreferencesFactory.get().setProperty("queue.transfer.pipeline.pending", pending);
+        }
+    }
+
+    private void runPipelined(final Transfer t, final Host host, final Set<Path> listed, final Set<Path> transferred) throws Exception {
+        final LoginConnectionService connection = new TestLoginConnectionService();
+        final DefaultSessionPool pool = new DefaultSessionPool(connection, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                new DefaultVaultRegistry(new DisabledPasswordCallback()),
+                new DisabledTranscriptListener(), host);
+        final ConcurrentTransferWorker worker = new ConcurrentTransferWorker(
+                pool, SessionPool.DISCONNECTED, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new DisabledTransferErrorCallback(),
+                new DisabledLoginCallback(), new DisabledProgressListener(), new DisabledStreamListener(), new DisabledNotificationService()
+        );
+        final Session<?> session = worker.borrow(ConcurrentTransferWorker.Connection.source);
+        assertTrue(worker.run(session));
+        worker.release(session, ConcurrentTransferWorker.Connection.source, null);
+        assertEquals(1 + 3 + 9, listed.size());
+        assertEquals(5 + 15 + 45, transferred.size());
+        assertTrue(worker.getCache().isEmpty());
+        worker.cleanup(true);
+    }
+
     @Test
     public void testBorrowTimeoutNoSessionAvailable() throws Exception {
         final Host host = new Host(new TestProtocol(), "localhost", new Credentials("u", "p"));
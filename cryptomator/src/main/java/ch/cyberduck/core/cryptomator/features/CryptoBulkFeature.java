@@ -106,6 +106,16 @@ public class CryptoBulkFeature<R> implements Bulk<R> {
         return this;
     }
 
+    @Override
+    public boolean isIncremental() {
+        return delegate.isIncremental();
+    }
+
+    @Override
+    public boolean isPostProcessing() {
+        return delegate.isPostProcessing();
+    }
+
     @Override
     public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
         final Map<TransferItem, TransferStatus> encrypted = new HashMap<>(files.size());
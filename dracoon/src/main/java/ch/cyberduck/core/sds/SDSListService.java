@@ -22,6 +22,7 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
@@ -53,15 +54,31 @@ public class SDSListService implements ListService {
 
     protected AttributedList<Path> list(final Path directory, final ListProgressListener listener, final int chunksize) throws BackgroundException {
         final AttributedList<Path> children = new AttributedList<Path>();
-        try {
-            int offset = 0;
-            final SDSAttributesAdapter feature = new SDSAttributesAdapter(session);
-            NodeList nodes;
-            do {
-                nodes = new NodesApi(session.getClient()).requestNodes(null, 0,
-                    Long.parseLong(nodeid.getVersionId(directory, new DisabledListProgressListener())),
-                    false, null, "name:asc", offset, chunksize, StringUtils.EMPTY);
-                for(Node node : nodes.getItems()) {
+        final SDSAttributesAdapter feature = new SDSAttributesAdapter(session);
+        final long parent = Long.parseLong(nodeid.getVersionId(directory, new DisabledListProgressListener()));
+        try (PrefetchingPager<NodeList> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<NodeList>() {
+            private int offset = 0;
+
+            @Override
+            public NodeList fetch(final NodeList previous) throws BackgroundException {
+                try {
+                    final NodeList nodes = new NodesApi(session.getClient()).requestNodes(null, 0,
+                        parent, false, null, "name:asc", offset, chunksize, StringUtils.EMPTY);
+                    offset += chunksize;
+                    return nodes;
+                }
+                catch(ApiException e) {
+                    throw new SDSExceptionMappingService(nodeid).map("Listing directory {0} failed", e, directory);
+                }
+            }
+
+            @Override
+            public boolean hasNext(final NodeList page) {
+                return page.getItems().size() == chunksize;
+            }
+        })) {
+            while(pager.hasNext()) {
+                for(Node node : pager.next().getItems()) {
                     final PathAttributes attributes = feature.toAttributes(node);
                     final EnumSet<Path.Type> type = feature.toType(node);
                     final Path file = new Path(directory, node.getName(), type, attributes);
@@ -69,12 +86,7 @@ public class SDSListService implements ListService {
                     children.add(file);
                     listener.chunk(directory, children);
                 }
-                offset += chunksize;
             }
-            while(nodes.getItems().size() == chunksize);
-        }
-        catch(ApiException e) {
-            throw new SDSExceptionMappingService(nodeid).map("Listing directory {0} failed", e, directory);
         }
         return children;
     }
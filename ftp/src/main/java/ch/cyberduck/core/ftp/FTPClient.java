@@ -182,21 +182,14 @@ public class FTPClient extends FTPSClient {
     }
 
     public List<String> list(final FTPCmd command, final String pathname) throws IOException {
-        this.pret(command, pathname);
-
-        Socket socket = _openDataConnection_(command, pathname);
-
-        BufferedReader reader = new BufferedReader(
-            new InputStreamReader(socket.getInputStream(), getControlEncoding()));
+        final BufferedReader reader = this.listStream(command, pathname);
         ArrayList<String> results = new ArrayList<String>();
         String line;
         while((line = reader.readLine()) != null) {
-            _commandSupport_.fireReplyReceived(-1, line);
             results.add(line);
         }
 
         reader.close();
-        socket.close();
 
         if(!this.completePendingCommand()) {
             throw new FTPException(this.getReplyCode(), this.getReplyString());
@@ -204,6 +197,41 @@ public class FTPClient extends FTPSClient {
         return results;
     }
 
+    /**
+     * Open data connection for listing to read lines as they arrive. The reader must be closed and the
+     * completion reply be read with {@link #completePendingCommand()}.
+     *
+     * @param command  Listing command
+     * @param pathname Argument or null
+     * @return Reader for data connection closing the socket when closed
+     */
+    public BufferedReader listStream(final FTPCmd command, final String pathname) throws IOException {
+        this.pret(command, pathname);
+
+        final Socket socket = _openDataConnection_(command, pathname);
+
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), getControlEncoding())) {
+            @Override
+            public String readLine() throws IOException {
+                final String line = super.readLine();
+                if(line != null) {
+                    _commandSupport_.fireReplyReceived(-1, line);
+                }
+                return line;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                }
+                finally {
+                    socket.close();
+                }
+            }
+        };
+    }
+
     /**
      * Query the server for a supported feature, and returns its values (if any). Caches the parsed response to avoid
      * resending the command repeatedly.
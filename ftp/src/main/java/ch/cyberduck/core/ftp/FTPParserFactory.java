@@ -19,8 +19,8 @@ package ch.cyberduck.core.ftp;
 
 import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
 import ch.cyberduck.core.ftp.parser.EPLFFTPEntryParser;
-import ch.cyberduck.core.ftp.parser.LaxUnixFTPEntryParser;
 import ch.cyberduck.core.ftp.parser.RumpusFTPEntryParser;
+import ch.cyberduck.core.ftp.parser.TokenizingUnixFTPEntryParser;
 import ch.cyberduck.core.ftp.parser.TrellixFTPEntryParser;
 import ch.cyberduck.core.ftp.parser.UnitreeFTPEntryParser;
 
@@ -79,14 +79,7 @@ public class FTPParserFactory implements FTPFileEntryParserFactory {
 
     private CompositeFileEntryParser createUnixFTPEntryParser(final TimeZone timezone) {
         return new CompositeFileEntryParser(Arrays.asList(
-                new LaxUnixFTPEntryParser() {
-                    @Override
-                    protected FTPClientConfig getDefaultConfiguration() {
-                        final FTPClientConfig config = super.getDefaultConfiguration();
-                        config.setServerTimeZoneId(timezone.getID());
-                        return config;
-                    }
-                },
+                new TokenizingUnixFTPEntryParser(timezone),
                 new EPLFFTPEntryParser(),
                 new RumpusFTPEntryParser() {
                     @Override
@@ -171,6 +164,7 @@ public class FTPParserFactory implements FTPFileEntryParserFactory {
     }
 
     private CompositeFileEntryParser createMVSEntryParser(final TimeZone timezone) {
+        // Listing type is determined from header line in preParse
         return new CompositeFileEntryParser(Collections.singletonList(
             new MVSFTPEntryParser() {
                 @Override
@@ -180,6 +174,6 @@ public class FTPParserFactory implements FTPFileEntryParserFactory {
                     return config;
                 }
             }
-        ));
+        ), true);
     }
 }
\ No newline at end of file
@@ -23,5 +23,29 @@ import java.util.List;
 
 public interface FTPDataResponseReader {
 
-    AttributedList<Path> read(Path parent, List<String> replies, ListProgressListener listener) throws FTPInvalidListException;
+    default AttributedList<Path> read(Path parent, List<String> replies, ListProgressListener listener) throws FTPInvalidListException {
+        final AttributedList<Path> children = new AttributedList<>();
+        if(!this.read(parent, replies, children, false)) {
+            throw new FTPInvalidListException(children);
+        }
+        return children;
+    }
+
+    /**
+     * Parse lines of reply and add entries to list
+     *
+     * @param parent   Directory
+     * @param replies  Lines of reply
+     * @param children List to add parsed entries to
+     * @param success  At least one entry successfully parsed from previous lines of the same reply
+     * @return True if at least one entry successfully parsed from these or previous lines
+     */
+    boolean read(Path parent, List<String> replies, AttributedList<Path> children, boolean success);
+
+    /**
+     * @return False if the complete reply must be passed to a single invocation of read
+     */
+    default boolean isStreaming() {
+        return true;
+    }
 }
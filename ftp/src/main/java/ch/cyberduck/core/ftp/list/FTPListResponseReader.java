@@ -17,10 +17,10 @@ package ch.cyberduck.core.ftp.list;
 
 import ch.cyberduck.core.AbstractPath;
 import ch.cyberduck.core.AttributedList;
-import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
+import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
 import ch.cyberduck.core.ftp.parser.FTPExtendedFile;
 
 import org.apache.commons.lang3.StringUtils;
@@ -38,6 +38,10 @@ public class FTPListResponseReader implements FTPDataResponseReader {
 
     private final FTPFileEntryParser parser;
     private final boolean lenient;
+    /**
+     * Parser processes complete listing prior parsing entries
+     */
+    private final boolean preparse;
 
     public FTPListResponseReader(final FTPFileEntryParser parser) {
         this(parser, false);
@@ -46,13 +50,20 @@ public class FTPListResponseReader implements FTPDataResponseReader {
     public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient) {
         this.parser = parser;
         this.lenient = lenient;
+        // Read complete listing for any other parser
+        this.preparse = !(parser instanceof CompositeFileEntryParser) || ((CompositeFileEntryParser) parser).isPreParse();
     }
 
+    /**
+     * @return False if parser requires the complete listing to remove or merge entries such as file versions
+     */
     @Override
-    public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener) throws FTPInvalidListException {
-        final AttributedList<Path> children = new AttributedList<Path>();
-        // At least one entry successfully parsed
-        boolean success = false;
+    public boolean isStreaming() {
+        return !preparse;
+    }
+
+    @Override
+    public boolean read(final Path directory, final List<String> replies, final AttributedList<Path> children, boolean success) {
         // Call hook for those implementors which need to perform some action upon the list after it has been created
         // from the server stream, but before any clients see the list
         parser.preParse(replies);
@@ -161,9 +172,6 @@ public class FTPListResponseReader implements FTPDataResponseReader {
             }
             children.add(parsed);
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
-        }
-        return children;
+        return success;
     }
 }
@@ -29,6 +29,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -41,18 +42,22 @@ import java.util.regex.Pattern;
 public class FTPMlsdListResponseReader implements FTPDataResponseReader {
     private static final Logger log = LogManager.getLogger(FTPMlsdListResponseReader.class);
 
+    private static final Pattern FACTS = Pattern.compile("\\s?(\\S+\\=\\S+;)*\\s(.*)");
+
     public FTPMlsdListResponseReader() {
         //
     }
 
     @Override
     public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener) throws FTPInvalidListException {
-        final AttributedList<Path> children = new AttributedList<>();
         if(replies.isEmpty()) {
-            return children;
+            return new AttributedList<>();
         }
-        // At least one entry successfully parsed
-        boolean success = false;
+        return FTPDataResponseReader.super.read(directory, replies, listener);
+    }
+
+    @Override
+    public boolean read(final Path directory, final List<String> replies, final AttributedList<Path> children, boolean success) {
         for(String line : replies) {
             final Map<String, Map<String, String>> file = this.parseFacts(line);
             if(null == file) {
@@ -170,10 +175,7 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
                 children.add(parsed);
             }
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
-        }
-        return children;
+        return success;
     }
 
     /**
@@ -236,10 +238,13 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
      * @return Parsed keys and values
      */
     protected Map<String, Map<String, String>> parseFacts(final String line) {
-        final Pattern p = Pattern.compile("\\s?(\\S+\\=\\S+;)*\\s(.*)");
-        final Matcher result = p.matcher(line);
-        final Map<String, Map<String, String>> file = new HashMap<>();
+        final Map<String, Map<String, String>> tokenized = this.tokenizeFacts(line);
+        if(null != tokenized) {
+            return tokenized;
+        }
+        final Matcher result = FACTS.matcher(line);
         if(result.matches()) {
+            final Map<String, Map<String, String>> file = new HashMap<>();
             final String filename = result.group(2);
             final Map<String, String> facts = new HashMap<>();
             for(String fact : result.group(1).split(";")) {
@@ -260,4 +265,51 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
         return null;
     }
 
+    /**
+     * Split facts and filename by scanning the line once
+     *
+     * @param line The "facts" for a file in a reply to a MLSx command
+     * @return Parsed keys and values or null if the line is not in the expected format
+     */
+    protected Map<String, Map<String, String>> tokenizeFacts(final String line) {
+        int start = 0;
+        if(line.startsWith(" ")) {
+            start++;
+        }
+        int separator = line.indexOf(' ', start);
+        if(-1 == separator) {
+            if(0 == start) {
+                return null;
+            }
+            // No facts
+            separator = 0;
+            start = 0;
+        }
+        final int end = separator;
+        if(end > start) {
+            // Facts must end with semicolon and contain at least one key and value
+            final int equals = line.indexOf('=', start);
+            if(line.charAt(end - 1) != ';' || equals <= start || equals >= end - 2) {
+                return null;
+            }
+        }
+        final Map<String, String> facts = new HashMap<>();
+        int index = start;
+        while(index < end) {
+            int next = line.indexOf(';', index);
+            if(-1 == next || next > end) {
+                next = end;
+            }
+            final int equals = line.indexOf('=', index);
+            if(equals > index && equals < next - 1) {
+                final String value = line.substring(equals + 1, next);
+                if(StringUtils.isNotBlank(value)) {
+                    facts.put(line.substring(index, equals).toLowerCase(Locale.ROOT), value);
+                }
+            }
+            index = next + 1;
+        }
+        return Collections.singletonMap(line.substring(separator + 1), facts);
+    }
+
 }
@@ -29,8 +29,8 @@ import ch.cyberduck.core.ftp.FTPSession;
 
 import org.apache.commons.net.ftp.FTPCmd;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.List;
 
 public class FTPMlsdListService implements ListService {
 
@@ -53,18 +53,18 @@ public class FTPMlsdListService implements ListService {
                 // data connection in type ASCII or type EBCDIC.
                 throw new FTPException(session.getClient().getReplyCode(), session.getClient().getReplyString());
             }
-            final List<String> list = new DataConnectionActionExecutor(session).data(new DataConnectionAction<List<String>>() {
+            final BufferedReader in = new DataConnectionActionExecutor(session).data(new DataConnectionAction<BufferedReader>() {
                 @Override
-                public List<String> execute() throws BackgroundException {
+                public BufferedReader execute() throws BackgroundException {
                     try {
-                        return session.getClient().list(FTPCmd.MLSD);
+                        return session.getClient().listStream(FTPCmd.MLSD, null);
                     }
                     catch(IOException e) {
                         throw new FTPExceptionMappingService().map(e);
                     }
                 }
             }, listener);
-            return reader.read(directory, list, listener);
+            return new FTPStreamingListResponseReader(session.getClient(), reader).read(directory, in, listener);
         }
         catch(IOException e) {
             throw new FTPExceptionMappingService().map("Listing directory {0} failed", e, directory);
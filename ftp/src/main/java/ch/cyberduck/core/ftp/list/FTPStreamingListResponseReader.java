@@ -0,0 +1,112 @@
+package ch.cyberduck.core.ftp.list;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.ftp.FTPClient;
+import ch.cyberduck.core.ftp.FTPException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parse lines of listing reply as read from the data connection in batches of at most <code>chunksize</code> lines
+ * and notify listener with entries parsed so far after each batch. The complete reply is read prior parsing when
+ * the reader does not support streaming.
+ */
+public class FTPStreamingListResponseReader {
+    private static final Logger log = LogManager.getLogger(FTPStreamingListResponseReader.class);
+
+    private final FTPClient client;
+    private final FTPDataResponseReader reader;
+    private final Integer chunksize;
+
+    public FTPStreamingListResponseReader(final FTPClient client, final FTPDataResponseReader reader) {
+        this(client, reader, PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    public FTPStreamingListResponseReader(final FTPClient client, final FTPDataResponseReader reader, final Integer chunksize) {
+        this.client = client;
+        this.reader = reader;
+        this.chunksize = Math.max(1, chunksize);
+    }
+
+    /**
+     * @param directory Directory
+     * @param in        Data connection. Closed when all lines are read or on failure.
+     * @param listener  Notified with entries parsed so far
+     * @return Parsed entries
+     * @throws FTPInvalidListException No entry successfully parsed
+     */
+    public AttributedList<Path> read(final Path directory, final BufferedReader in, final ListProgressListener listener) throws IOException, BackgroundException {
+        final AttributedList<Path> children = new AttributedList<>();
+        // At least one entry successfully parsed
+        boolean success = false;
+        boolean empty = true;
+        boolean complete = false;
+        final List<String> replies = new ArrayList<>(chunksize);
+        final int batch = reader.isStreaming() ? chunksize : Integer.MAX_VALUE;
+        try {
+            String line;
+            while((line = in.readLine()) != null) {
+                empty = false;
+                replies.add(line);
+                if(replies.size() == batch) {
+                    success = reader.read(directory, replies, children, success);
+                    replies.clear();
+                    listener.chunk(directory, children);
+                }
+            }
+            if(!replies.isEmpty()) {
+                success = reader.read(directory, replies, children, success);
+                listener.chunk(directory, children);
+            }
+            complete = true;
+        }
+        finally {
+            in.close();
+            if(!complete) {
+                // Read reply for aborted transfer to keep control connection in sync
+                try {
+                    client.completePendingCommand();
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure reading reply for aborted listing of %s. %s", directory, e.getMessage()));
+                }
+            }
+        }
+        if(!client.completePendingCommand()) {
+            throw new FTPException(client.getReplyCode(), client.getReplyString());
+        }
+        if(empty) {
+            return reader.read(directory, Collections.emptyList(), listener);
+        }
+        if(!success) {
+            throw new FTPInvalidListException(children);
+        }
+        return children;
+    }
+}
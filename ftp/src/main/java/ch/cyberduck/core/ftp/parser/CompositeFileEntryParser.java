@@ -23,10 +23,26 @@ public class CompositeFileEntryParser extends FTPFileEntryParserImpl implements
     private static final Logger log = LogManager.getLogger(CompositeFileEntryParser.class);
 
     private final List<? extends FTPFileEntryParser> parsers;
+    /**
+     * Parsers require all lines of the listing in a single invocation of preParse
+     */
+    private final boolean preparse;
     private FTPFileEntryParser current;
 
     public CompositeFileEntryParser(final List<? extends FTPFileEntryParser> parsers) {
+        this(parsers, false);
+    }
+
+    public CompositeFileEntryParser(final List<? extends FTPFileEntryParser> parsers, final boolean preparse) {
         this.parsers = parsers;
+        this.preparse = preparse;
+    }
+
+    /**
+     * @return True if the listing cannot be parsed in batches of lines
+     */
+    public boolean isPreParse() {
+        return preparse;
     }
 
     @Override
@@ -0,0 +1,356 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.net.ftp.Configurable;
+import org.apache.commons.net.ftp.FTPClientConfig;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.apache.commons.net.ftp.FTPFileEntryParserImpl;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Parser for the common <code>ls -l</code> format scanning the line once without regular expressions. Lines with
+ * human readable sizes, numeric dates or other deviations are handed to the fallback parser.
+ */
+public class TokenizingUnixFTPEntryParser extends FTPFileEntryParserImpl implements Configurable {
+
+    private static final String TYPES = "bcdlfmpSs-";
+
+    private static final String[] MONTHS = {
+            "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"
+    };
+
+    private final FTPFileEntryParser fallback;
+
+    private TimeZone timezone;
+
+    public TokenizingUnixFTPEntryParser(final TimeZone timezone) {
+        this(timezone, new LaxUnixFTPEntryParser() {
+            @Override
+            protected FTPClientConfig getDefaultConfiguration() {
+                final FTPClientConfig config = super.getDefaultConfiguration();
+                config.setServerTimeZoneId(timezone.getID());
+                return config;
+            }
+        });
+    }
+
+    /**
+     * @param timezone Server timezone for timestamps
+     * @param fallback Parser for lines not in the common format
+     */
+    public TokenizingUnixFTPEntryParser(final TimeZone timezone, final FTPFileEntryParser fallback) {
+        this.timezone = timezone;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void configure(final FTPClientConfig config) {
+        if(config != null && StringUtils.isNotBlank(config.getServerTimeZoneId())) {
+            timezone = TimeZone.getTimeZone(config.getServerTimeZoneId());
+        }
+        if(fallback instanceof Configurable) {
+            ((Configurable) fallback).configure(config);
+        }
+    }
+
+    @Override
+    public List<String> preParse(final List<String> original) {
+        return fallback.preParse(original);
+    }
+
+    @Override
+    public FTPFile parseFTPEntry(final String line) {
+        final FTPFile parsed = this.tokenize(line);
+        if(null == parsed) {
+            return fallback.parseFTPEntry(line);
+        }
+        return parsed;
+    }
+
+    /**
+     * @param line Line of listing
+     * @return Null if not in common format
+     */
+    protected FTPFile tokenize(final String line) {
+        final int length = line.length();
+        if(length < 10) {
+            return null;
+        }
+        final char type = line.charAt(0);
+        if(TYPES.indexOf(type) == -1) {
+            return null;
+        }
+        for(int i = 1; i < 10; i += 3) {
+            if(!is(line.charAt(i), "r-") || !is(line.charAt(i + 1), "w-") || !is(line.charAt(i + 2), "xsStTL-")) {
+                return null;
+            }
+        }
+        int index = 10;
+        if(index < length && line.charAt(index) == '+') {
+            index++;
+        }
+        // Hard link count
+        int start = skip(line, index);
+        if(start == index) {
+            return null;
+        }
+        index = digits(line, start);
+        if(index == start) {
+            return null;
+        }
+        // User
+        final int user = skip(line, index);
+        if(user == index) {
+            return null;
+        }
+        final int userEnd = token(line, user);
+        // Group or size if group is missing
+        final int first = skip(line, userEnd);
+        if(first == userEnd || first == length) {
+            return null;
+        }
+        final int firstEnd = token(line, first);
+        final int second = skip(line, firstEnd);
+        if(second == firstEnd || second == length) {
+            return null;
+        }
+        final int secondEnd = token(line, second);
+        final String group;
+        final int size;
+        final int sizeEnd;
+        final int month;
+        if(month(line, second, secondEnd) != -1 && digits(line, first) == firstEnd) {
+            group = null;
+            size = first;
+            sizeEnd = firstEnd;
+            month = second;
+        }
+        else {
+            group = line.substring(first, firstEnd);
+            size = second;
+            sizeEnd = secondEnd;
+            if(digits(line, size) != sizeEnd) {
+                // Human readable size
+                return null;
+            }
+            month = skip(line, sizeEnd);
+            if(month == sizeEnd) {
+                return null;
+            }
+        }
+        final int monthEnd = token(line, month);
+        final int m = month(line, month, monthEnd);
+        if(m == -1) {
+            return null;
+        }
+        // Day of month
+        final int day = skip(line, monthEnd);
+        final int dayEnd = digits(line, day);
+        if(day == monthEnd || dayEnd == day || dayEnd - day > 2) {
+            return null;
+        }
+        // Year or time
+        final int time = skip(line, dayEnd);
+        if(time == dayEnd) {
+            return null;
+        }
+        final int timeEnd = token(line, time);
+        final int year;
+        final int hour;
+        final int minute;
+        final int colon = line.indexOf(':', time);
+        if(colon == -1 || colon > timeEnd) {
+            if(timeEnd - time != 4 || digits(line, time) != timeEnd) {
+                return null;
+            }
+            year = (int) number(line, time, timeEnd);
+            hour = 0;
+            minute = 0;
+            index = timeEnd;
+            // Year may be followed by an additional whitespace
+            if(index + 1 < length && Character.isWhitespace(line.charAt(index + 1))) {
+                index++;
+            }
+        }
+        else {
+            if(colon == time || colon - time > 2 || timeEnd - colon != 3 || digits(line, time) != colon || digits(line, colon + 1) != timeEnd) {
+                return null;
+            }
+            year = -1;
+            hour = (int) number(line, time, colon);
+            minute = (int) number(line, colon + 1, timeEnd);
+            index = timeEnd;
+        }
+        // Single whitespace before filename
+        if(index == length || !Character.isWhitespace(line.charAt(index))) {
+            return null;
+        }
+        index++;
+        if(skip(line, index) == length) {
+            return null;
+        }
+        final FTPExtendedFile file = new FTPExtendedFile();
+        switch(type) {
+            case 'd':
+                file.setType(FTPFile.DIRECTORY_TYPE);
+                break;
+            case 'l':
+                file.setType(FTPFile.SYMBOLIC_LINK_TYPE);
+                break;
+            case 'b':
+            case 'c':
+            case 'f':
+            case '-':
+                file.setType(FTPFile.FILE_TYPE);
+                break;
+            default:
+                file.setType(FTPFile.UNKNOWN_TYPE);
+        }
+        for(int access = 0; access < 3; access++) {
+            final int offset = 1 + access * 3;
+            // Use != '-' to avoid having to check for suid and sticky bits.
+            file.setPermission(access, FTPFile.READ_PERMISSION, line.charAt(offset) != '-');
+            file.setPermission(access, FTPFile.WRITE_PERMISSION, line.charAt(offset + 1) != '-');
+            final char exec = line.charAt(offset + 2);
+            file.setPermission(access, FTPFile.EXECUTE_PERMISSION, exec != '-' && Character.isLowerCase(exec));
+            switch(access) {
+                case 0:
+                    file.setSetuid(exec == 's' || exec == 'S');
+                    break;
+                case 1:
+                    file.setSetgid(exec == 's' || exec == 'S');
+                    break;
+                case 2:
+                    file.setSticky(exec == 't' || exec == 'T');
+                    break;
+            }
+        }
+        file.setUser(line.substring(user, userEnd));
+        file.setGroup(group);
+        file.setSize(sizeEnd - size > 18 ? -1L : number(line, size, sizeEnd));
+        file.setTimestamp(this.timestamp(year, m, (int) number(line, day, dayEnd), hour, minute));
+        final String name = line.substring(index);
+        if(file.getType() == FTPFile.SYMBOLIC_LINK_TYPE) {
+            final int link = name.indexOf(" -> ");
+            // Give up if no link indicator is present
+            if(link == -1) {
+                file.setName(name);
+            }
+            else {
+                file.setName(name.substring(0, link));
+                file.setLink(name.substring(link + 4));
+            }
+        }
+        else {
+            file.setName(name);
+        }
+        return file;
+    }
+
+    /**
+     * Timestamps without year are in the past year if they would be more than one day in the future otherwise
+     *
+     * @param year Year or -1 for recent timestamps
+     * @return Null for invalid date
+     */
+    protected Calendar timestamp(final int year, final int month, final int day, final int hour, final int minute) {
+        final Calendar calendar = Calendar.getInstance(timezone);
+        calendar.clear();
+        calendar.setLenient(false);
+        try {
+            if(-1 == year) {
+                final Calendar now = Calendar.getInstance(timezone);
+                now.add(Calendar.DAY_OF_MONTH, 1);
+                calendar.set(now.get(Calendar.YEAR), month, day, hour, minute);
+                if(calendar.after(now)) {
+                    calendar.add(Calendar.YEAR, -1);
+                }
+            }
+            else {
+                calendar.set(year, month, day);
+            }
+            // Validate fields
+            calendar.getTimeInMillis();
+            return calendar;
+        }
+        catch(IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean is(final char c, final String allowed) {
+        return allowed.indexOf(c) != -1;
+    }
+
+    /**
+     * @return Index of first non whitespace character
+     */
+    private static int skip(final String line, int index) {
+        while(index < line.length() && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @return Index of first whitespace character
+     */
+    private static int token(final String line, int index) {
+        while(index < line.length() && !Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @return Index of first character not a digit
+     */
+    private static int digits(final String line, int index) {
+        while(index < line.length() && line.charAt(index) >= '0' && line.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
+
+    private static long number(final String line, final int start, final int end) {
+        long value = 0L;
+        for(int i = start; i < end; i++) {
+            value = value * 10 + line.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    /**
+     * @return Calendar month or -1 if not an abbreviated month name
+     */
+    private static int month(final String line, final int start, final int end) {
+        if(end - start != 3) {
+            return -1;
+        }
+        for(int i = 0; i < MONTHS.length; i++) {
+            if(line.regionMatches(true, start, MONTHS[i], 0, 3)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
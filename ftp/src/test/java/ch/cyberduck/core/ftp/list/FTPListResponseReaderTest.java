@@ -24,6 +24,7 @@ import ch.cyberduck.core.ftp.FTPParserSelector;
 import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
 import ch.cyberduck.test.IntegrationTest;
 
+import org.apache.commons.net.ftp.parser.VMSVersioningFTPEntryParser;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -243,4 +244,11 @@ public class FTPListResponseReaderTest {
         assertNull(list.get(2).getSymlinkTarget());
         assertFalse(list.get(2).isSymbolicLink());
     }
+
+    @Test
+    public void testStreaming() {
+        assertTrue(new FTPListResponseReader(new FTPParserSelector().getParser("UNIX")).isStreaming());
+        assertFalse(new FTPListResponseReader(new VMSVersioningFTPEntryParser()).isStreaming());
+        assertFalse(new FTPListResponseReader(new CompositeFileEntryParser(Collections.singletonList(new VMSVersioningFTPEntryParser()), true)).isStreaming());
+    }
 }
@@ -27,10 +27,15 @@ import org.junit.experimental.categories.Category;
 
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.TimeZone;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 @Category(IntegrationTest.class)
@@ -302,4 +307,23 @@ public class FTPMlsdListResponseReaderTest {
             .read(directory, Arrays.asList(replies), new DisabledListProgressListener());
         assertEquals(2, children.size());
     }
+
+    @Test
+    public void testTokenizeFacts() {
+        final FTPMlsdListResponseReader reader = new FTPMlsdListResponseReader();
+        final Map<String, Map<String, String>> parsed = reader.tokenizeFacts("Type=file;Size=1024;modify=20090210192929;perm=;UNIX.mode=0644; a file.txt");
+        assertNotNull(parsed);
+        assertEquals(Collections.singleton("a file.txt"), parsed.keySet());
+        final Map<String, String> facts = parsed.get("a file.txt");
+        assertEquals("file", facts.get("type"));
+        assertEquals("1024", facts.get("size"));
+        assertEquals("20090210192929", facts.get("modify"));
+        assertEquals("0644", facts.get("unix.mode"));
+        assertFalse(facts.containsKey("perm"));
+        assertEquals(Collections.singleton("name"), reader.tokenizeFacts(" name").keySet());
+        assertTrue(reader.tokenizeFacts(" name").get("name").isEmpty());
+        assertNull(reader.tokenizeFacts("type=file name"));
+        assertNull(reader.tokenizeFacts("name"));
+        assertEquals(parsed, reader.parseFacts("Type=file;Size=1024;modify=20090210192929;perm=;UNIX.mode=0644; a file.txt"));
+    }
 }
@@ -0,0 +1,71 @@
+package ch.cyberduck.core.ftp.list;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.ftp.AbstractFTPTest;
+import ch.cyberduck.core.ftp.FTPDeleteFeature;
+import ch.cyberduck.core.ftp.FTPTouchFeature;
+import ch.cyberduck.core.ftp.FTPWorkdirService;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.net.ftp.FTPCmd;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(IntegrationTest.class)
+public class FTPStreamingListResponseReaderTest extends AbstractFTPTest {
+
+    @Test
+    public void testReadChunked() throws Exception {
+        final Path directory = new FTPWorkdirService(session).find();
+        final List<Path> files = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            files.add(new FTPTouchFeature(session).touch(new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus()));
+        }
+        assertTrue(session.getClient().changeWorkingDirectory(directory.getAbsolute()));
+        final AtomicInteger chunks = new AtomicInteger();
+        final AttributedList<Path> list = new FTPStreamingListResponseReader(session.getClient(), new FTPMlsdListResponseReader(), 1)
+            .read(directory, session.getClient().listStream(FTPCmd.MLSD, null), new DisabledListProgressListener() {
+                @Override
+                public void chunk(final Path parent, final AttributedList<Path> list) {
+                    chunks.incrementAndGet();
+                }
+            });
+        for(Path file : files) {
+            assertTrue(list.contains(file));
+        }
+        // One chunk per line
+        assertTrue(chunks.get() >= files.size());
+        // Control connection usable after listing
+        assertEquals(directory, new FTPWorkdirService(session).find());
+        new FTPDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+}
@@ -0,0 +1,145 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TokenizingUnixFTPEntryParserTest {
+
+    /**
+     * Lines from parser tests of other server types
+     */
+    private static final String[] LINES = {
+            "-r--r--r--          0     165100     165100 Aug  1 10:24 grau2.tif",
+            "-rw-r--r--        0      589878   589878 Oct 15 13:03 WebDAV SS.bmp",
+            "-rw-r--r--    1 3642     3643          106 Nov 15 22:20 index.html",
+            "-rw-r--r--   1  freebox  freebox 1171138668 May 19 17:20 France 3 national - 19-05-2007 18h15 1h05m.ts",
+            "-rw-r--r--   1  freebox  freebox 2064965868 Apr 15 21:17 M6 - Capital 15-04-2007 21h37 1h40m.ts",
+            "-rw-r--r--   1  freebox  freebox 75906880 Sep 08 06:33 Direct 8 - Gym direct - 08-09-2007 08h30 1h08m.ts",
+            "-rw-r--r--   1 20708    205             194 Oct 17 14:40 D3I0_805.fixlist",
+            "-rw-r--r--   1 20708    205         3553312 Feb 18 2005  D3I0_515.fmr",
+            "-rw-r--r--   1 ToysPKG  advertise24809879 Jun 25 10:54 TRU-Warning Guide Master CD.sitx",
+            "-rw-r--r--   1 www-data www-data      10089849 Dec 20 09:30 Stone Catalog",
+            "-rw-r--r--   1 www-data www-data      34524204 Dec 20 13:41 Winter 2008 Newsletter.sit",
+            "-rw-r--r--  FTP  User       10439 Apr 20 05:29 ASCheckbox_2_0.zip",
+            "-rw-r--r-- 1 ftp ftp         100847 Sep 10  2004 octfront2.jpg",
+            "-rw-rw-rw- 1 ftp operator 172.4k Mar 7 16:01 HEALY071.TXT ",
+            "-rw-rw-rw- 1 ftp operator 61.8M Mar 7 18:42 GC Wayfinding pics.zip ",
+            "-rw-rw-rw- 1 ftp operator 9.0M Mar 22 17:44 Cyberduck-2.7.3.dmg",
+            "-rw-rw-rw- 1 hoerspiel hoerspiel  3722053 19. Sep 13:24 Offenbarung 23 - Menschenopfer - 02.mp3",
+            "-rw-rw-rw- 1 hoerspiel hoerspiel 10128531 19. Sep 13:24 Offenbarung 23 - Menschenopfer - 01.mp3",
+            "-rw-rw-rw- 1 hoerspiel hoerspiel 11714687 19. Sep 13:25 Offenbarung 23 - Menschenopfer - 08.mp3",
+            "-rwx------          17      332      640 Dec 20 08:54 file 1",
+            "-rwx------ 1 user group          38635 Jul 13 2006  users.xml",
+            "-rwxrwxrwx        0   208143684 208143684 Jan 14 02:13 Dhannya dhannya.rar",
+            "dr--r--r--                folder          0 Aug  1 10:18 TestCyberduck",
+            "drw-rw-rw-   1 user      ftp             0  DEC 11 20:56 ADMIN_Documentation",
+            "drw-rw-rw-   1 user      ftp             0  Mar 11 20:56  ADMIN_Documentation",
+            "drw-rw-rw-   1 user      ftp             0  Mar 11 20:56 ADMIN_Documentation ",
+            "drw-rw-rw-   1 user      ftp             0  Mar 11 20:56 ADMIN_Documentation",
+            "drwSr--r--   1 user     group          0 Feb 29 18:14 Filename",
+            "drwsr--r--   1 user     group          0 Feb 29 18:14 Filename",
+            "drwx------             folder          2 Dec 20 08:55 folder1",
+            "drwxr--r--   1 user     group          0 Feb 14 18:14 Downloads",
+            "drwxr--r--   1 user     group          0 Feb 29 18:14 Downloads",
+            "drwxr--r--   1 user     group          0 Feb 29 18:14 Icon\r",
+            "drwxr--r-T   1 user     group          0 Feb 29 18:14 Filename",
+            "drwxr--r-t   1 user     group          0 Feb 29 18:14 Filename",
+            "drwxr-Sr--   1 user     group          0 Feb 29 18:14 Filename",
+            "drwxr-sr--   1 user     group          0 Feb 29 18:14 Filename",
+            "drwxr-sr-x  14 17037    209            4096 Oct  6 2000  v3r7",
+            "drwxr-xr-x               folder        0 Jan 14 16:04 Probeordner",
+            "drwxr-xr-x               folder        0 Oct 18 13:02 Akrilik",
+            "drwxr-xr-x    3 ftp      ftp           512 Mar 15  2004 doc",
+            "drwxr-xr-x   6 START2   SYS1        8192 Oct 28  2008 ADCD",
+            "drwxr-xr-x   7 ToysPKG  advertise   8192 Jun 24 11:58 Private Label Mock",
+            "drwxr-xr-x+  5 niels    staff          7 Sep  6 13:46 data",
+            "drwxrwsr-x+ 34 cristol  molvis      3072 Jul 12 20:16 molvis",
+            "drwxrwxr-x    2 ftp      ftp           512 Oct 23  2007 aurox",
+            "drwxrwxr-x   7 root     ftpadmin     1024 Apr 20 16:17 pub",
+            "drwxrwxrwx               folder        0 Jan 19 20:36 Mastered 1644",
+            "drwxrwxrwx               folder        0 Oct 11 14:53 Uploads",
+            "drwxrwxrwx    41 spinkb  spinkb      1394 Feb 21 20:57 Desktop",
+            "drwxrwxrwx    41 spinkb  spinkb      1394 jan 21 20:57 Desktop",
+            "drwxrwxrwx   1 owner    group               0 Dec  5  0:45 adele.handmadebyflloyd.com",
+            "drwxrwxrwx   1 owner    group               0 Jan 22  2009 contact",
+            "lrwxrwxrwx   1 root     root           11 Jan  3  2019 current -> release-1.2",
+            "lrwxrwxrwx   1 root     root           11 Jan  3 10:15 latest -> /pub/release"
+    };
+
+    @Test
+    public void testSameAsLax() {
+        final LaxUnixFTPEntryParser lax = new LaxUnixFTPEntryParser();
+        lax.configure(null);
+        final TokenizingUnixFTPEntryParser parser = new TokenizingUnixFTPEntryParser(TimeZone.getDefault(), new LaxUnixFTPEntryParser());
+        parser.configure(null);
+        for(String line : LINES) {
+            final FTPFile expected = lax.parseFTPEntry(line);
+            final FTPFile parsed = parser.parseFTPEntry(line);
+            if(null == expected) {
+                assertNull(line, parsed);
+                continue;
+            }
+            assertNotNull(line, parsed);
+            assertEquals(line, expected.getType(), parsed.getType());
+            assertEquals(line, expected.getName(), parsed.getName());
+            assertEquals(line, expected.getLink(), parsed.getLink());
+            assertEquals(line, expected.getUser(), parsed.getUser());
+            assertEquals(line, expected.getGroup(), parsed.getGroup());
+            assertEquals(line, expected.getSize(), parsed.getSize());
+            for(int access = FTPFile.USER_ACCESS; access <= FTPFile.WORLD_ACCESS; access++) {
+                for(int permission = FTPFile.READ_PERMISSION; permission <= FTPFile.EXECUTE_PERMISSION; permission++) {
+                    assertEquals(line, expected.hasPermission(access, permission), parsed.hasPermission(access, permission));
+                }
+            }
+            assertEquals(line, ((FTPExtendedFile) expected).isSetuid(), ((FTPExtendedFile) parsed).isSetuid());
+            assertEquals(line, ((FTPExtendedFile) expected).isSetgid(), ((FTPExtendedFile) parsed).isSetgid());
+            assertEquals(line, ((FTPExtendedFile) expected).isSticky(), ((FTPExtendedFile) parsed).isSticky());
+            if(null == expected.getTimestamp()) {
+                assertNull(line, parsed.getTimestamp());
+            }
+            else {
+                assertEquals(line, expected.getTimestamp().getTimeInMillis(), parsed.getTimestamp().getTimeInMillis());
+            }
+        }
+    }
+
+    @Test
+    public void testTokenize() {
+        final TokenizingUnixFTPEntryParser parser = new TokenizingUnixFTPEntryParser(TimeZone.getTimeZone("UTC"));
+        parser.configure(null);
+        final FTPFile parsed = parser.tokenize("lrwxrwxrwx   1 root     root           11 Jan  3  2019 current -> release-1.2");
+        assertNotNull(parsed);
+        assertEquals(FTPFile.SYMBOLIC_LINK_TYPE, parsed.getType());
+        assertEquals("current", parsed.getName());
+        assertEquals("release-1.2", parsed.getLink());
+        assertEquals(11L, parsed.getSize());
+        assertEquals(1546473600000L, parsed.getTimestamp().getTimeInMillis());
+        assertNotNull(parser.tokenize("drwxr-xr-x+  5 niels    staff          7 Sep  6 13:46 data"));
+        assertNotNull(parser.tokenize("-rwx------          17      332      640 Dec 20 08:54 file 1"));
+        // Human readable size handled by fallback
+        assertNull(parser.tokenize("-rw-rw-rw- 1 ftp operator 9.0M Mar 22 17:44 Cyberduck-2.7.3.dmg"));
+        assertNotNull(parser.parseFTPEntry("-rw-rw-rw- 1 ftp operator 9.0M Mar 22 17:44 Cyberduck-2.7.3.dmg"));
+        assertNull(parser.tokenize("total 123"));
+    }
+}
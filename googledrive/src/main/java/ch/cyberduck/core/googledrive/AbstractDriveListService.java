@@ -20,6 +20,7 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.webloc.UrlFileWriter;
@@ -70,22 +71,39 @@ public abstract class AbstractDriveListService implements ListService {
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
-        try {
-            final AttributedList<Path> children = new AttributedList<>();
-            String page = null;
-            final String query = this.query(directory, listener);
-            do {
-                final FileList list = session.getClient().files().list()
-                    // Whether Team Drive items should be included in results
-                    .setIncludeItemsFromAllDrives(true)
-                    // Whether the requesting application supports Shared Drives
-                    .setSupportsAllDrives(new HostPreferences(session.getHost()).getBoolean("googledrive.teamdrive.enable"))
-                    .setQ(query)
-                    // Please note that there is a current limitation for users with approximately one million files in which the requested sort order is ignored
-                    .setOrderBy("name")
-                    .setPageToken(page)
-                    .setFields(fields)
-                    .setPageSize(pagesize).execute();
+        final AttributedList<Path> children = new AttributedList<>();
+        final String query = this.query(directory, listener);
+        try (PrefetchingPager<FileList> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<FileList>() {
+            @Override
+            public FileList fetch(final FileList previous) throws BackgroundException {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Continue with next page token %s", null == previous ? null : previous.getNextPageToken()));
+                }
+                try {
+                    return session.getClient().files().list()
+                        // Whether Team Drive items should be included in results
+                        .setIncludeItemsFromAllDrives(true)
+                        // Whether the requesting application supports Shared Drives
+                        .setSupportsAllDrives(new HostPreferences(session.getHost()).getBoolean("googledrive.teamdrive.enable"))
+                        .setQ(query)
+                        // Please note that there is a current limitation for users with approximately one million files in which the requested sort order is ignored
+                        .setOrderBy("name")
+                        .setPageToken(null == previous ? null : previous.getNextPageToken())
+                        .setFields(fields)
+                        .setPageSize(pagesize).execute();
+                }
+                catch(IOException e) {
+                    throw new DriveExceptionMappingService(fileid).map("Listing directory failed", e, directory);
+                }
+            }
+
+            @Override
+            public boolean hasNext(final FileList page) {
+                return null != page.getNextPageToken();
+            }
+        })) {
+            while(pager.hasNext()) {
+                final FileList list = pager.next();
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("Chunk of %d retrieved", list.getFiles().size()));
                 }
@@ -112,17 +130,9 @@ public abstract class AbstractDriveListService implements ListService {
                     }
                 }
                 listener.chunk(directory, children);
-                page = list.getNextPageToken();
-                if(log.isDebugEnabled()) {
-                    log.debug(String.format("Continue with next page token %s", page));
-                }
             }
-            while(page != null);
-            return children;
-        }
-        catch(IOException e) {
-            throw new DriveExceptionMappingService(fileid).map("Listing directory failed", e, directory);
         }
+        return children;
     }
 
     protected Set<Path> parents(final Path directory, final File f) throws BackgroundException {
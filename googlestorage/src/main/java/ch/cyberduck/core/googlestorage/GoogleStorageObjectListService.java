@@ -22,6 +22,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.VersioningConfiguration;
@@ -89,110 +90,124 @@ public class GoogleStorageObjectListService implements ListService {
                     containerService.getContainer(directory)
             ) : VersioningConfiguration.empty();
             final AttributedList<Path> objects = new AttributedList<>();
-            Objects response;
             long revision = 0L;
             String lastKey = null;
-            String page = null;
             boolean hasDirectoryPlaceholder = containerService.isContainer(directory);
-            do {
-                final Storage.Objects.List request = session.getClient().objects().list(bucket.getName())
-                        .setPageToken(page)
-                        // lists all versions of an object as distinct results. The default is false
-                        .setVersions(versioning.isEnabled())
-                        .setMaxResults((long) chunksize)
-                        .setDelimiter(delimiter)
-                        .setPrefix(this.createPrefix(directory));
-                if(bucket.attributes().getCustom().containsKey(GoogleStorageAttributesFinderFeature.KEY_REQUESTER_PAYS)) {
-                    request.setUserProject(session.getHost().getCredentials().getUsername());
-                }
-                response = request.execute();
-                if(response.getItems() != null) {
-                    for(StorageObject object : response.getItems()) {
-                        final String key = PathNormalizer.normalize(object.getName());
-                        if(String.valueOf(Path.DELIMITER).equals(key)) {
-                            log.warn(String.format("Skipping prefix %s", key));
-                            continue;
-                        }
-                        if(new SimplePathPredicate(new Path(bucket, key, EnumSet.of(Path.Type.directory))).test(directory)) {
-                            // Placeholder object, skip
-                            hasDirectoryPlaceholder = true;
-                            continue;
-                        }
-                        if(!StringUtils.equals(lastKey, key)) {
-                            // Reset revision for next file
-                            revision = 0L;
-                        }
-                        final EnumSet<Path.Type> types = object.getName().endsWith(String.valueOf(Path.DELIMITER))
-                                ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
-                        final Path file;
-                        final PathAttributes attr = attributes.toAttributes(object);
-                        if(types.contains(Path.Type.file)) {
-                            attr.setRevision(++revision);
-                        }
-                        // Copy bucket location
-                        attr.setRegion(bucket.attributes().getRegion());
-                        if(null == delimiter) {
-                            // When searching for files recursively
-                            file = new Path(String.format("%s%s", bucket.getAbsolute(), key), types, attr);
-                        }
-                        else {
-                            file = new Path(directory.isDirectory() ? directory : directory.getParent(), PathNormalizer.name(key), types, attr);
+            try (PrefetchingPager<Objects> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<Objects>() {
+                @Override
+                public Objects fetch(final Objects previous) throws BackgroundException {
+                    try {
+                        final Storage.Objects.List request = session.getClient().objects().list(bucket.getName())
+                                .setPageToken(null == previous ? null : previous.getNextPageToken())
+                                // lists all versions of an object as distinct results. The default is false
+                                .setVersions(versioning.isEnabled())
+                                .setMaxResults((long) chunksize)
+                                .setDelimiter(delimiter)
+                                .setPrefix(GoogleStorageObjectListService.this.createPrefix(directory));
+                        if(bucket.attributes().getCustom().containsKey(GoogleStorageAttributesFinderFeature.KEY_REQUESTER_PAYS)) {
+                            request.setUserProject(session.getHost().getCredentials().getUsername());
                         }
-                        objects.add(file);
-                        lastKey = key;
+                        return request.execute();
+                    }
+                    catch(IOException e) {
+                        throw new GoogleStorageExceptionMappingService().map("Listing directory {0} failed", e, directory);
                     }
                 }
-                if(response.getPrefixes() != null) {
-                    final List<Future<Path>> folders = new ArrayList<>();
-                    for(String prefix : response.getPrefixes()) {
-                        if(String.valueOf(Path.DELIMITER).equals(prefix)) {
-                            log.warn(String.format("Skipping prefix %s", prefix));
-                            continue;
-                        }
-                        final String key = PathNormalizer.normalize(prefix);
-                        if(new SimplePathPredicate(new Path(bucket, key, EnumSet.of(Path.Type.directory))).test(directory)) {
-                            continue;
-                        }
-                        final Path file;
-                        final PathAttributes attributes = new PathAttributes();
-                        attributes.setRegion(bucket.attributes().getRegion());
-                        if(null == delimiter) {
-                            // When searching for files recursively
-                            file = new Path(String.format("%s%s", bucket.getAbsolute(), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                        }
-                        else {
-                            file = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                        }
-                        if(versioning.isEnabled()) {
-                            folders.add(this.submit(pool, bucket, directory, URIEncoder.decode(prefix)));
-                        }
-                        else {
-                            folders.add(ConcurrentUtils.constantFuture(file));
+
+                @Override
+                public boolean hasNext(final Objects page) {
+                    return null != page.getNextPageToken();
+                }
+            })) {
+                while(pager.hasNext()) {
+                    final Objects response = pager.next();
+                    if(response.getItems() != null) {
+                        for(StorageObject object : response.getItems()) {
+                            final String key = PathNormalizer.normalize(object.getName());
+                            if(String.valueOf(Path.DELIMITER).equals(key)) {
+                                log.warn(String.format("Skipping prefix %s", key));
+                                continue;
+                            }
+                            if(new SimplePathPredicate(new Path(bucket, key, EnumSet.of(Path.Type.directory))).test(directory)) {
+                                // Placeholder object, skip
+                                hasDirectoryPlaceholder = true;
+                                continue;
+                            }
+                            if(!StringUtils.equals(lastKey, key)) {
+                                // Reset revision for next file
+                                revision = 0L;
+                            }
+                            final EnumSet<Path.Type> types = object.getName().endsWith(String.valueOf(Path.DELIMITER))
+                                    ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
+                            final Path file;
+                            final PathAttributes attr = attributes.toAttributes(object);
+                            if(types.contains(Path.Type.file)) {
+                                attr.setRevision(++revision);
+                            }
+                            // Copy bucket location
+                            attr.setRegion(bucket.attributes().getRegion());
+                            if(null == delimiter) {
+                                // When searching for files recursively
+                                file = new Path(String.format("%s%s", bucket.getAbsolute(), key), types, attr);
+                            }
+                            else {
+                                file = new Path(directory.isDirectory() ? directory : directory.getParent(), PathNormalizer.name(key), types, attr);
+                            }
+                            objects.add(file);
+                            lastKey = key;
                         }
                     }
-                    for(Future<Path> f : folders) {
-                        try {
-                            objects.add(Uninterruptibles.getUninterruptibly(f));
+                    if(response.getPrefixes() != null) {
+                        final List<Future<Path>> folders = new ArrayList<>();
+                        for(String prefix : response.getPrefixes()) {
+                            if(String.valueOf(Path.DELIMITER).equals(prefix)) {
+                                log.warn(String.format("Skipping prefix %s", prefix));
+                                continue;
+                            }
+                            final String key = PathNormalizer.normalize(prefix);
+                            if(new SimplePathPredicate(new Path(bucket, key, EnumSet.of(Path.Type.directory))).test(directory)) {
+                                continue;
+                            }
+                            final Path file;
+                            final PathAttributes attributes = new PathAttributes();
+                            attributes.setRegion(bucket.attributes().getRegion());
+                            if(null == delimiter) {
+                                // When searching for files recursively
+                                file = new Path(String.format("%s%s", bucket.getAbsolute(), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+                            }
+                            else {
+                                file = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+                            }
+                            if(versioning.isEnabled()) {
+                                folders.add(this.submit(pool, bucket, directory, URIEncoder.decode(prefix)));
+                            }
+                            else {
+                                folders.add(ConcurrentUtils.constantFuture(file));
+                            }
                         }
-                        catch(ExecutionException e) {
-                            log.warn(String.format("Listing versioned objects failed with execution failure %s", e.getMessage()));
-                            Throwables.throwIfInstanceOf(Throwables.getRootCause(e), BackgroundException.class);
-                            throw new DefaultExceptionMappingService().map(Throwables.getRootCause(e));
+                        for(Future<Path> f : folders) {
+                            try {
+                                objects.add(Uninterruptibles.getUninterruptibly(f));
+                            }
+                            catch(ExecutionException e) {
+                                log.warn(String.format("Listing versioned objects failed with execution failure %s", e.getMessage()));
+                                Throwables.throwIfInstanceOf(Throwables.getRootCause(e), BackgroundException.class);
+                                throw new DefaultExceptionMappingService().map(Throwables.getRootCause(e));
+                            }
                         }
                     }
+                    objects.filter(objects, (o1, o2) -> session.getHost().getProtocol().getListComparator().compare(o1.getName(), o2.getName()), null);
+                    listener.chunk(directory, objects);
                 }
-                page = response.getNextPageToken();
-                objects.filter(objects, (o1, o2) -> session.getHost().getProtocol().getListComparator().compare(o1.getName(), o2.getName()), null);
-                listener.chunk(directory, objects);
             }
-            while(page != null);
             if(!hasDirectoryPlaceholder && objects.isEmpty()) {
                 throw new NotfoundException(directory.getAbsolute());
             }
             return objects;
         }
-        catch(IOException e) {
-            throw new GoogleStorageExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        finally {
+            // Cancel future tasks
+            pool.shutdown(false);
         }
     }
 
@@ -30,8 +30,8 @@ import java.util.EnumSet;
 public abstract class AbstractDriveListService extends AbstractListService<Drive.Metadata> {
     private static final Logger log = LogManager.getLogger(AbstractDriveListService.class);
 
-    public AbstractDriveListService(final GraphFileIdProvider fileid) {
-        super(fileid);
+    public AbstractDriveListService(final GraphSession session, final GraphFileIdProvider fileid) {
+        super(session, fileid);
     }
 
     @Override
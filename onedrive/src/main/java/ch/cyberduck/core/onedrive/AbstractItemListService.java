@@ -31,8 +31,8 @@ public abstract class AbstractItemListService extends AbstractListService<DriveI
     private final GraphAttributesFinderFeature attributes;
     private final UrlFileWriter urlFileWriter = UrlFileWriterFactory.get();
 
-    public AbstractItemListService(final GraphAttributesFinderFeature attributes, final GraphFileIdProvider fileid) {
-        super(fileid);
+    public AbstractItemListService(final GraphSession session, final GraphAttributesFinderFeature attributes, final GraphFileIdProvider fileid) {
+        super(session, fileid);
         this.attributes = attributes;
     }
 
@@ -19,22 +19,31 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.onedrive.features.GraphFileIdProvider;
+import ch.cyberduck.core.preferences.HostPreferences;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.nuxeo.onedrive.client.OneDriveRuntimeException;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 public abstract class AbstractListService<T> implements ListService {
     private static final Logger log = LogManager.getLogger(AbstractListService.class);
 
     private final GraphFileIdProvider fileid;
+    /**
+     * Number of items converted per page
+     */
+    private final int chunksize;
 
-    public AbstractListService(final GraphFileIdProvider fileid) {
+    public AbstractListService(final GraphSession session, final GraphFileIdProvider fileid) {
         this.fileid = fileid;
+        this.chunksize = new HostPreferences(session.getHost()).getInteger("onedrive.listing.chunksize");
     }
 
     @Override
@@ -42,26 +51,41 @@ public abstract class AbstractListService<T> implements ListService {
         final AttributedList<Path> children = new AttributedList<>();
         final Iterator<T> iterator = getIterator(directory);
         final boolean filtering = isFiltering(directory);
-        try {
-            while(iterator.hasNext()) {
-                final T metadata;
+        // Read items of next page in background while converting
+        try (PrefetchingPager<List<T>> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<List<T>>() {
+            @Override
+            public List<T> fetch(final List<T> previous) throws BackgroundException {
+                final List<T> page = new ArrayList<>();
                 try {
-                    metadata = iterator.next();
+                    while(page.size() < chunksize && iterator.hasNext()) {
+                        try {
+                            page.add(iterator.next());
+                        }
+                        catch(Exception e) {
+                            log.warn(e.getMessage());
+                        }
+                    }
                 }
-                catch(Exception e) {
-                    log.warn(e.getMessage());
-                    continue;
+                catch(OneDriveRuntimeException e) { // this catches iterator.hasNext in iterate()
+                    throw new GraphExceptionMappingService(fileid).map("Listing directory {0} failed", e.getCause(), directory);
                 }
-                if(filtering && !filter(metadata)) {
-                    continue;
+                return page;
+            }
+
+            @Override
+            public boolean hasNext(final List<T> page) {
+                return page.size() == chunksize;
+            }
+        })) {
+            while(pager.hasNext()) {
+                for(T metadata : pager.next()) {
+                    if(filtering && !filter(metadata)) {
+                        continue;
+                    }
+                    children.add(toPath(metadata, directory));
                 }
-                children.add(toPath(metadata, directory));
             }
         }
-        catch(OneDriveRuntimeException e) { // this catches iterator.hasNext in iterate()
-            throw new GraphExceptionMappingService(fileid).map("Listing directory {0} failed", e.getCause(), directory);
-        }
-
         postList(children);
         listener.chunk(directory, children);
         return children;
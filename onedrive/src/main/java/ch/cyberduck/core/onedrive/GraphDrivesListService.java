@@ -34,7 +34,7 @@ public class GraphDrivesListService extends AbstractDriveListService {
     private final GraphSession session;
 
     public GraphDrivesListService(final GraphSession session, final GraphFileIdProvider fileid) {
-        super(fileid);
+        super(session, fileid);
         this.session = session;
     }
 
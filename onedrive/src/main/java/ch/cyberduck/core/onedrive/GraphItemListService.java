@@ -35,7 +35,7 @@ public class GraphItemListService extends AbstractItemListService {
     private final GraphSession session;
 
     public GraphItemListService(final GraphSession session, final GraphFileIdProvider fileid) {
-        super(new GraphAttributesFinderFeature(session, fileid), fileid);
+        super(session, new GraphAttributesFinderFeature(session, fileid), fileid);
         this.session = session;
     }
 
@@ -35,7 +35,7 @@ public class SharedWithMeListService extends AbstractItemListService {
     private final GraphSession session;
 
     public SharedWithMeListService(final GraphSession session, final GraphFileIdProvider fileid) {
-        super(new GraphAttributesFinderFeature(session, fileid), fileid);
+        super(session, new GraphAttributesFinderFeature(session, fileid), fileid);
         this.session = session;
     }
 
@@ -35,7 +35,7 @@ public class GroupDrivesListService extends AbstractDriveListService {
     private final AbstractSharepointSession session;
 
     public GroupDrivesListService(final AbstractSharepointSession session, final GraphFileIdProvider fileid) {
-        super(fileid);
+        super(session, fileid);
         this.session = session;
     }
 
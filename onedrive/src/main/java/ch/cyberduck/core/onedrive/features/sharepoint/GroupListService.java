@@ -36,7 +36,7 @@ public class GroupListService extends AbstractListService<GroupItem.Metadata> {
     private final SharepointSession session;
 
     public GroupListService(final SharepointSession session, final GraphFileIdProvider fileid) {
-        super(fileid);
+        super(session, fileid);
         this.session = session;
     }
 
@@ -35,7 +35,7 @@ public class SiteDrivesListService extends AbstractDriveListService {
     private final AbstractSharepointSession session;
 
     public SiteDrivesListService(final AbstractSharepointSession session, final GraphFileIdProvider fileid) {
-        super(fileid);
+        super(session, fileid);
         this.session = session;
     }
 
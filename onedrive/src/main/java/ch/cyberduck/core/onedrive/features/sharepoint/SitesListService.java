@@ -34,7 +34,7 @@ public class SitesListService extends AbstractListService<Site.Metadata> {
     private final AbstractSharepointSession session;
 
     public SitesListService(final AbstractSharepointSession session, final GraphFileIdProvider fileid) {
-        super(fileid);
+        super(session, fileid);
         this.session = session;
     }
 
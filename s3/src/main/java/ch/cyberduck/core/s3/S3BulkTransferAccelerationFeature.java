@@ -36,6 +36,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class S3BulkTransferAccelerationFeature implements Bulk<Void> {
     private static final Logger log = LogManager.getLogger(S3BulkTransferAccelerationFeature.class);
@@ -43,15 +44,24 @@ public class S3BulkTransferAccelerationFeature implements Bulk<Void> {
     private final S3Session session;
     private final TransferAcceleration accelerationService;
     private final PathContainerService containerService;
+    /**
+     * Buckets with transfer acceleration determined for files prepared previously
+     */
+    private final Map<Path, Boolean> buckets;
 
     public S3BulkTransferAccelerationFeature(final S3Session session) {
         this(session, session.getFeature(TransferAcceleration.class));
     }
 
     public S3BulkTransferAccelerationFeature(final S3Session session, final TransferAcceleration accelerationService) {
+        this(session, accelerationService, new ConcurrentHashMap<>());
+    }
+
+    public S3BulkTransferAccelerationFeature(final S3Session session, final TransferAcceleration accelerationService, final Map<Path, Boolean> buckets) {
         this.session = session;
         this.accelerationService = accelerationService;
         this.containerService = session.getFeature(PathContainerService.class);
+        this.buckets = buckets;
     }
 
     @Override
@@ -65,23 +75,43 @@ public class S3BulkTransferAccelerationFeature implements Bulk<Void> {
         this.configure(files, callback, false);
     }
 
+    /**
+     * @return False when prompting to enable transfer acceleration to prompt once for all files
+     */
+    @Override
+    public boolean isIncremental() {
+        return !new HostPreferences(session.getHost()).getBoolean("s3.accelerate.prompt");
+    }
+
+    @Override
+    public boolean isPostProcessing() {
+        // Only requires path of files to determine buckets
+        return false;
+    }
+
     @Override
     public Bulk<Void> withDelete(final Delete delete) {
         return this;
     }
 
     private void configure(final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback, final boolean enabled) throws BackgroundException {
-        final Set<Path> buckets = new HashSet<>();
+        final Set<Path> containers = new HashSet<>();
         for(TransferItem file : files.keySet()) {
             final Path bucket = containerService.getContainer(file.remote);
             if(!bucket.isRoot()) {
-                buckets.add(bucket);
+                containers.add(bucket);
             }
         }
-        for(Path bucket : buckets) {
+        for(Path bucket : containers) {
             if(enabled) {
+                if(this.buckets.containsKey(bucket)) {
+                    // Determined with previous files
+                    continue;
+                }
                 try {
-                    if(this.accelerate(bucket, callback)) {
+                    final boolean accelerate = this.accelerate(bucket, callback);
+                    this.buckets.put(bucket, accelerate);
+                    if(accelerate) {
                         if(log.isInfoEnabled()) {
                             log.info(String.format("Tunnel upload for file %s through accelerated endpoint %s", bucket, accelerationService));
                         }
@@ -97,6 +127,7 @@ public class S3BulkTransferAccelerationFeature implements Bulk<Void> {
                 }
             }
             else {
+                this.buckets.remove(bucket);
                 accelerationService.configure(false, bucket);
             }
         }
@@ -58,6 +58,19 @@ public class S3DefaultMultipartService implements S3MultipartService {
 
     @Override
     public List<MultipartUpload> find(final Path file) throws BackgroundException {
+        return this.find(file, containerService.getKey(file), String.valueOf(Path.DELIMITER));
+    }
+
+    /**
+     * @param directory Directory
+     * @return In-progress multipart uploads for all files in directory and its subdirectories
+     */
+    public List<MultipartUpload> findRecursive(final Path directory) throws BackgroundException {
+        final String key = containerService.getKey(directory);
+        return this.find(directory, null == key ? null : String.format("%s%s", key, Path.DELIMITER), null);
+    }
+
+    protected List<MultipartUpload> find(final Path file, final String prefix, final String delimiter) throws BackgroundException {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Finding multipart uploads for %s", file));
         }
@@ -73,8 +86,8 @@ public class S3DefaultMultipartService implements S3MultipartService {
             final MultipartUploadChunk chunk;
             try {
                 chunk = session.getClient().multipartListUploadsChunked(
-                        bucket.isRoot() ? StringUtils.EMPTY : bucket.getName(), containerService.getKey(file),
-                        String.valueOf(Path.DELIMITER), nextKeyMarker, nextUploadIdMarker, null, false);
+                        bucket.isRoot() ? StringUtils.EMPTY : bucket.getName(), prefix,
+                        delimiter, nextKeyMarker, nextUploadIdMarker, null, false);
             }
             catch(S3ServiceException e) {
                 final BackgroundException failure = new S3ExceptionMappingService().map("Upload {0} failed", e, file);
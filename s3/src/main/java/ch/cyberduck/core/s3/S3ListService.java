@@ -20,6 +20,7 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.VersioningConfiguration;
 import ch.cyberduck.core.exception.AccessDeniedException;
@@ -97,4 +98,48 @@ public class S3ListService implements ListService {
         }
         return objects;
     }
+
+    @Override
+    public boolean isRecursive(final Path directory) {
+        return !directory.isRoot() && new HostPreferences(session.getHost()).getBoolean("s3.listing.recursive.enable");
+    }
+
+    /**
+     * List all objects with the prefix of the directory without delimiter. Intermediate directories without
+     * placeholder object are added to the listing. Falls back to listing each directory for versioned buckets.
+     */
+    @Override
+    public AttributedList<Path> listRecursive(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        if(!this.isRecursive(directory)) {
+            return ListService.super.listRecursive(directory, listener);
+        }
+        final VersioningConfiguration versioning = new HostPreferences(session.getHost()).getBoolean("s3.listing.versioning.enable")
+                && null != session.getFeature(Versioning.class) ? session.getFeature(Versioning.class)
+                .getConfiguration(directory) : VersioningConfiguration.empty();
+        if(versioning.isEnabled()) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("List each directory in versioned bucket for %s", directory));
+            }
+            return ListService.super.listRecursive(directory, listener);
+        }
+        final Path bucket = session.getFeature(PathContainerService.class).getContainer(directory);
+        final AttributedList<Path> objects = new S3ObjectListService(session, acl).list(directory, listener, null);
+        if(new HostPreferences(session.getHost()).getBoolean("s3.upload.multipart")) {
+            try {
+                for(MultipartUpload upload : new S3DefaultMultipartService(session).findRecursive(directory)) {
+                    final PathAttributes attributes = new PathAttributes();
+                    attributes.setDuplicate(true);
+                    attributes.setVersionId(upload.getUploadId());
+                    attributes.setModificationDate(upload.getInitiatedDate().getTime());
+                    attributes.setRegion(bucket.attributes().getRegion());
+                    objects.add(new Path(String.format("%s/%s", bucket.getAbsolute(), upload.getObjectKey()),
+                            EnumSet.of(Path.Type.file, Path.Type.upload), attributes));
+                }
+            }
+            catch(AccessDeniedException | InteroperabilityException e) {
+                log.warn(String.format("Ignore failure listing incomplete multipart uploads. %s", e));
+            }
+        }
+        return S3ObjectListService.toHierarchy(directory, objects);
+    }
 }
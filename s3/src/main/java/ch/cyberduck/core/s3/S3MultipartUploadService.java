@@ -35,10 +35,11 @@ import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.local.MappedSegmentLocal;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.SegmentThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.SegmentRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -75,6 +76,10 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
      */
     private final Long partsize;
     private final Integer concurrency;
+    /**
+     * Map parts into memory to compute checksum and upload without reading twice from disk
+     */
+    private final boolean mapped;
 
     public S3MultipartUploadService(final S3Session session, final Write<StorageObject> writer, final S3AccessControlListFeature acl) {
         this(session, writer, acl, new HostPreferences(session.getHost()).getLong("s3.upload.multipart.size"),
@@ -90,12 +95,13 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         this.acl = acl;
         this.partsize = partsize;
         this.concurrency = concurrency;
+        this.mapped = new HostPreferences(session.getHost()).getBoolean("s3.upload.multipart.mapped.enable");
     }
 
     @Override
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                                 final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("multipart", concurrency);
+        final ThreadPool pool = new SegmentThreadPool(concurrency);
         try {
             MultipartUpload multipart = null;
             try {
@@ -229,14 +235,35 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                 status.setParameters(requestParameters);
                 status.setPart(partNumber);
                 status.setHeader(overall.getHeader());
-                switch(session.getSignatureVersion()) {
-                    case AWS4HMACSHA256:
-                        status.setChecksum(writer.checksum(file, status).compute(local.getInputStream(), status));
-                        break;
+                Local source = local;
+                MappedSegmentLocal segment = null;
+                final StorageObject part;
+                try {
+                    switch(session.getSignatureVersion()) {
+                        case AWS4HMACSHA256:
+                            if(mapped) {
+                                try {
+                                    // Read part once from disk for both computing the payload hash and upload
+                                    segment = new MappedSegmentLocal(local, offset, length);
+                                    source = segment;
+                                }
+                                catch(AccessDeniedException e) {
+                                    log.warn(String.format("Failure mapping part %d of %s. %s", partNumber, local, e));
+                                }
+                            }
+                            status.setChecksum(writer.checksum(file, status).compute(source.getInputStream(), status));
+                            break;
+                    }
+                    status.setSegment(true);
+                    part = S3MultipartUploadService.super.upload(
+                            file, source, throttle, counter, status, overall, status, callback);
+                }
+                finally {
+                    if(segment != null) {
+                        // Unmap part when upload is complete
+                        segment.close();
+                    }
                 }
-                status.setSegment(true);
-                final StorageObject part = S3MultipartUploadService.super.upload(
-                        file, local, throttle, counter, status, overall, status, callback);
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Received response %s for part number %d", part, partNumber));
                 }
@@ -25,11 +25,17 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -38,8 +44,20 @@ import org.jets3t.service.ServiceException;
 import org.jets3t.service.StorageObjectsChunk;
 import org.jets3t.service.model.StorageObject;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+
+import com.google.common.base.Throwables;
 
 public class S3ObjectListService extends S3AbstractListService implements ListService {
     private static final Logger log = LogManager.getLogger(S3ObjectListService.class);
@@ -49,17 +67,31 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
     private final S3AttributesFinderFeature attributes;
 
     private final boolean metadata;
+    /**
+     * Maximum number of markers to split the remaining keys of a truncated page at
+     */
+    private static final int SPLIT = 4;
+
+    /**
+     * Number of concurrent requests for common prefixes when listing without delimiter
+     */
+    private final Integer concurrency;
 
     public S3ObjectListService(final S3Session session, final S3AccessControlListFeature acl) {
         this(session, acl, new HostPreferences(session.getHost()).getBoolean("s3.listing.metadata.enable"));
     }
 
     public S3ObjectListService(final S3Session session, final S3AccessControlListFeature acl, final boolean metadata) {
+        this(session, acl, metadata, new HostPreferences(session.getHost()).getInteger("s3.listing.concurrency"));
+    }
+
+    public S3ObjectListService(final S3Session session, final S3AccessControlListFeature acl, final boolean metadata, final Integer concurrency) {
         super(session);
         this.session = session;
         this.attributes = new S3AttributesFinderFeature(session, acl);
         this.containerService = session.getFeature(PathContainerService.class);
         this.metadata = metadata;
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -67,85 +99,418 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
         return this.list(directory, listener, String.valueOf(Path.DELIMITER));
     }
 
+    @Override
+    public boolean isRecursive(final Path directory) {
+        return !directory.isRoot();
+    }
+
+    /**
+     * List all keys with the prefix of the directory without delimiter in a single paginated listing
+     */
+    @Override
+    public AttributedList<Path> listRecursive(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        return toHierarchy(directory, this.list(directory, listener, null));
+    }
+
+    /**
+     * Add intermediate directories without placeholder object in flat listing
+     *
+     * @param directory Directory listed
+     * @param objects   Files and directories in lexicographic order of their keys
+     * @return Listing with every directory preceding its children
+     */
+    protected static AttributedList<Path> toHierarchy(final Path directory, final AttributedList<Path> objects) {
+        final AttributedList<Path> result = new AttributedList<>();
+        final Set<SimplePathPredicate> directories = new HashSet<>();
+        for(Path f : objects) {
+            final Deque<Path> parents = new ArrayDeque<>();
+            for(Path parent = f.getParent(); !parent.isRoot() && !new SimplePathPredicate(parent).test(directory); parent = parent.getParent()) {
+                if(directories.contains(new SimplePathPredicate(parent))) {
+                    break;
+                }
+                parents.push(parent);
+            }
+            for(Path parent : parents) {
+                final PathAttributes attr = new PathAttributes();
+                attr.setRegion(f.attributes().getRegion());
+                final Path placeholder = new Path(parent.getAbsolute(), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attr);
+                directories.add(new SimplePathPredicate(placeholder));
+                result.add(placeholder);
+            }
+            if(f.isDirectory()) {
+                if(!directories.add(new SimplePathPredicate(f))) {
+                    // Duplicate of common prefix or previously added intermediate directory
+                    continue;
+                }
+            }
+            result.add(f);
+        }
+        return result;
+    }
+
     protected AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter) throws BackgroundException {
-        return this.list(directory, listener, delimiter, new HostPreferences(session.getHost()).getInteger("s3.listing.chunksize"));
+        final int chunksize = new HostPreferences(session.getHost()).getInteger("s3.listing.chunksize");
+        if(null == delimiter && concurrency > 1) {
+            return this.listPartitioned(directory, listener, chunksize);
+        }
+        return this.list(directory, listener, delimiter, chunksize);
     }
 
-    protected AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter, final int chunksize) throws BackgroundException {
+    /**
+     * List all keys with prefix without delimiter. When the first chunk is truncated, the remaining keys are listed
+     * with delimiter to fan out over common prefixes which are listed concurrently in the same way. The remaining keys
+     * of any truncated page are additionally split into ranges between markers sampled from the keys received to list
+     * flat prefixes concurrently. Each page received is passed to the listener in the order received and chunks are
+     * therefore not sorted by key. The result is sorted in key order when all pages are received.
+     */
+    protected AttributedList<Path> listPartitioned(final Path directory, final ListProgressListener listener, final int chunksize) throws BackgroundException {
+        final String prefix = this.createPrefix(directory);
+        final Path bucket = containerService.getContainer(directory);
+        final Page first = new Range(bucket, directory, prefix, null, null, null, chunksize).call();
+        final AttributedList<Path> objects = new AttributedList<>(first.objects);
+        if(first.ranges.isEmpty()) {
+            if(objects.isEmpty()) {
+                // Check for missing directory
+                return this.list(directory, listener, null, chunksize);
+            }
+            listener.chunk(directory, objects);
+            return objects;
+        }
+        listener.chunk(directory, objects);
+        final ThreadPool pool = ThreadPoolFactory.get("list", concurrency);
         try {
-            final String prefix = this.createPrefix(directory);
-            // If this optional, Unicode string parameter is included with your request,
-            // then keys that contain the same string between the prefix and the first
-            // occurrence of the delimiter will be rolled up into a single result
-            // element in the CommonPrefixes collection. These rolled-up keys are
-            // not returned elsewhere in the response.
-            final Path bucket = containerService.getContainer(directory);
-            final AttributedList<Path> objects = new AttributedList<>();
-            // Null if listing is complete
-            String priorLastKey = null;
-            boolean hasDirectoryPlaceholder = bucket.isRoot() || containerService.isContainer(directory);
-            do {
-                // Read directory listing in chunks. List results are always returned
-                // in lexicographic (alphabetical) order.
+            final CompletionService<Page> completion = new ExecutorCompletionService<>(pool.executor());
+            int pending = 0;
+            for(Range range : first.ranges) {
+                completion.submit(range);
+                pending++;
+            }
+            while(pending > 0) {
+                final Page page;
+                try {
+                    page = completion.take().get();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Listing objects failed with execution failure %s", e.getMessage()));
+                    Throwables.throwIfInstanceOf(Throwables.getRootCause(e), BackgroundException.class);
+                    throw new DefaultExceptionMappingService().map(Throwables.getRootCause(e));
+                }
+                pending--;
+                for(Range range : page.ranges) {
+                    completion.submit(range);
+                    pending++;
+                }
+                objects.addAll(page.objects);
+                listener.chunk(directory, objects);
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Sort %d objects listed concurrently in %s", objects.size(), directory));
+            }
+            // Common prefixes are listed out of order
+            return objects.filter(new Comparator<Path>() {
+                @Override
+                public int compare(final Path p1, final Path p2) {
+                    return toKey(p1).compareTo(toKey(p2));
+                }
+
+                private String toKey(final Path f) {
+                    return f.isDirectory() ? String.format("%s%s", f.getAbsolute(), Path.DELIMITER) : f.getAbsolute();
+                }
+            });
+        }
+        finally {
+            // Cancel pending requests
+            pool.shutdown(false);
+        }
+    }
+
+    /**
+     * Objects received in a single request and ranges of keys remaining to list
+     */
+    private static final class Page {
+        private final List<Path> objects = new ArrayList<>();
+        private final List<Range> ranges = new ArrayList<>();
+    }
+
+    /**
+     * Request for a single chunk of keys with prefix
+     */
+    private final class Range extends BackgroundExceptionCallable<Page> {
+        private final Path bucket;
+        private final Path directory;
+        private final String prefix;
+        /**
+         * Null to list all keys with prefix or delimiter to roll up keys into common prefixes
+         */
+        private final String delimiter;
+        /**
+         * Start after key or null
+         */
+        private final String marker;
+        /**
+         * Last key included in range or null to list all remaining keys
+         */
+        private final String end;
+        private final int chunksize;
+
+        public Range(final Path bucket, final Path directory, final String prefix, final String delimiter, final String marker, final String end, final int chunksize) {
+            this.bucket = bucket;
+            this.directory = directory;
+            this.prefix = prefix;
+            this.delimiter = delimiter;
+            this.marker = marker;
+            this.end = end;
+            this.chunksize = chunksize;
+        }
+
+        @Override
+        public Page call() throws BackgroundException {
+            final Page page = new Page();
+            try {
                 final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
                         bucket.isRoot() ? StringUtils.EMPTY : bucket.getName(), prefix, delimiter,
-                        chunksize, priorLastKey, false);
-
+                        chunksize, marker, false);
+                // Keys following are listed by the next range
+                boolean exceeded = false;
                 for(StorageObject object : chunk.getObjects()) {
-                    final String key = URIEncoder.decode(object.getKey());
-                    if(String.valueOf(Path.DELIMITER).equals(PathNormalizer.normalize(key))) {
-                        log.warn(String.format("Skipping prefix %s", key));
-                        continue;
+                    if(this.isExceeded(URIEncoder.decode(object.getKey()))) {
+                        exceeded = true;
+                        break;
+                    }
+                    final Path f = toPath(bucket, directory, object, null);
+                    if(null != f) {
+                        page.objects.add(f);
+                    }
+                }
+                for(String common : chunk.getCommonPrefixes()) {
+                    final String key = URIEncoder.decode(common);
+                    if(this.isExceeded(key)) {
+                        exceeded = true;
+                        break;
                     }
-                    if(new SimplePathPredicate(PathNormalizer.compose(bucket, key)).test(directory)) {
-                        // Placeholder object, skip
-                        hasDirectoryPlaceholder = true;
+                    if(String.valueOf(Path.DELIMITER).equals(key)) {
+                        log.warn(String.format("Skipping prefix %s", key));
                         continue;
                     }
-                    final EnumSet<Path.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
-                            ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
-                    final Path f;
-                    final PathAttributes attr = new S3AttributesAdapter().toAttributes(object);
-                    // Copy bucket location
-                    attr.setRegion(bucket.attributes().getRegion());
-                    if(null == delimiter) {
-                        f = new Path(String.format("%s/%s", bucket.getAbsolute(), key), types, attr);
+                    // Keys of common prefix including the last key listed before are only partially listed
+                    page.ranges.add(new Range(bucket, directory, key, null,
+                            null != marker && marker.startsWith(key) ? marker : null, null, chunksize));
+                }
+                if(null != chunk.getPriorLastKey() && !exceeded) {
+                    final String last = URIEncoder.decode(chunk.getPriorLastKey());
+                    if(null == delimiter && last.indexOf(Path.DELIMITER, prefix.length()) == last.length() - 1) {
+                        // Keys of common prefix are skipped when listing with delimiter after placeholder as marker
+                        page.ranges.add(new Range(bucket, directory, last, null, last, null, chunksize));
                     }
-                    else {
-                        f = new Path(directory.isDirectory() ? directory : directory.getParent(), PathNormalizer.name(key), types, attr);
+                    String first = last;
+                    if(chunk.getObjects().length > 0) {
+                        first = URIEncoder.decode(chunk.getObjects()[0].getKey());
                     }
-                    if(metadata) {
-                        f.withAttributes(attributes.find(f));
+                    if(chunk.getCommonPrefixes().length > 0) {
+                        final String common = URIEncoder.decode(chunk.getCommonPrefixes()[0]);
+                        if(common.compareTo(first) < 0) {
+                            first = common;
+                        }
                     }
-                    objects.add(f);
+                    // Continue with delimiter to fan out over common prefixes of remaining keys
+                    page.ranges.addAll(this.split(first, last));
                 }
-                final String[] prefixes = chunk.getCommonPrefixes();
-                for(String common : prefixes) {
-                    if(String.valueOf(Path.DELIMITER).equals(common)) {
-                        log.warn(String.format("Skipping prefix %s", common));
+                return page;
+            }
+            catch(ServiceException e) {
+                throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            }
+        }
+
+        /**
+         * @param key Key following marker
+         * @return True if key is after last key of this range
+         */
+        private boolean isExceeded(final String key) {
+            if(null == end) {
+                return false;
+            }
+            // Different prefix than the boundary is always after the end. Compare the last character of the boundary
+            // only which is in the same order for UTF-8 encoded keys
+            return !key.regionMatches(0, end, 0, end.length() - 1) || key.compareTo(end) > 0;
+        }
+
+        /**
+         * Split keys following the last key received into ranges. Markers are sampled from the same character class as
+         * the characters of the last key starting at the first character that differs from the first key received.
+         * Half of the remaining markers are kept for each shorter common prefix.
+         *
+         * @param first First key or common prefix received
+         * @param last  Last key or common prefix received
+         * @return Ranges covering all keys following the last key received up to the end of this range
+         */
+        private List<Range> split(final String first, final String last) {
+            final List<String> boundaries = new ArrayList<>();
+            int index = StringUtils.indexOfDifference(first, last);
+            if(StringUtils.INDEX_NOT_FOUND == index) {
+                index = last.length() - 1;
+            }
+            final int separator = last.indexOf(Path.DELIMITER, prefix.length());
+            if(separator != -1) {
+                // Keys with delimiter are rolled up into common prefixes
+                index = Math.min(index, separator);
+            }
+            index = Math.min(index, last.length() - 1);
+            for(int i = index; i >= prefix.length() && boundaries.size() < SPLIT; i--) {
+                final char c = last.charAt(i);
+                final int available = upper(c) - c;
+                if(available <= 0) {
+                    continue;
+                }
+                final int remaining = SPLIT - boundaries.size();
+                final int count = Math.min(available, i > prefix.length() ? (remaining + 1) / 2 : remaining);
+                for(int k = 1; k <= count; k++) {
+                    final char next = (char) (c + available * k / count);
+                    if(Path.DELIMITER == next) {
                         continue;
                     }
-                    final String key = PathNormalizer.normalize(URIEncoder.decode(common));
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
-                        continue;
+                    final String boundary = last.substring(0, i) + next;
+                    if(null != end && boundary.compareTo(end) >= 0) {
+                        break;
                     }
-                    final Path f;
-                    final PathAttributes attr = new PathAttributes();
-                    attr.setRegion(bucket.attributes().getRegion());
-                    if(null == delimiter) {
-                        f = new Path(String.format("%s/%s", bucket.getAbsolute(), key),
-                                EnumSet.of(Path.Type.directory, Path.Type.placeholder), attr);
+                    boundaries.add(boundary);
+                }
+            }
+            final List<Range> ranges = new ArrayList<>();
+            String marker = last;
+            for(String boundary : boundaries) {
+                ranges.add(new Range(bucket, directory, prefix, String.valueOf(Path.DELIMITER), marker, boundary, chunksize));
+                marker = boundary;
+            }
+            ranges.add(new Range(bucket, directory, prefix, String.valueOf(Path.DELIMITER), marker, end, chunksize));
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Split remaining keys after %s with prefix %s into %d ranges", last, prefix, ranges.size()));
+            }
+            return ranges;
+        }
+    }
+
+    /**
+     * @return Last character of the digits, lower or upper case letters or printable ASCII characters. Keys with
+     * characters outside of printable ASCII are listed in the last range.
+     */
+    private static char upper(final char c) {
+        if(c >= '0' && c <= '9') {
+            return '9';
+        }
+        if(c >= 'a' && c <= 'z') {
+            return 'z';
+        }
+        if(c >= 'A' && c <= 'Z') {
+            return 'Z';
+        }
+        return '~';
+    }
+
+    /**
+     * @return Null for directory placeholder of directory listed
+     */
+    private Path toPath(final Path bucket, final Path directory, final StorageObject object, final String delimiter) throws BackgroundException {
+        final String key = URIEncoder.decode(object.getKey());
+        if(String.valueOf(Path.DELIMITER).equals(PathNormalizer.normalize(key))) {
+            log.warn(String.format("Skipping prefix %s", key));
+            return null;
+        }
+        if(new SimplePathPredicate(PathNormalizer.compose(bucket, key)).test(directory)) {
+            // Placeholder object, skip
+            return null;
+        }
+        final EnumSet<Path.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
+                ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
+        final Path f;
+        final PathAttributes attr = new S3AttributesAdapter().toAttributes(object);
+        // Copy bucket location
+        attr.setRegion(bucket.attributes().getRegion());
+        if(null == delimiter) {
+            f = new Path(String.format("%s/%s", bucket.getAbsolute(), key), types, attr);
+        }
+        else {
+            f = new Path(directory.isDirectory() ? directory : directory.getParent(), PathNormalizer.name(key), types, attr);
+        }
+        if(metadata) {
+            f.withAttributes(attributes.find(f));
+        }
+        return f;
+    }
+
+    protected AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter, final int chunksize) throws BackgroundException {
+        try {
+            final String prefix = this.createPrefix(directory);
+            // If this optional, Unicode string parameter is included with your request,
+            // then keys that contain the same string between the prefix and the first
+            // occurrence of the delimiter will be rolled up into a single result
+            // element in the CommonPrefixes collection. These rolled-up keys are
+            // not returned elsewhere in the response.
+            final Path bucket = containerService.getContainer(directory);
+            final AttributedList<Path> objects = new AttributedList<>();
+            boolean hasDirectoryPlaceholder = bucket.isRoot() || containerService.isContainer(directory);
+            try (PrefetchingPager<StorageObjectsChunk> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<StorageObjectsChunk>() {
+                @Override
+                public StorageObjectsChunk fetch(final StorageObjectsChunk previous) throws BackgroundException {
+                    try {
+                        // Read directory listing in chunks. List results are always returned
+                        // in lexicographic (alphabetical) order.
+                        return session.getClient().listObjectsChunked(
+                                bucket.isRoot() ? StringUtils.EMPTY : bucket.getName(), prefix, delimiter,
+                                chunksize, null == previous ? null : URIEncoder.decode(previous.getPriorLastKey()), false);
                     }
-                    else {
-                        f = new Path(directory.isDirectory() ? directory : directory.getParent(), PathNormalizer.name(key),
-                                EnumSet.of(Path.Type.directory, Path.Type.placeholder), attr);
+                    catch(ServiceException e) {
+                        throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
                     }
-                    objects.add(f);
                 }
-                priorLastKey = null != chunk.getPriorLastKey() ? URIEncoder.decode(chunk.getPriorLastKey()) : null;
-                listener.chunk(directory, objects);
+
+                @Override
+                public boolean hasNext(final StorageObjectsChunk page) {
+                    // Null if listing is complete
+                    return null != page.getPriorLastKey();
+                }
+            })) {
+                while(pager.hasNext()) {
+                    final StorageObjectsChunk chunk = pager.next();
+                    for(StorageObject object : chunk.getObjects()) {
+                        final Path f = this.toPath(bucket, directory, object, delimiter);
+                        if(null == f) {
+                            if(new SimplePathPredicate(PathNormalizer.compose(bucket, URIEncoder.decode(object.getKey()))).test(directory)) {
+                                hasDirectoryPlaceholder = true;
+                            }
+                            continue;
+                        }
+                        objects.add(f);
+                    }
+                    final String[] prefixes = chunk.getCommonPrefixes();
+                    for(String common : prefixes) {
+                        if(String.valueOf(Path.DELIMITER).equals(common)) {
+                            log.warn(String.format("Skipping prefix %s", common));
+                            continue;
+                        }
+                        final String key = PathNormalizer.normalize(URIEncoder.decode(common));
+                        if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                            continue;
+                        }
+                        final Path f;
+                        final PathAttributes attr = new PathAttributes();
+                        attr.setRegion(bucket.attributes().getRegion());
+                        if(null == delimiter) {
+                            f = new Path(String.format("%s/%s", bucket.getAbsolute(), key),
+                                    EnumSet.of(Path.Type.directory, Path.Type.placeholder), attr);
+                        }
+                        else {
+                            f = new Path(directory.isDirectory() ? directory : directory.getParent(), PathNormalizer.name(key),
+                                    EnumSet.of(Path.Type.directory, Path.Type.placeholder), attr);
+                        }
+                        objects.add(f);
+                    }
+                    listener.chunk(directory, objects);
+                }
             }
-            while(priorLastKey != null);
             if(!hasDirectoryPlaceholder && objects.isEmpty()) {
                 // Only for AWS
                 if(S3Session.isAwsHostname(session.getHost().getHostname())) {
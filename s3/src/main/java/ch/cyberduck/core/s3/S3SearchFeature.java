@@ -22,6 +22,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.preferences.HostPreferences;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -45,20 +46,28 @@ public class S3SearchFeature implements Search {
                 final AttributedList<Path> result = new AttributedList<>();
                 final AttributedList<Path> buckets = new S3BucketListService(session, new S3LocationFeature.S3Region(session.getHost().getRegion())).list(workdir, listener);
                 for(Path bucket : buckets) {
-                    result.addAll(filter(regex, new S3ObjectListService(session, acl).list(bucket, listener, null)));
+                    result.addAll(filter(regex, this.list(bucket, listener)));
                 }
                 result.addAll(filter(regex, buckets));
                 return result;
             }
         }
         try {
-            return filter(regex, new S3ObjectListService(session, acl).list(workdir, listener, null));
+            return filter(regex, this.list(workdir, listener));
         }
         catch(NotfoundException e) {
             return AttributedList.emptyList();
         }
     }
 
+    /**
+     * List all keys with prefix in a single paginated listing without concurrent requests for common prefixes
+     */
+    private AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        return new S3ObjectListService(session, acl,
+                new HostPreferences(session.getHost()).getBoolean("s3.listing.metadata.enable"), 1).list(directory, listener, null);
+    }
+
     private static AttributedList<Path> filter(final Filter<Path> regex, final AttributedList<Path> objects) {
         final Set<Path> removal = new HashSet<>();
         for(final Path f : objects) {
@@ -93,6 +93,10 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
             = preferences.getBoolean("s3.versioning.enable") ? new S3VersioningFeature(this, acl) : null;
 
     private final Map<Path, Set<Distribution>> distributions = new ConcurrentHashMap<>();
+    /**
+     * Transfer acceleration determined for buckets in bulk feature
+     */
+    private final Map<Path, Boolean> accelerations = new ConcurrentHashMap<>();
 
     private S3Protocol.AuthenticationHeaderSignatureVersion authenticationHeaderSignatureVersion
             = S3Protocol.AuthenticationHeaderSignatureVersion.getDefault(host.getProtocol());
@@ -261,6 +265,21 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
                         }
                     }).call();
                 }
+
+                @Override
+                public boolean isRecursive(final Path directory) {
+                    return proxy.isRecursive(directory);
+                }
+
+                @Override
+                public AttributedList<Path> listRecursive(final Path directory, final ListProgressListener listener) throws BackgroundException {
+                    return new S3PathStyleFallbackAdapter<>(host, new BackgroundExceptionCallable<AttributedList<Path>>() {
+                        @Override
+                        public AttributedList<Path> call() throws BackgroundException {
+                            return proxy.listRecursive(directory, listener);
+                        }
+                    }).call();
+                }
             };
         }
         if(type == Read.class) {
@@ -401,7 +420,7 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
             if(preferences.getBoolean("s3.accelerate.enable")) {
                 // Only for AWS. Disable transfer acceleration for AWS GovCloud
                 if(host.getHostname().endsWith(preferences.getProperty("s3.hostname.default"))) {
-                    return (T) new S3BulkTransferAccelerationFeature(this, new S3TransferAccelerationService(this));
+                    return (T) new S3BulkTransferAccelerationFeature(this, new S3TransferAccelerationService(this), accelerations);
                 }
             }
             return (T) new DisabledBulkFeature();
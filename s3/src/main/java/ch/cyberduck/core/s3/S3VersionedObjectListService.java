@@ -22,6 +22,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
@@ -98,91 +99,104 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
             final String prefix = this.createPrefix(directory);
             final Path bucket = containerService.getContainer(directory);
             final AttributedList<Path> objects = new AttributedList<>();
-            String priorLastKey = null;
-            String priorLastVersionId = null;
             long revision = 0L;
             String lastKey = null;
             boolean hasDirectoryPlaceholder = bucket.isRoot() || containerService.isContainer(directory);
-            do {
-                final VersionOrDeleteMarkersChunk chunk = session.getClient().listVersionedObjectsChunked(
-                        bucket.isRoot() ? StringUtils.EMPTY : bucket.getName(), prefix, String.valueOf(Path.DELIMITER),
-                        new HostPreferences(session.getHost()).getInteger("s3.listing.chunksize"),
-                        priorLastKey, priorLastVersionId, false);
-                // Amazon S3 returns object versions in the order in which they were stored, with the most recently stored returned first.
-                for(BaseVersionOrDeleteMarker marker : chunk.getItems()) {
-                    final String key = URIEncoder.decode(marker.getKey());
-                    if(String.valueOf(Path.DELIMITER).equals(PathNormalizer.normalize(key))) {
-                        log.warn(String.format("Skipping prefix %s", key));
-                        continue;
-                    }
-                    if(new SimplePathPredicate(PathNormalizer.compose(bucket, key)).test(directory)) {
-                        // Placeholder object, skip
-                        hasDirectoryPlaceholder = true;
-                        continue;
-                    }
-                    final PathAttributes attr = new PathAttributes();
-                    attr.setVersionId(marker.getVersionId());
-                    if(!StringUtils.equals(lastKey, key)) {
-                        // Reset revision for next file
-                        revision = 0L;
+            try (PrefetchingPager<VersionOrDeleteMarkersChunk> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<VersionOrDeleteMarkersChunk>() {
+                @Override
+                public VersionOrDeleteMarkersChunk fetch(final VersionOrDeleteMarkersChunk previous) throws BackgroundException {
+                    try {
+                        return session.getClient().listVersionedObjectsChunked(
+                                bucket.isRoot() ? StringUtils.EMPTY : bucket.getName(), prefix, String.valueOf(Path.DELIMITER),
+                                new HostPreferences(session.getHost()).getInteger("s3.listing.chunksize"),
+                                null == previous ? null : URIEncoder.decode(previous.getNextKeyMarker()),
+                                null == previous ? null : previous.getNextVersionIdMarker(), false);
                     }
-                    attr.setRevision(++revision);
-                    attr.setDuplicate(marker.isDeleteMarker() && marker.isLatest() || !marker.isLatest());
-                    if(marker.isDeleteMarker()) {
-                        attr.setCustom(Collections.singletonMap(KEY_DELETE_MARKER, String.valueOf(true)));
+                    catch(ServiceException e) {
+                        throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
                     }
-                    attr.setModificationDate(marker.getLastModified().getTime());
-                    attr.setRegion(bucket.attributes().getRegion());
-                    if(marker instanceof S3Version) {
-                        final S3Version object = (S3Version) marker;
-                        attr.setSize(object.getSize());
-                        if(StringUtils.isNotBlank(object.getEtag())) {
-                            attr.setETag(StringUtils.remove(object.getEtag(), "\""));
-                            // The ETag will only be the MD5 of the object data when the object is stored as plaintext or encrypted
-                            // using SSE-S3. If the object is encrypted using another method (such as SSE-C or SSE-KMS) the ETag is
-                            // not the MD5 of the object data.
-                            attr.setChecksum(Checksum.parse(StringUtils.remove(object.getEtag(), "\"")));
+                }
+
+                @Override
+                public boolean hasNext(final VersionOrDeleteMarkersChunk page) {
+                    return null != page.getNextKeyMarker();
+                }
+            })) {
+                while(pager.hasNext()) {
+                    final VersionOrDeleteMarkersChunk chunk = pager.next();
+                    // Amazon S3 returns object versions in the order in which they were stored, with the most recently stored returned first.
+                    for(BaseVersionOrDeleteMarker marker : chunk.getItems()) {
+                        final String key = URIEncoder.decode(marker.getKey());
+                        if(String.valueOf(Path.DELIMITER).equals(PathNormalizer.normalize(key))) {
+                            log.warn(String.format("Skipping prefix %s", key));
+                            continue;
                         }
-                        if(StringUtils.isNotBlank(object.getStorageClass())) {
-                            attr.setStorageClass(object.getStorageClass());
+                        if(new SimplePathPredicate(PathNormalizer.compose(bucket, key)).test(directory)) {
+                            // Placeholder object, skip
+                            hasDirectoryPlaceholder = true;
+                            continue;
                         }
+                        final PathAttributes attr = new PathAttributes();
+                        attr.setVersionId(marker.getVersionId());
+                        if(!StringUtils.equals(lastKey, key)) {
+                            // Reset revision for next file
+                            revision = 0L;
+                        }
+                        attr.setRevision(++revision);
+                        attr.setDuplicate(marker.isDeleteMarker() && marker.isLatest() || !marker.isLatest());
+                        if(marker.isDeleteMarker()) {
+                            attr.setCustom(Collections.singletonMap(KEY_DELETE_MARKER, String.valueOf(true)));
+                        }
+                        attr.setModificationDate(marker.getLastModified().getTime());
+                        attr.setRegion(bucket.attributes().getRegion());
+                        if(marker instanceof S3Version) {
+                            final S3Version object = (S3Version) marker;
+                            attr.setSize(object.getSize());
+                            if(StringUtils.isNotBlank(object.getEtag())) {
+                                attr.setETag(StringUtils.remove(object.getEtag(), "\""));
+                                // The ETag will only be the MD5 of the object data when the object is stored as plaintext or encrypted
+                                // using SSE-S3. If the object is encrypted using another method (such as SSE-C or SSE-KMS) the ETag is
+                                // not the MD5 of the object data.
+                                attr.setChecksum(Checksum.parse(StringUtils.remove(object.getEtag(), "\"")));
+                            }
+                            if(StringUtils.isNotBlank(object.getStorageClass())) {
+                                attr.setStorageClass(object.getStorageClass());
+                            }
+                        }
+                        final Path f = new Path(directory.isDirectory() ? directory : directory.getParent(),
+                                PathNormalizer.name(key), EnumSet.of(Path.Type.file), attr);
+                        if(metadata) {
+                            f.withAttributes(attributes.find(f));
+                        }
+                        objects.add(f);
+                        lastKey = key;
                     }
-                    final Path f = new Path(directory.isDirectory() ? directory : directory.getParent(),
-                            PathNormalizer.name(key), EnumSet.of(Path.Type.file), attr);
-                    if(metadata) {
-                        f.withAttributes(attributes.find(f));
-                    }
-                    objects.add(f);
-                    lastKey = key;
-                }
-                final String[] prefixes = chunk.getCommonPrefixes();
-                final List<Future<Path>> folders = new ArrayList<>();
-                for(String common : prefixes) {
-                    if(String.valueOf(Path.DELIMITER).equals(common)) {
-                        log.warn(String.format("Skipping prefix %s", common));
-                        continue;
-                    }
-                    final String key = PathNormalizer.normalize(URIEncoder.decode(common));
-                    if(new SimplePathPredicate(new Path(bucket, key, EnumSet.of(Path.Type.directory))).test(directory)) {
-                        continue;
-                    }
-                    folders.add(this.submit(pool, bucket, directory, URIEncoder.decode(common)));
-                }
-                for(Future<Path> f : folders) {
-                    try {
-                        objects.add(Uninterruptibles.getUninterruptibly(f));
+                    final String[] prefixes = chunk.getCommonPrefixes();
+                    final List<Future<Path>> folders = new ArrayList<>();
+                    for(String common : prefixes) {
+                        if(String.valueOf(Path.DELIMITER).equals(common)) {
+                            log.warn(String.format("Skipping prefix %s", common));
+                            continue;
+                        }
+                        final String key = PathNormalizer.normalize(URIEncoder.decode(common));
+                        if(new SimplePathPredicate(new Path(bucket, key, EnumSet.of(Path.Type.directory))).test(directory)) {
+                            continue;
+                        }
+                        folders.add(this.submit(pool, bucket, directory, URIEncoder.decode(common)));
                     }
-                    catch(ExecutionException e) {
-                        log.warn(String.format("Listing versioned objects failed with execution failure %s", e.getMessage()));
-                        Throwables.throwIfInstanceOf(Throwables.getRootCause(e), BackgroundException.class);
-                        throw new DefaultExceptionMappingService().map(Throwables.getRootCause(e));
+                    for(Future<Path> f : folders) {
+                        try {
+                            objects.add(Uninterruptibles.getUninterruptibly(f));
+                        }
+                        catch(ExecutionException e) {
+                            log.warn(String.format("Listing versioned objects failed with execution failure %s", e.getMessage()));
+                            Throwables.throwIfInstanceOf(Throwables.getRootCause(e), BackgroundException.class);
+                            throw new DefaultExceptionMappingService().map(Throwables.getRootCause(e));
+                        }
                     }
+                    listener.chunk(directory, objects);
                 }
-                priorLastKey = null != chunk.getNextKeyMarker() ? URIEncoder.decode(chunk.getNextKeyMarker()) : null;
-                priorLastVersionId = chunk.getNextVersionIdMarker();
-                listener.chunk(directory, objects);
             }
-            while(priorLastKey != null);
             if(!hasDirectoryPlaceholder && objects.isEmpty()) {
                 // Only for AWS
                 if(S3Session.isAwsHostname(session.getHost().getHostname())) {
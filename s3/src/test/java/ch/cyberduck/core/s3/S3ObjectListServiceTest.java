@@ -37,6 +37,7 @@ import org.junit.experimental.categories.Category;
 
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -302,4 +303,28 @@ public class S3ObjectListServiceTest extends AbstractS3Test {
         new S3DefaultDeleteFeature(session).delete(Collections.singletonList(bucket), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
 
+    @Test
+    public void testListPartitioned() throws Exception {
+        final Path container = new Path("test-eu-central-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final S3AccessControlListFeature acl = new S3AccessControlListFeature(session);
+        final Path directory = new S3DirectoryFeature(session, new S3WriteFeature(session, acl), acl).mkdir(
+                new Path(container, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), new TransferStatus());
+        final Path sub = new S3DirectoryFeature(session, new S3WriteFeature(session, acl), acl).mkdir(
+                new Path(directory, "m", EnumSet.of(Path.Type.directory)), new TransferStatus());
+        final List<Path> files = new ArrayList<>();
+        for(String name : new String[]{"0", "1a", "3", "6", "60", "9", "B", "_", "a", "z~"}) {
+            files.add(new S3TouchFeature(session, acl).touch(new Path(directory, name, EnumSet.of(Path.Type.file)), new TransferStatus()));
+        }
+        files.add(new S3TouchFeature(session, acl).touch(new Path(sub, "f", EnumSet.of(Path.Type.file)), new TransferStatus()));
+        final S3ObjectListService service = new S3ObjectListService(session, acl, false, 4);
+        final AttributedList<Path> sequential = service.list(directory, new DisabledListProgressListener(), null, 1000);
+        final AttributedList<Path> partitioned = service.listPartitioned(directory, new DisabledListProgressListener(), 2);
+        assertEquals(12, sequential.size());
+        assertEquals(sequential.toList(), partitioned.toList());
+        // Placeholder is last key of every page
+        assertEquals(sequential.toList(), service.listPartitioned(directory, new DisabledListProgressListener(), 1).toList());
+        files.add(sub);
+        files.add(directory);
+        new S3DefaultDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
 }
@@ -94,6 +94,17 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
         return this;
     }
 
+    @Override
+    public boolean isIncremental() {
+        // Single job for all files
+        return false;
+    }
+
+    @Override
+    public boolean isPostProcessing() {
+        return false;
+    }
+
     @Override
     public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) {
         //
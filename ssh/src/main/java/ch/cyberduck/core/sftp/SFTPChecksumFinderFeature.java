@@ -0,0 +1,112 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.ChecksumFinder;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.preferences.HostPreferences;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * Hash of file computed by server with <code>check-file-name</code> extension
+ */
+public class SFTPChecksumFinderFeature implements ChecksumFinder {
+    private static final Logger log = LogManager.getLogger(SFTPChecksumFinderFeature.class);
+
+    public static final String EXTENSION = "check-file-name";
+
+    private final SFTPSession session;
+
+    public SFTPChecksumFinderFeature(final SFTPSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public Checksum find(final Path file) throws BackgroundException {
+        if(!session.isSupported(EXTENSION)) {
+            return Checksum.NONE;
+        }
+        try {
+            final SFTPEngine sftp = session.sftp();
+            final Response response = sftp.request(sftp.newExtendedRequest(EXTENSION)
+                            .putString(file.getAbsolute(), sftp.getSubsystem().getRemoteCharset())
+                            // Algorithms in order of preference
+                            .putString(new HostPreferences(session.getHost()).getProperty("sftp.checksum.algorithms"))
+                            // Hash of complete file
+                            .putUInt64(0L)
+                            .putUInt64(0L)
+                            .putUInt32(0L))
+                    .retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+            switch(response.getType()) {
+                case EXTENDED_REPLY:
+                    // Reply name
+                    response.readString();
+                    final String algorithm = response.readString();
+                    final byte[] hash = Arrays.copyOfRange(response.array(), response.rpos(), response.wpos());
+                    return this.toChecksum(algorithm, hash);
+                case STATUS:
+                    final Response.StatusCode status = response.readStatusCode();
+                    switch(status) {
+                        case OP_UNSUPPORTED:
+                        case BAD_MESSAGE:
+                        case FAILURE:
+                            // Generic failure replied by servers not implementing extension
+                            session.setUnsupported(EXTENSION);
+                            return Checksum.NONE;
+                    }
+                    // Fallback to compare with timestamp
+                    log.warn(String.format("Failure %s computing checksum for %s. %s", status, file, response.readString()));
+                    return Checksum.NONE;
+                default:
+                    throw new SFTPException(String.format("Unexpected packet %s", response.getType()));
+            }
+        }
+        catch(IOException e) {
+            throw new SFTPExceptionMappingService().map("Failure to read attributes of {0}", e, file);
+        }
+    }
+
+    protected Checksum toChecksum(final String algorithm, final byte[] hash) {
+        for(HashAlgorithm type : HashAlgorithm.values()) {
+            if(StringUtils.equalsIgnoreCase(type.name(), algorithm)) {
+                if(HashAlgorithm.crc32 == type) {
+                    // Same format as computed for local file
+                    return new Checksum(type, new BigInteger(1, hash).toString(16));
+                }
+                return new Checksum(type, Hex.encodeHexString(hash));
+            }
+        }
+        log.warn(String.format("Unsupported algorithm %s", algorithm));
+        return Checksum.NONE;
+    }
+}
@@ -0,0 +1,117 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Copy;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.shared.DefaultCopyFeature;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import net.schmizz.sshj.sftp.FileAttributes;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * Copy files on server with <code>copy-data</code> extension without transferring contents to the client
+ */
+public class SFTPCopyFeature implements Copy {
+    private static final Logger log = LogManager.getLogger(SFTPCopyFeature.class);
+
+    public static final String EXTENSION = "copy-data";
+
+    private final SFTPSession session;
+    private Session<?> to;
+
+    public SFTPCopyFeature(final SFTPSession session) {
+        this.session = session;
+        this.to = session;
+    }
+
+    @Override
+    public Path copy(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback, final StreamListener listener) throws BackgroundException {
+        if(session.isSupported(EXTENSION) && Objects.equals(session.getHost(), to.getHost())) {
+            try {
+                final SFTPEngine sftp = session.sftp();
+                try (SFTPFileHandle in = SFTPFileHandle.open(sftp, source.getAbsolute(), EnumSet.of(OpenMode.READ));
+                     // Existing contents are kept until the server confirms the copy
+                     SFTPFileHandle out = SFTPFileHandle.open(sftp, target.getAbsolute(), EnumSet.of(OpenMode.WRITE, OpenMode.CREAT))) {
+                    final Response response = sftp.request(sftp.newExtendedRequest(EXTENSION)
+                                    .putString(in.getHandle())
+                                    .putUInt64(0L)
+                                    // Copy until end of file
+                                    .putUInt64(0L)
+                                    .putString(out.getHandle())
+                                    .putUInt64(0L))
+                            .retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+                    final Response.StatusCode code = response.ensurePacketTypeIs(PacketType.STATUS).readStatusCode();
+                    switch(code) {
+                        case OK:
+                            // Discard remainder of previous contents longer than source
+                            sftp.request(sftp.newRequest(PacketType.FSETSTAT)
+                                            .putString(out.getHandle())
+                                            .putFileAttributes(new FileAttributes.Builder().withSize(this.stat(sftp, in).getSize()).build()))
+                                    .retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS).ensureStatusPacketIsOK();
+                            if(TransferStatus.UNKNOWN_LENGTH != status.getLength()) {
+                                listener.recv(status.getLength());
+                                listener.sent(status.getLength());
+                            }
+                            status.setComplete();
+                            return new Path(target).withAttributes(new SFTPAttributesFinderFeature(session).toAttributes(this.stat(sftp, out)));
+                        case OP_UNSUPPORTED:
+                        case BAD_MESSAGE:
+                            session.setUnsupported(EXTENSION);
+                            break;
+                        default:
+                            throw new SFTPException(code, response.readString());
+                    }
+                }
+            }
+            catch(IOException e) {
+                throw new SFTPExceptionMappingService().map("Cannot copy {0}", e, source);
+            }
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Copy %s to %s with read and write", source, target));
+        }
+        return new DefaultCopyFeature(session).withTarget(to).copy(source, target, status, callback, listener);
+    }
+
+    private FileAttributes stat(final SFTPEngine sftp, final SFTPFileHandle handle) throws IOException {
+        return sftp.request(sftp.newRequest(PacketType.FSTAT).putString(handle.getHandle()))
+                .retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS).ensurePacketTypeIs(PacketType.ATTRS).readFileAttributes();
+    }
+
+    @Override
+    public SFTPCopyFeature withTarget(final Session<?> session) {
+        to = session;
+        return this;
+    }
+}
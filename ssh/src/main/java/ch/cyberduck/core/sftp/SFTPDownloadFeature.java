@@ -0,0 +1,280 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.features.Download;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.preferences.PreferencesReader;
+import ch.cyberduck.core.shared.DefaultDownloadFeature;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.transfer.download.DownloadSegmentLocal;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.schmizz.concurrent.Promise;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * Download large files with read requests for different offsets outstanding at the same time on one or multiple
+ * SFTP channels. Responses are written at their offset in the target file in the order received. The number of
+ * outstanding requests adapts to the measured round trip time and throughput.
+ */
+public class SFTPDownloadFeature implements Download {
+    private static final Logger log = LogManager.getLogger(SFTPDownloadFeature.class);
+
+    private final SFTPSession session;
+    private final PreferencesReader preferences;
+
+    private Read reader;
+
+    public SFTPDownloadFeature(final SFTPSession session) {
+        this.session = session;
+        this.preferences = new HostPreferences(session.getHost());
+        this.reader = new SFTPReadFeature(session);
+    }
+
+    @Override
+    public void download(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                         final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(!(reader instanceof SFTPReadFeature)
+                || status.getLength() < preferences.getLong("sftp.read.parallel.threshold")
+                || status.isSegment() && !(local instanceof DownloadSegmentLocal)) {
+            // Small file, reader replaced by vault or separate segment file written from its start
+            new DefaultDownloadFeature(reader).download(file, local, throttle, listener, status, callback);
+            return;
+        }
+        final List<SFTPEngine> engines = new ArrayList<>();
+        final List<SFTPFileHandle> handles = new ArrayList<>();
+        try {
+            engines.add(session.sftp());
+            for(int i = 1; i < preferences.getInteger("sftp.read.parallel.channels"); i++) {
+                try {
+                    engines.add(session.toEngine(session.getClient()));
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure opening additional channel for download of %s. %s", file, e.getMessage()));
+                    break;
+                }
+            }
+            for(SFTPEngine engine : engines) {
+                handles.add(SFTPFileHandle.open(engine, file.getAbsolute(), EnumSet.of(OpenMode.READ)));
+            }
+            if(local instanceof DownloadSegmentLocal) {
+                // Sidecar must exist before any content is written
+                ((DownloadSegmentLocal) local).getBitmap().create();
+            }
+            final Object lock = this.lock(local);
+            try (FileChannel channel = this.open(local, status)) {
+                this.transfer(handles, channel, throttle, listener, status);
+            }
+            finally {
+                local.release(lock);
+            }
+        }
+        catch(IOException e) {
+            throw new SFTPExceptionMappingService().map("Download {0} failed", e, file);
+        }
+        finally {
+            for(SFTPFileHandle handle : handles) {
+                try {
+                    handle.close();
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure closing handle %s. %s", handle, e.getMessage()));
+                }
+            }
+            for(SFTPEngine engine : engines.subList(Math.min(1, engines.size()), engines.size())) {
+                try {
+                    engine.close();
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure closing channel %s. %s", engine, e.getMessage()));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Security scoped lock of local file or null
+     */
+    private Object lock(final Local local) {
+        try {
+            return local.lock(false);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", local, e));
+            return null;
+        }
+    }
+
+    private FileChannel open(final Local local, final TransferStatus status) throws LocalAccessDeniedException {
+        final Set<OpenOption> options = new HashSet<>();
+        options.add(StandardOpenOption.WRITE);
+        options.add(StandardOpenOption.CREATE);
+        if(!status.isSegment() && !status.isAppend()) {
+            options.add(StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        try {
+            return FileChannel.open(Paths.get(local.getAbsolute()), options);
+        }
+        catch(IOException | RuntimeException e) {
+            throw new LocalAccessDeniedException(String.format("Failure opening %s", local.getAbsolute()), e);
+        }
+    }
+
+    /**
+     * Read range of file given by offset and length in status. Short reads are requested again for the remaining
+     * length. Stops at end of file when the file is shorter than expected.
+     *
+     * @param handles Open file handle for each channel to distribute requests
+     * @param channel Target file written at the same offset as read from remote file
+     */
+    private void transfer(final List<SFTPFileHandle> handles, final FileChannel channel, final BandwidthThrottle throttle,
+                          final StreamListener listener, final TransferStatus status) throws IOException, BackgroundException {
+        final int chunksize = preferences.getInteger("connection.chunksize");
+        final SFTPReadWindow window = new SFTPReadWindow(chunksize,
+                preferences.getInteger("sftp.read.maxunconfirmed"), handles.size(),
+                preferences.getInteger("sftp.read.parallel.maxunconfirmed"));
+        final Deque<Pending> pending = new ArrayDeque<>();
+        // Remainder of short reads
+        final Deque<Range> retry = new ArrayDeque<>();
+        long next = status.getOffset();
+        long end = status.getOffset() + status.getLength();
+        int sequence = 0;
+        window.start(System.nanoTime());
+        while(!pending.isEmpty() || !retry.isEmpty() || next < end) {
+            status.validate();
+            while(pending.size() < window.get() && (!retry.isEmpty() || next < end)) {
+                final Range range;
+                if(retry.isEmpty()) {
+                    range = new Range(next, (int) Math.min(chunksize, end - next));
+                    next += range.length;
+                }
+                else {
+                    range = retry.poll();
+                }
+                final SFTPFileHandle handle = handles.get(sequence++ % handles.size());
+                pending.add(new Pending(range, System.nanoTime(), handle.getEngine().request(handle.getEngine().newRequest(PacketType.READ)
+                        .putString(handle.getHandle())
+                        .putUInt64(range.offset)
+                        .putUInt32(range.length))));
+            }
+            final Pending request = pending.poll();
+            final Response response = request.promise.retrieve(handles.get(0).getEngine().getTimeoutMs(), TimeUnit.MILLISECONDS);
+            final long now = System.nanoTime();
+            switch(response.getType()) {
+                case DATA:
+                    final int length = Math.min(response.readUInt32AsInt(), request.range.length);
+                    window.sample(length, now - request.sent, now);
+                    if(0 == length) {
+                        log.warn(String.format("Empty read at offset %d", request.range.offset));
+                        end = Math.min(end, request.range.offset);
+                        break;
+                    }
+                    for(int remaining = length; remaining > 0; ) {
+                        remaining -= throttle.request(remaining);
+                    }
+                    listener.recv(length);
+                    final ByteBuffer buffer = ByteBuffer.wrap(response.array(), response.rpos(), length);
+                    long position = request.range.offset;
+                    while(buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                    listener.sent(length);
+                    if(length < request.range.length) {
+                        retry.add(new Range(request.range.offset + length, request.range.length - length));
+                    }
+                    break;
+                case STATUS:
+                    response.ensureStatusIs(Response.StatusCode.EOF);
+                    if(request.range.offset < end) {
+                        log.warn(String.format("End of file reached at offset %d before expected length %d", request.range.offset, end));
+                        end = request.range.offset;
+                    }
+                    break;
+                default:
+                    throw new SFTPException(String.format("Unexpected packet %s", response.getType()));
+            }
+            // Discard remainder beyond end of file
+            final long limit = end;
+            retry.removeIf(range -> range.offset >= limit);
+        }
+        status.validate();
+        status.setComplete();
+    }
+
+    @Override
+    public boolean offset(final Path file) throws BackgroundException {
+        return reader.offset(file);
+    }
+
+    @Override
+    public Download withReader(final Read reader) {
+        this.reader = reader;
+        return this;
+    }
+
+    private static final class Range {
+        private final long offset;
+        private final int length;
+
+        public Range(final long offset, final int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static final class Pending {
+        private final Range range;
+        private final long sent;
+        private final Promise<Response, SFTPException> promise;
+
+        public Pending(final Range range, final long sent, final Promise<Response, SFTPException> promise) {
+            this.range = range;
+            this.sent = sent;
+            this.promise = promise;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.schmizz.sshj.sftp.FileAttributes;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.RemoteFile;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
+
+/**
+ * Open file with handle available to compose requests not supported by {@link RemoteFile}
+ */
+public final class SFTPFileHandle implements Closeable {
+
+    private final SFTPEngine engine;
+    private final String path;
+    private final byte[] handle;
+
+    /**
+     * @param engine SFTP channel
+     * @param path   Absolute path
+     * @param modes  Open flags
+     */
+    public static SFTPFileHandle open(final SFTPEngine engine, final String path, final Set<OpenMode> modes) throws IOException {
+        final Response response = engine.request(engine.newRequest(PacketType.OPEN)
+                        .putString(path, engine.getSubsystem().getRemoteCharset())
+                        .putUInt32(OpenMode.toMask(modes))
+                        .putFileAttributes(FileAttributes.EMPTY))
+                .retrieve(engine.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        response.ensurePacketTypeIs(PacketType.HANDLE);
+        return new SFTPFileHandle(engine, path, response.readBytes());
+    }
+
+    private SFTPFileHandle(final SFTPEngine engine, final String path, final byte[] handle) {
+        this.engine = engine;
+        this.path = path;
+        this.handle = handle;
+    }
+
+    public SFTPEngine getEngine() {
+        return engine;
+    }
+
+    public byte[] getHandle() {
+        return handle;
+    }
+
+    @Override
+    public void close() throws IOException {
+        new RemoteFile(engine, path, handle).close();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SFTPFileHandle{");
+        sb.append("path='").append(path).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -27,18 +27,33 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.HostPreferences;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import net.schmizz.concurrent.Promise;
 import net.schmizz.sshj.sftp.FileAttributes;
 import net.schmizz.sshj.sftp.FileMode;
+import net.schmizz.sshj.sftp.PacketType;
 import net.schmizz.sshj.sftp.RemoteDirectory;
 import net.schmizz.sshj.sftp.RemoteResourceFilter;
 import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
 import net.schmizz.sshj.sftp.SFTPException;
 
 public class SFTPListService implements ListService {
@@ -46,16 +61,28 @@ public class SFTPListService implements ListService {
 
     private final SFTPSession session;
     private final SFTPAttributesFinderFeature attributes;
+    /**
+     * Maximum number of outstanding requests to resolve symbolic links
+     */
+    private final Integer window;
 
     public SFTPListService(final SFTPSession session) {
+        this(session, new HostPreferences(session.getHost()).getInteger("sftp.listing.symlink.maxunconfirmed"));
+    }
+
+    public SFTPListService(final SFTPSession session, final Integer window) {
         this.session = session;
         this.attributes = new SFTPAttributesFinderFeature(session);
+        this.window = Math.max(1, window);
     }
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         final AttributedList<Path> children = new AttributedList<Path>();
         try (RemoteDirectory handle = session.sftp().openDir(directory.getAbsolute())) {
+            // All files in the order returned by the server
+            final List<Path> files = new ArrayList<>();
+            final List<Path> links = new ArrayList<>();
             for(RemoteResourceInfo f : handle.scan(new RemoteResourceFilter() {
                 @Override
                 public boolean accept(RemoteResourceInfo remoteResourceInfo) {
@@ -76,10 +103,27 @@ public class SFTPListService implements ListService {
                         break;
                 }
                 final Path file = new Path(directory, f.getName(), type, attr);
-                if(this.post(file)) {
-                    children.add(file);
-                    listener.chunk(directory, children);
+                files.add(file);
+                if(file.isSymbolicLink()) {
+                    // Resolve after scan with all requests pipelined
+                    links.add(file);
+                    continue;
                 }
+                children.add(file);
+                listener.chunk(directory, children);
+            }
+            if(!links.isEmpty()) {
+                final Set<Path> resolved = Collections.newSetFromMap(new IdentityHashMap<>());
+                resolved.addAll(this.post(links));
+                // Keep symbolic links at their original position in the listing
+                final AttributedList<Path> ordered = new AttributedList<Path>();
+                for(Path file : files) {
+                    if(!file.isSymbolicLink() || resolved.contains(file)) {
+                        ordered.add(file);
+                    }
+                }
+                listener.chunk(directory, ordered);
+                return ordered;
             }
             return children;
         }
@@ -88,21 +132,74 @@ public class SFTPListService implements ListService {
         }
     }
 
-    protected boolean post(final Path file) throws BackgroundException {
-        if(file.isSymbolicLink()) {
-            final Path target;
-            Path.Type type;
-            PathAttributes attr;
-            try {
-                final String link = session.sftp().readLink(file.getAbsolute());
+    /**
+     * Resolve target of symbolic links. Requests to read the link and to stat the target are sent without waiting
+     * for replies of previous requests with at most <code>window</code> requests outstanding.
+     *
+     * @param links Symbolic links
+     * @return Symbolic links with target set. Excludes links that cannot be read.
+     */
+    protected List<Path> post(final List<Path> links) throws BackgroundException {
+        final SFTPEngine sftp = session.sftp();
+        final List<Path> resolved = new ArrayList<>(links.size());
+        if(sftp.getOperativeProtocolVersion() < 3) {
+            log.warn(String.format("READLINK is not supported in SFTPv%d", sftp.getOperativeProtocolVersion()));
+            return resolved;
+        }
+        final Charset charset = sftp.getSubsystem().getRemoteCharset();
+        // Requests in the order sent
+        final Deque<Pending> pending = new ArrayDeque<>();
+        final Iterator<Path> iter = links.iterator();
+        while(iter.hasNext() || !pending.isEmpty()) {
+            while(iter.hasNext() && pending.size() < window) {
+                final Path file = iter.next();
+                try {
+                    pending.add(new Pending(file, null, sftp.request(
+                            sftp.newRequest(PacketType.READLINK).putString(file.getAbsolute(), charset))));
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
+                }
+            }
+            if(pending.isEmpty()) {
+                continue;
+            }
+            final Pending next = pending.remove();
+            if(null == next.target) {
+                final String link;
+                try {
+                    final Response response = next.promise.retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+                    response.ensurePacketTypeIs(PacketType.NAME);
+                    if(response.readUInt32AsInt() != 1) {
+                        throw new SFTPException(String.format("Unexpected data in %s packet", response.getType()));
+                    }
+                    link = response.readString(charset);
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure to read symbolic link of %s. %s", next.file, e.getMessage()));
+                    continue;
+                }
+                final Path target;
                 if(link.startsWith(String.valueOf(Path.DELIMITER))) {
                     target = new Path(PathNormalizer.normalize(link), EnumSet.of(Path.Type.file));
                 }
                 else {
-                    target = new Path(PathNormalizer.normalize(String.format("%s/%s", file.getParent().getAbsolute(), link)), EnumSet.of(Path.Type.file));
+                    target = new Path(PathNormalizer.normalize(String.format("%s/%s", next.file.getParent().getAbsolute(), link)), EnumSet.of(Path.Type.file));
+                }
+                try {
+                    pending.add(new Pending(next.file, target, sftp.request(
+                            sftp.newRequest(PacketType.STAT).putString(target.getAbsolute(), charset))));
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure to read symbolic link of %s. %s", next.file, e.getMessage()));
                 }
+            }
+            else {
+                Path.Type type;
+                PathAttributes attr;
                 try {
-                    final FileAttributes stat = session.sftp().stat(target.getAbsolute());
+                    final FileAttributes stat = next.promise.retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                            .ensurePacketTypeIs(PacketType.ATTRS).readFileAttributes();
                     if(stat.getType().equals(FileMode.Type.DIRECTORY)) {
                         type = Path.Type.directory;
                     }
@@ -114,31 +211,47 @@ public class SFTPListService implements ListService {
                 catch(SFTPException e) {
                     final BackgroundException reason = new SFTPExceptionMappingService().map(e);
                     if(reason instanceof NotfoundException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                        log.warn(String.format("Cannot find symbolic link target of %s. %s", next.file, reason.toString()));
                     }
                     else if(reason instanceof AccessDeniedException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                        log.warn(String.format("Cannot find symbolic link target of %s. %s", next.file, reason.toString()));
                     }
                     else if(reason instanceof InteroperabilityException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                        log.warn(String.format("Cannot find symbolic link target of %s. %s", next.file, reason.toString()));
                     }
                     else {
-                        log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
+                        log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", next.file, reason.toString()));
                         throw reason;
                     }
                     type = Path.Type.file;
                     attr = PathAttributes.EMPTY;
                 }
-                file.setType(EnumSet.of(Path.Type.symboliclink, type));
-                target.setType(EnumSet.of(type));
-                target.setAttributes(attr);
-                file.setSymlinkTarget(target);
-            }
-            catch(IOException e) {
-                log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
-                return false;
+                catch(IOException e) {
+                    log.warn(String.format("Failure to read symbolic link of %s. %s", next.file, e.getMessage()));
+                    continue;
+                }
+                next.file.setType(EnumSet.of(Path.Type.symboliclink, type));
+                next.target.setType(EnumSet.of(type));
+                next.target.setAttributes(attr);
+                next.file.setSymlinkTarget(next.target);
+                resolved.add(next.file);
             }
         }
-        return true;
+        return resolved;
+    }
+
+    private static final class Pending {
+        private final Path file;
+        /**
+         * Null while reading the link
+         */
+        private final Path target;
+        private final Promise<Response, SFTPException> promise;
+
+        public Pending(final Path file, final Path target, final Promise<Response, SFTPException> promise) {
+            this.file = file;
+            this.target = target;
+            this.promise = promise;
+        }
     }
 }
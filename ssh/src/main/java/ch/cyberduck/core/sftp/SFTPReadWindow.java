@@ -0,0 +1,106 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Number of outstanding read requests adapted to the measured bandwidth-delay product. After each round of
+ * responses the window is set to twice the number of requests in flight required to sustain the measured throughput
+ * at the minimum round trip time observed. The window grows while round trip times stay close to the minimum and
+ * settles when responses are delayed by requests queued at the server or on the link.
+ */
+public class SFTPReadWindow {
+    private static final Logger log = LogManager.getLogger(SFTPReadWindow.class);
+
+    private final int chunksize;
+    private final int min;
+    private final int max;
+
+    private int window;
+
+    /**
+     * Minimum round trip time in nanoseconds observed
+     */
+    private long rtt = Long.MAX_VALUE;
+
+    /**
+     * Start of current round in nanoseconds
+     */
+    private long start = -1L;
+    private long bytes;
+    private int responses;
+
+    /**
+     * @param chunksize Length requested with each read
+     * @param initial   Initial number of outstanding requests
+     * @param min       Minimum number of outstanding requests
+     * @param max       Maximum number of outstanding requests
+     */
+    public SFTPReadWindow(final int chunksize, final int initial, final int min, final int max) {
+        this.chunksize = chunksize;
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.window = Math.min(Math.max(this.min, initial), this.max);
+    }
+
+    /**
+     * @return Number of requests to keep outstanding
+     */
+    public int get() {
+        return window;
+    }
+
+    /**
+     * @param start Time in nanoseconds when first request is sent
+     */
+    public void start(final long start) {
+        this.start = start;
+    }
+
+    /**
+     * @param received Number of bytes in response
+     * @param rtt      Nanoseconds between sending request and receiving response
+     * @param now      Time in nanoseconds when response is received
+     */
+    public void sample(final int received, final long rtt, final long now) {
+        if(-1L == start) {
+            start = now - rtt;
+        }
+        this.rtt = Math.min(this.rtt, Math.max(1L, rtt));
+        bytes += received;
+        if(++responses < window) {
+            return;
+        }
+        final long elapsed = now - start;
+        if(elapsed > 0) {
+            // Bytes per nanosecond multiplied with round trip time
+            final double bdp = (double) bytes / elapsed * this.rtt;
+            final int target = (int) Math.min(max, Math.max(min, Math.ceil(2 * bdp / chunksize)));
+            if(target != window) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Set window from %d to %d for %d bytes in %dms with minimum round trip time %dms",
+                            window, target, bytes, elapsed / 1000000L, this.rtt / 1000000L));
+                }
+                window = target;
+            }
+        }
+        start = now;
+        bytes = 0L;
+        responses = 0;
+    }
+}
@@ -65,6 +65,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.jcraft.jsch.agentproxy.AgentProxyException;
 import net.schmizz.concurrent.Promise;
@@ -94,7 +96,25 @@ public class SFTPSession extends Session<SSHClient> {
 
     private final PreferencesReader preferences = new HostPreferences(host);
 
+    private final SSHConnectionRegistry registry = SSHConnectionRegistry.get();
+
     private SFTPEngine sftp;
+    /**
+     * Extended requests rejected by server
+     */
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+    /**
+     * Connection is registered to open channels for other sessions
+     */
+    private boolean shared;
+    /**
+     * Other sessions wait for this connection to be registered
+     */
+    private boolean pending;
+    /**
+     * Username and server of shared connection
+     */
+    private String registryKey;
     private StateDisconnectListener disconnectListener;
     private NegotiatedAlgorithms algorithms;
 
@@ -136,7 +156,52 @@ public class SFTPSession extends Session<SSHClient> {
             heartbeat = KeepAliveProvider.HEARTBEAT;
         }
         configuration.setKeepAliveProvider(heartbeat);
-        return this.connect(key, prompt, configuration);
+        if(preferences.getBoolean("sftp.multiplex.enable")) {
+            registryKey = String.format("%s@%s:%d", host.getCredentials().getUsername(), host.getHostname(), host.getPort());
+            SSHClient connection;
+            while(null != (connection = registry.acquire(registryKey, preferences.getInteger("sftp.multiplex.channels"),
+                    ConnectionTimeoutFactory.get(preferences).getTimeout() * 1000L))) {
+                try {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Open channel on shared connection %s", connection));
+                    }
+                    sftp = this.toEngine(connection);
+                    shared = true;
+                    return connection;
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure opening channel on shared connection %s. %s", connection, e.getMessage()));
+                    registry.exhausted(registryKey, connection);
+                }
+            }
+            pending = true;
+        }
+        try {
+            return this.connect(key, prompt, configuration);
+        }
+        catch(BackgroundException e) {
+            this.cancel();
+            throw e;
+        }
+    }
+
+    /**
+     * Open SFTP subsystem channel on connection
+     */
+    protected SFTPEngine toEngine(final SSHClient client) throws IOException {
+        final SFTPEngine engine = new LoggingSFTPEngine(client, this).init();
+        engine.setTimeoutMs(ConnectionTimeoutFactory.get(preferences).getTimeout() * 1000);
+        return engine;
+    }
+
+    /**
+     * Stop other sessions waiting for this connection to be shared
+     */
+    private void cancel() {
+        if(pending) {
+            registry.cancel(registryKey);
+            pending = false;
+        }
     }
 
     protected SSHClient connect(final HostKeyCallback key, final LoginCallback prompt, final Config configuration) throws BackgroundException {
@@ -254,14 +319,22 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public void login(final Proxy proxy, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
+        if(shared) {
+            // Channel opened on connection already authenticated
+            return;
+        }
         this.authenticate(client, host, prompt, cancel);
         try {
-            sftp = new LoggingSFTPEngine(client, this).init();
-            sftp.setTimeoutMs(ConnectionTimeoutFactory.get(preferences).getTimeout() * 1000);
+            sftp = this.toEngine(client);
         }
         catch(IOException e) {
             throw new SFTPExceptionMappingService().map(e);
         }
+        if(pending) {
+            registry.register(registryKey, client);
+            pending = false;
+            shared = true;
+        }
     }
 
     private void authenticate(final SSHClient client, final Host host, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
@@ -414,6 +487,24 @@ public class SFTPSession extends Session<SSHClient> {
         return sftp;
     }
 
+    /**
+     * @param extension Name of extended request
+     * @return False if server replied before that extended request is not supported
+     */
+    public boolean isSupported(final String extension) {
+        return !unsupported.contains(extension);
+    }
+
+    /**
+     * Skip extended request not supported by server in subsequent operations
+     *
+     * @param extension Name of extended request
+     */
+    public void setUnsupported(final String extension) {
+        log.warn(String.format("Extended request %s not supported by server", extension));
+        unsupported.add(extension);
+    }
+
     @Override
     protected void logout() throws BackgroundException {
         try {
@@ -429,11 +520,27 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public void disconnect() {
-        try {
-            client.close();
+        if(shared) {
+            // Close channel only and keep connection for other sessions
+            try {
+                if(sftp != null) {
+                    sftp.close();
+                }
+            }
+            catch(IOException e) {
+                log.warn(String.format("Ignore failure closing channel %s", e.getMessage()));
+            }
+            registry.release(registryKey, client);
+            shared = false;
         }
-        catch(IOException e) {
-            log.warn(String.format("Ignore disconnect failure %s", e.getMessage()));
+        else {
+            this.cancel();
+            try {
+                client.close();
+            }
+            catch(IOException e) {
+                log.warn(String.format("Ignore disconnect failure %s", e.getMessage()));
+            }
         }
         super.disconnect();
     }
@@ -453,6 +560,18 @@ public class SFTPSession extends Session<SSHClient> {
         if(type == Read.class) {
             return (T) new SFTPReadFeature(this);
         }
+        if(type == Download.class) {
+            return (T) new SFTPDownloadFeature(this);
+        }
+        if(type == Copy.class) {
+            return (T) new SFTPCopyFeature(this);
+        }
+        if(type == ChecksumFinder.class) {
+            if(preferences.getBoolean("sftp.checksum.enable")) {
+                return (T) new SFTPChecksumFinderFeature(this);
+            }
+            return null;
+        }
         if(type == Write.class) {
             return (T) new SFTPWriteFeature(this);
         }
@@ -0,0 +1,182 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import net.schmizz.sshj.SSHClient;
+
+/**
+ * Authenticated SSH connections shared by sessions to the same server. Each session opens its own SFTP subsystem
+ * channel on a shared connection. A connection is closed when released by the last session using it.
+ */
+public final class SSHConnectionRegistry {
+    private static final Logger log = LogManager.getLogger(SSHConnectionRegistry.class);
+
+    private static final SSHConnectionRegistry global = new SSHConnectionRegistry();
+
+    public static SSHConnectionRegistry get() {
+        return global;
+    }
+
+    /**
+     * Guarded by this monitor
+     */
+    private final Map<String, List<Shared>> connections = new HashMap<>();
+    /**
+     * Number of connections being opened and authenticated by key. Guarded by this monitor
+     */
+    private final Map<String, Integer> pending = new HashMap<>();
+
+    /**
+     * Find connection with channels available. Waits for connections with the same key currently being opened
+     * by other sessions.
+     *
+     * @param key      Username and server
+     * @param channels Maximum number of sessions sharing a connection
+     * @param timeout  Maximum time in milliseconds to wait for a connection being opened
+     * @return Null if the caller must open a new connection and either register it when authenticated or cancel
+     */
+    public synchronized SSHClient acquire(final String key, final int channels, final long timeout) {
+        final long deadline = System.currentTimeMillis() + timeout;
+        while(true) {
+            final List<Shared> list = connections.getOrDefault(key, new ArrayList<>());
+            for(Iterator<Shared> iter = list.iterator(); iter.hasNext(); ) {
+                final Shared shared = iter.next();
+                if(!shared.client.isConnected()) {
+                    log.warn(String.format("Remove disconnected %s", shared.client));
+                    iter.remove();
+                    continue;
+                }
+                if(shared.references < Math.min(channels, shared.capacity)) {
+                    shared.references++;
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Acquired connection %s with %d references", shared.client, shared.references));
+                    }
+                    return shared.client;
+                }
+            }
+            final int opening = pending.getOrDefault(key, 0);
+            final long remaining = deadline - System.currentTimeMillis();
+            if(0 == opening || remaining <= 0) {
+                pending.put(key, opening + 1);
+                return null;
+            }
+            try {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Wait for connection for %s being opened", key));
+                }
+                this.wait(remaining);
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.put(key, opening + 1);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Share authenticated connection opened after {@link #acquire(String, int, long)} returned null
+     */
+    public synchronized void register(final String key, final SSHClient client) {
+        this.cancel(key);
+        connections.computeIfAbsent(key, k -> new ArrayList<>()).add(new Shared(client));
+    }
+
+    /**
+     * Failure opening connection after {@link #acquire(String, int, long)} returned null
+     */
+    public synchronized void cancel(final String key) {
+        final int opening = pending.getOrDefault(key, 0);
+        if(opening <= 1) {
+            pending.remove(key);
+        }
+        else {
+            pending.put(key, opening - 1);
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Opening a channel on the connection failed. Do not share the connection with more sessions than currently
+     * using it.
+     */
+    public synchronized void exhausted(final String key, final SSHClient client) {
+        for(Shared shared : connections.getOrDefault(key, new ArrayList<>())) {
+            if(shared.client == client) {
+                shared.capacity = shared.references - 1;
+                log.warn(String.format("Limit connection %s to %d channels", client, shared.capacity));
+            }
+        }
+        this.release(key, client);
+    }
+
+    /**
+     * Close connection if no longer used by any session
+     */
+    public synchronized void release(final String key, final SSHClient client) {
+        final List<Shared> list = connections.getOrDefault(key, new ArrayList<>());
+        for(Iterator<Shared> iter = list.iterator(); iter.hasNext(); ) {
+            final Shared shared = iter.next();
+            if(shared.client == client) {
+                if(--shared.references > 0) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Keep connection %s with %d references", client, shared.references));
+                    }
+                    this.notifyAll();
+                    return;
+                }
+                iter.remove();
+                break;
+            }
+        }
+        if(list.isEmpty()) {
+            connections.remove(key);
+        }
+        try {
+            client.close();
+        }
+        catch(IOException e) {
+            log.warn(String.format("Ignore disconnect failure %s", e.getMessage()));
+        }
+        this.notifyAll();
+    }
+
+    private static final class Shared {
+        private final SSHClient client;
+        /**
+         * Number of sessions using connection
+         */
+        private int references = 1;
+        /**
+         * Maximum number of channels accepted by server
+         */
+        private int capacity = Integer.MAX_VALUE;
+
+        public Shared(final SSHClient client) {
+            this.client = client;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(IntegrationTest.class)
+public class SFTPCopyFeatureTest extends AbstractSFTPTest {
+
+    @Test
+    public void testCopy() throws Exception {
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path source = new Path(home, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final Path target = new Path(home, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final byte[] content = RandomUtils.nextBytes(39865);
+        {
+            final TransferStatus status = new TransferStatus().withLength(content.length);
+            final OutputStream out = new SFTPWriteFeature(session).write(source, status, new DisabledConnectionCallback());
+            new StreamCopier(status, status).withLimit((long) content.length).transfer(new ByteArrayInputStream(content), out);
+            out.close();
+        }
+        final Path copy = new SFTPCopyFeature(session).copy(source, target, new TransferStatus().withLength(content.length), new DisabledConnectionCallback(), new DisabledStreamListener());
+        assertEquals(content.length, copy.attributes().getSize());
+        assertTrue(new SFTPFindFeature(session).find(source));
+        assertTrue(new SFTPFindFeature(session).find(target));
+        final byte[] buffer = new byte[content.length];
+        try (InputStream in = new SFTPReadFeature(session).read(target, new TransferStatus().withLength(content.length), new DisabledConnectionCallback())) {
+            IOUtils.readFully(in, buffer);
+        }
+        assertArrayEquals(content, buffer);
+        new SFTPDeleteFeature(session).delete(Arrays.asList(source, target), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
+    @Test
+    public void testCopyOverwriteLonger() throws Exception {
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path source = new Path(home, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final Path target = new Path(home, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final byte[] content = RandomUtils.nextBytes(1023);
+        {
+            final TransferStatus status = new TransferStatus().withLength(content.length);
+            final OutputStream out = new SFTPWriteFeature(session).write(source, status, new DisabledConnectionCallback());
+            new StreamCopier(status, status).withLimit((long) content.length).transfer(new ByteArrayInputStream(content), out);
+            out.close();
+        }
+        {
+            final byte[] previous = RandomUtils.nextBytes(2048);
+            final TransferStatus status = new TransferStatus().withLength(previous.length);
+            final OutputStream out = new SFTPWriteFeature(session).write(target, status, new DisabledConnectionCallback());
+            new StreamCopier(status, status).withLimit((long) previous.length).transfer(new ByteArrayInputStream(previous), out);
+            out.close();
+        }
+        final Path copy = new SFTPCopyFeature(session).copy(source, target, new TransferStatus().withLength(content.length).exists(true), new DisabledConnectionCallback(), new DisabledStreamListener());
+        assertEquals(content.length, copy.attributes().getSize());
+        assertEquals(content.length, new SFTPAttributesFinderFeature(session).find(target).getSize());
+        final byte[] buffer = new byte[content.length];
+        try (InputStream in = new SFTPReadFeature(session).read(target, new TransferStatus().withLength(content.length), new DisabledConnectionCallback())) {
+            IOUtils.readFully(in, buffer);
+        }
+        assertArrayEquals(content, buffer);
+        new SFTPDeleteFeature(session).delete(Arrays.asList(source, target), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+}
@@ -0,0 +1,120 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(IntegrationTest.class)
+public class SFTPDownloadFeatureTest extends AbstractSFTPTest {
+
+    @Before
+    public void parallel() {
+        session.getHost().setProperty("sftp.read.parallel.threshold", String.valueOf(0L));
+        session.getHost().setProperty("sftp.read.parallel.channels", String.valueOf(2));
+    }
+
+    @Test
+    public void testDownload() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1048576 + 1);
+        final Path test = this.upload(content);
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final AtomicLong received = new AtomicLong();
+        final TransferStatus status = new TransferStatus().withLength(content.length);
+        new SFTPDownloadFeature(session).download(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener() {
+            @Override
+            public void recv(final long bytes) {
+                received.addAndGet(bytes);
+            }
+        }, status, new DisabledConnectionCallback());
+        assertTrue(status.isComplete());
+        assertEquals(content.length, received.get());
+        assertArrayEquals(content, this.read(local, content.length));
+        local.delete();
+        new SFTPDeleteFeature(session).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
+    @Test
+    public void testDownloadAppend() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(39865);
+        final Path test = this.upload(content);
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        new SFTPDownloadFeature(session).download(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(),
+            new TransferStatus().withLength(content.length / 2), new DisabledConnectionCallback());
+        new SFTPDownloadFeature(session).download(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(),
+            new TransferStatus().withLength(content.length - content.length / 2).withOffset(content.length / 2).append(true), new DisabledConnectionCallback());
+        assertArrayEquals(content, this.read(local, content.length));
+        local.delete();
+        new SFTPDeleteFeature(session).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
+    @Test
+    public void testDownloadEndOfFile() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(100000);
+        final Path test = this.upload(content);
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        // Expected length exceeds file size
+        new SFTPDownloadFeature(session).download(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(),
+            new TransferStatus().withLength(content.length * 2), new DisabledConnectionCallback());
+        assertEquals(content.length, local.attributes().getSize());
+        assertArrayEquals(content, this.read(local, content.length));
+        local.delete();
+        new SFTPDeleteFeature(session).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
+    private Path upload(final byte[] content) throws Exception {
+        final Path test = new Path(new SFTPHomeDirectoryService(session).find(), UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final TransferStatus status = new TransferStatus().withLength(content.length);
+        final OutputStream out = new SFTPWriteFeature(session).write(test, status, new DisabledConnectionCallback());
+        new StreamCopier(status, status).withLimit((long) content.length).transfer(new ByteArrayInputStream(content), out);
+        out.close();
+        return test;
+    }
+
+    private byte[] read(final Local local, final int length) throws Exception {
+        final byte[] buffer = new byte[length];
+        try (InputStream in = local.getInputStream()) {
+            IOUtils.readFully(in, buffer);
+        }
+        return buffer;
+    }
+}
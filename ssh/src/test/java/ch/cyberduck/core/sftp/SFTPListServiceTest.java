@@ -34,10 +34,16 @@ import ch.cyberduck.test.IntegrationTest;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+
+import net.schmizz.sshj.sftp.RemoteDirectory;
+import net.schmizz.sshj.sftp.RemoteResourceInfo;
 
 import static org.junit.Assert.*;
 
@@ -83,6 +89,41 @@ public class SFTPListServiceTest extends AbstractSFTPTest {
         new SFTPDeleteFeature(session).delete(Collections.<Path>singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
 
+    @Test
+    public void testListSymlinksPipelined() throws Exception {
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new SFTPDirectoryFeature(session).mkdir(new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), new TransferStatus());
+        final Path file = new SFTPTouchFeature(session).touch(new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        final List<Path> links = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            final Path link = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+            new SFTPSymlinkFeature(session).symlink(link, file.getName());
+            links.add(link);
+        }
+        final Path invalid = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+        new SFTPSymlinkFeature(session).symlink(invalid, new AlphanumericRandomStringService().random());
+        final AttributedList<Path> list = new SFTPListService(session, 3).list(directory, new DisabledListProgressListener());
+        assertEquals(12, list.size());
+        for(Path link : links) {
+            assertTrue(list.contains(link));
+            assertEquals(file, list.get(link).getSymlinkTarget());
+        }
+        assertTrue(list.contains(invalid));
+        assertNotNull(list.get(invalid).getSymlinkTarget());
+        // Order returned by server is preserved
+        try (RemoteDirectory handle = session.sftp().openDir(directory.getAbsolute())) {
+            final List<String> names = new ArrayList<>();
+            for(RemoteResourceInfo f : handle.scan(info -> true)) {
+                names.add(f.getName());
+            }
+            assertEquals(names, list.toStream().map(Path::getName).collect(Collectors.toList()));
+        }
+        links.add(invalid);
+        links.add(file);
+        links.add(directory);
+        new SFTPDeleteFeature(session).delete(links, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
     @Test(expected = NotfoundException.class)
     public void testListNotfound() throws Exception {
         final Path f = new Path(UUID.randomUUID().toString(), EnumSet.of(Path.Type.directory));
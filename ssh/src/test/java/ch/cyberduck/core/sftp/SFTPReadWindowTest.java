@@ -0,0 +1,85 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SFTPReadWindowTest {
+
+    private static final int CHUNKSIZE = 32768;
+
+    @Test
+    public void testGrowToMaximum() {
+        final SFTPReadWindow window = new SFTPReadWindow(CHUNKSIZE, 16, 1, 256);
+        // Link with unlimited capacity
+        this.simulate(window, Long.MAX_VALUE, TimeUnit.MILLISECONDS.toNanos(50L), 20);
+        assertEquals(256, window.get());
+    }
+
+    @Test
+    public void testConvergeToBandwidthDelayProduct() {
+        final SFTPReadWindow window = new SFTPReadWindow(CHUNKSIZE, 16, 1, 4096);
+        // 100MB/s with 50ms round trip time
+        final long capacity = 100L * 1024 * 1024;
+        final long rtt = TimeUnit.MILLISECONDS.toNanos(50L);
+        this.simulate(window, capacity, rtt, 50);
+        final long bdp = capacity * rtt / TimeUnit.SECONDS.toNanos(1L) / CHUNKSIZE;
+        assertTrue(window.get() >= bdp);
+        // Headroom of twice the bandwidth-delay product including serialization delay
+        assertTrue(window.get() <= 2 * bdp + 2);
+    }
+
+    @Test
+    public void testShrinkWhenQueued() {
+        final SFTPReadWindow window = new SFTPReadWindow(CHUNKSIZE, 256, 4, 256);
+        // 1MB/s with 10ms round trip time requires single request in flight
+        this.simulate(window, 1024L * 1024, TimeUnit.MILLISECONDS.toNanos(10L), 20);
+        assertEquals(4, window.get());
+    }
+
+    /**
+     * Requests of first round are sent at once and queued on the link. In following rounds a request is sent
+     * whenever a response is received.
+     *
+     * @param capacity Bytes per second
+     * @param base     Round trip time without queuing in nanoseconds
+     */
+    private void simulate(final SFTPReadWindow window, final long capacity, final long base, final int rounds) {
+        // Time to transfer single response at link capacity
+        final long serialization = (long) ((double) CHUNKSIZE / capacity * TimeUnit.SECONDS.toNanos(1L));
+        long now = 0L;
+        window.start(now);
+        for(int round = 0; round < rounds; round++) {
+            final int requests = window.get();
+            final long rtt = Math.max(base + serialization, requests * serialization);
+            for(int i = 0; i < requests; i++) {
+                if(0 == round) {
+                    final long burst = base + (i + 1) * serialization;
+                    window.sample(CHUNKSIZE, burst, now + burst);
+                }
+                else {
+                    window.sample(CHUNKSIZE, rtt, now + rtt * (i + 1) / requests);
+                }
+            }
+            now += 0 == round ? base + requests * serialization : rtt;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ch.cyberduck.core.sftp;
 import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.DisabledCancelCallback;
 import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.DisabledPasswordStore;
 import ch.cyberduck.core.DisabledProgressListener;
@@ -12,6 +13,7 @@ import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LoginConnectionService;
 import ch.cyberduck.core.LoginOptions;
 import ch.cyberduck.core.NullLocal;
+import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.cdn.DistributionConfiguration;
 import ch.cyberduck.core.exception.BackgroundException;
@@ -283,4 +285,27 @@ public class SFTPSessionTest extends AbstractSFTPTest {
             f.delete();
         }
     }
+
+    @Test
+    public void testMultiplexChannels() throws Exception {
+        final Host host = new Host(session.getHost().getProtocol(), session.getHost().getHostname(), session.getHost().getPort(), new Credentials("test", "test"));
+        host.setProperty("sftp.multiplex.enable", String.valueOf(true));
+        final SFTPSession first = new SFTPSession(host, new DisabledX509TrustManager(), new DefaultX509KeyManager());
+        final SFTPSession second = new SFTPSession(host, new DisabledX509TrustManager(), new DefaultX509KeyManager());
+        final LoginConnectionService login = new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+            new DisabledPasswordStore(), new DisabledProgressListener());
+        login.connect(first, new DisabledCancelCallback());
+        login.connect(second, new DisabledCancelCallback());
+        // Channel opened on same connection
+        assertSame(first.getClient(), second.getClient());
+        final Path home = new SFTPHomeDirectoryService(first).find();
+        assertNotNull(new SFTPListService(first).list(home, new DisabledListProgressListener()));
+        assertNotNull(new SFTPListService(second).list(home, new DisabledListProgressListener()));
+        first.close();
+        // Connection kept open for remaining session
+        assertTrue(second.getClient().isConnected());
+        assertNotNull(new SFTPListService(second).list(home, new DisabledListProgressListener()));
+        second.close();
+        assertFalse(second.getClient().isConnected());
+    }
 }
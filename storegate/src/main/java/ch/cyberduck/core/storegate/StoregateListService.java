@@ -21,6 +21,7 @@ import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.PrefetchingPager;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.HostPreferences;
@@ -63,21 +64,39 @@ public class StoregateListService implements ListService {
             return list;
         }
         else {
-            try {
-                final AttributedList<Path> children = new AttributedList<>();
-                int pageIndex = 0;
-                int fileCount = 0;
-                FileContents files;
-                do {
-                    files = new FilesApi(this.session.getClient()).filesGet(URIEncoder.encode(fileid.getPrefixedPath(directory)),
-                            pageIndex,
-                            chunksize,
-                            "Name asc",
-                            0, // All
-                            true,
-                            false,
-                            false
-                    );
+            final AttributedList<Path> children = new AttributedList<>();
+            try (PrefetchingPager<FileContents> pager = new PrefetchingPager<>(new PrefetchingPager.Fetcher<FileContents>() {
+                private int pageIndex = 0;
+                private int fileCount = 0;
+
+                @Override
+                public FileContents fetch(final FileContents previous) throws BackgroundException {
+                    try {
+                        final FileContents files = new FilesApi(session.getClient()).filesGet(URIEncoder.encode(fileid.getPrefixedPath(directory)),
+                                pageIndex,
+                                chunksize,
+                                "Name asc",
+                                0, // All
+                                true,
+                                false,
+                                false
+                        );
+                        pageIndex++;
+                        fileCount += files.getFiles().size();
+                        return files;
+                    }
+                    catch(ApiException e) {
+                        throw new StoregateExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
+                    }
+                }
+
+                @Override
+                public boolean hasNext(final FileContents page) {
+                    return fileCount < page.getTotalRowCount();
+                }
+            })) {
+                while(pager.hasNext()) {
+                    final FileContents files = pager.next();
                     for(File f : files.getFiles()) {
                         final PathAttributes attrs = attributes.toAttributes(f);
                         final EnumSet<Path.Type> type = (f.getFlags() & 1) == 1 ?
@@ -86,15 +105,9 @@ public class StoregateListService implements ListService {
                         children.add(new Path(directory, f.getName(), type, attrs));
                         listener.chunk(directory, children);
                     }
-                    pageIndex++;
-                    fileCount += files.getFiles().size();
                 }
-                while(fileCount < files.getTotalRowCount());
-                return children;
-            }
-            catch(ApiException e) {
-                throw new StoregateExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
             }
+            return children;
         }
     }
 }
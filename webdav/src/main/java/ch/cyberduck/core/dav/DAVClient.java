@@ -18,6 +18,7 @@ package ch.cyberduck.core.dav;
  * feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
@@ -30,18 +31,25 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.xml.namespace.QName;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.github.sardine.DavResource;
 import com.github.sardine.impl.SardineImpl;
 import com.github.sardine.impl.handler.MultiStatusResponseHandler;
 import com.github.sardine.impl.methods.HttpPropFind;
+import com.github.sardine.model.Allprop;
 import com.github.sardine.model.Multistatus;
+import com.github.sardine.model.ObjectFactory;
+import com.github.sardine.model.Prop;
 import com.github.sardine.model.Propfind;
 import com.github.sardine.model.Response;
 import com.github.sardine.util.SardineUtil;
@@ -97,6 +105,81 @@ public class DAVClient extends SardineImpl {
         return resources;
     }
 
+    /**
+     * Request same properties as {@link #list(String, int, Set)} with resources passed to callback while the
+     * response is read
+     *
+     * @param props Custom properties
+     */
+    public void list(final String url, final int depth, final Set<QName> props, final SaxPropFindResponseHandler.Callback callback) throws IOException, BackgroundException {
+        final ObjectFactory factory = new ObjectFactory();
+        final Prop prop = new Prop();
+        prop.setGetcontentlength(factory.createGetcontentlength());
+        prop.setGetlastmodified(factory.createGetlastmodified());
+        prop.setCreationdate(factory.createCreationdate());
+        prop.setDisplayname(factory.createDisplayname());
+        prop.setGetcontenttype(factory.createGetcontenttype());
+        prop.setResourcetype(factory.createResourcetype());
+        prop.setGetetag(factory.createGetetag());
+        prop.setLockdiscovery(factory.createLockdiscovery());
+        for(QName name : props) {
+            prop.getAny().add(SardineUtil.createElement(name));
+        }
+        final Propfind body = new Propfind();
+        body.setProp(prop);
+        this.propfind(url, depth, body, callback);
+    }
+
+    /**
+     * @param allProp Request all properties
+     */
+    public void list(final String url, final int depth, final boolean allProp, final SaxPropFindResponseHandler.Callback callback) throws IOException, BackgroundException {
+        if(allProp) {
+            final Propfind body = new Propfind();
+            body.setAllprop(new Allprop());
+            this.propfind(url, depth, body, callback);
+        }
+        else {
+            this.list(url, depth, Collections.emptySet(), callback);
+        }
+    }
+
+    /**
+     * Parse multistatus response with resources passed to callback while reading the body. Request is aborted
+     * when the callback fails.
+     */
+    public void propfind(final String url, final int depth, final Propfind body, final SaxPropFindResponseHandler.Callback callback) throws IOException, BackgroundException {
+        if(!PreferencesFactory.get().getBoolean("webdav.list.handler.sax")) {
+            for(DavResource resource : this.propfind(url, depth, body)) {
+                callback.resource(resource);
+            }
+            return;
+        }
+        final HttpPropFind entity = new HttpPropFind(url);
+        entity.setDepth(depth < 0 ? "infinity" : Integer.toString(depth));
+        entity.setEntity(new StringEntity(SardineUtil.toXml(body), StandardCharsets.UTF_8));
+        final AtomicReference<BackgroundException> failure = new AtomicReference<>();
+        try {
+            this.execute(entity, new SaxPropFindResponseHandler(resource -> {
+                try {
+                    callback.resource(resource);
+                }
+                catch(BackgroundException e) {
+                    failure.set(e);
+                    // Skip reading remainder of response
+                    entity.abort();
+                    throw e;
+                }
+            }));
+        }
+        catch(IOException e) {
+            if(failure.get() != null) {
+                throw failure.get();
+            }
+            throw e;
+        }
+    }
+
     public HttpClientContext context() {
         return context;
     }
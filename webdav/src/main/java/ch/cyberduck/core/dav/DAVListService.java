@@ -26,17 +26,21 @@ import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.http.HttpExceptionMappingService;
+import ch.cyberduck.core.preferences.HostPreferences;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.util.EnumSet;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import com.github.sardine.DavResource;
 import com.github.sardine.impl.SardineException;
 
 public class DAVListService implements ListService {
@@ -58,14 +62,15 @@ public class DAVListService implements ListService {
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         try {
             final AttributedList<Path> children = new AttributedList<Path>();
-            for(final DavResource resource : this.list(directory)) {
+            // Add files while parsing the response
+            this.list(directory, 1, resource -> {
                 // Try to parse as RFC 2396
                 final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
                 if(href.equals(directory.getAbsolute())) {
                     log.warn(String.format("Ignore resource %s", href));
                     // Do not include self
                     if(resource.isDirectory()) {
-                        continue;
+                        return;
                     }
                     throw new NotfoundException(directory.getAbsolute());
                 }
@@ -74,7 +79,7 @@ public class DAVListService implements ListService {
                     resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file), attr);
                 children.add(file);
                 listener.chunk(directory, children);
-            }
+            });
             return children;
         }
         catch(SardineException e) {
@@ -85,11 +90,127 @@ public class DAVListService implements ListService {
         }
     }
 
-    protected List<DavResource> list(final Path directory) throws IOException {
-        return session.getClient().list(new DAVPathEncoder().encode(directory), 1,
+    @Override
+    public boolean isRecursive(final Path directory) {
+        return session.isRecursiveListingSupported() && new HostPreferences(session.getHost()).getBoolean("webdav.listing.recursive.enable");
+    }
+
+    /**
+     * List all descendants with a single request with depth infinity. Falls back to listing each directory when the
+     * server rejects the request or only replies with the immediate children.
+     */
+    @Override
+    public AttributedList<Path> listRecursive(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        if(!this.isRecursive(directory)) {
+            return ListService.super.listRecursive(directory, listener);
+        }
+        final String prefix = directory.isRoot() ? directory.getAbsolute() : directory.getAbsolute() + Path.DELIMITER;
+        final AttributedList<Path> list = new AttributedList<>();
+        // Directories by path to lookup parent of resources in response
+        final Map<String, Path> directories = new HashMap<>();
+        directories.put(directory.getAbsolute(), directory);
+        final AtomicBoolean nested = new AtomicBoolean();
+        try {
+            // Add files while parsing the response
+            this.list(directory, -1, resource -> {
+                final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
+                if(href.equals(directory.getAbsolute()) || !StringUtils.startsWith(href, prefix)) {
+                    log.warn(String.format("Ignore resource %s", href));
+                    return;
+                }
+                final PathAttributes attr = attributes.toAttributes(resource);
+                if(resource.isDirectory() && directories.containsKey(href)) {
+                    // Intermediate directory added for descendant received before
+                    directories.get(href).setAttributes(attr);
+                    return;
+                }
+                final Path parent = parent(href, directories, list);
+                if(parent != directory) {
+                    nested.set(true);
+                }
+                final Path file = new Path(parent, PathNormalizer.name(href),
+                    resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file), attr);
+                if(file.isDirectory()) {
+                    directories.put(href, file);
+                }
+                list.add(file);
+                listener.chunk(directory, list);
+            });
+        }
+        catch(SaxPropFindResponseHandler.FiniteDepthException e) {
+            session.setRecursiveListingUnsupported();
+            return ListService.super.listRecursive(directory, listener);
+        }
+        catch(SardineException e) {
+            switch(e.getStatusCode()) {
+                case HttpStatus.SC_BAD_REQUEST:
+                case HttpStatus.SC_NOT_IMPLEMENTED:
+                    session.setRecursiveListingUnsupported();
+                    return ListService.super.listRecursive(directory, listener);
+            }
+            throw new DAVExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(IOException e) {
+            throw new HttpExceptionMappingService().map(e, directory);
+        }
+        if(nested.get()) {
+            session.setRecursiveListingVerified();
+            return list;
+        }
+        if(session.isRecursiveListingVerified()) {
+            // Server replied with descendants before
+            return list;
+        }
+        // Server may silently reply with depth 1 only
+        final AttributedList<Path> result = new AttributedList<>();
+        for(Path f : list) {
+            result.add(f);
+            if(f.isDirectory()) {
+                if(session.isRecursiveListingSupported()) {
+                    // Probe until a directory is found with children missing in response
+                    final AttributedList<Path> children = this.list(f, listener);
+                    if(children.isEmpty()) {
+                        continue;
+                    }
+                    session.setRecursiveListingUnsupported();
+                    for(Path child : children) {
+                        result.add(child);
+                        if(child.isDirectory()) {
+                            result.addAll(ListService.super.listRecursive(child, listener));
+                        }
+                    }
+                }
+                else {
+                    result.addAll(ListService.super.listRecursive(f, listener));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add intermediate directory missing in response
+     */
+    private static Path parent(final String href, final Map<String, Path> directories, final AttributedList<Path> result) {
+        final String name = PathNormalizer.parent(href, Path.DELIMITER);
+        Path parent = directories.get(name);
+        if(null == parent) {
+            parent = new Path(parent(name, directories, result), PathNormalizer.name(name), EnumSet.of(Path.Type.directory));
+            directories.put(name, parent);
+            result.add(parent);
+        }
+        return parent;
+    }
+
+    /**
+     * @param depth    Depth of request or -1 for infinity
+     * @param callback Notified for every resource in the response
+     */
+    protected void list(final Path directory, final int depth, final SaxPropFindResponseHandler.Callback callback) throws IOException, BackgroundException {
+        session.getClient().list(new DAVPathEncoder().encode(directory), depth,
             Stream.of(
                 DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE,
                 DAVTimestampFeature.LAST_MODIFIED_SERVER_CUSTOM_NAMESPACE).
-                collect(Collectors.toSet()));
+                collect(Collectors.toSet()), callback);
     }
 }
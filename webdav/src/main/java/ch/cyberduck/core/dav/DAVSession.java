@@ -94,6 +94,15 @@ public class DAVSession extends HttpSession<DAVClient> {
     private AttributesFinder attributes = new DAVAttributesFinderFeature(this);
     private Find find = new DAVFindFeature(this);
 
+    /**
+     * Server rejected or truncated PROPFIND with depth infinity
+     */
+    private volatile boolean recursive = true;
+    /**
+     * Server replied before with descendants to PROPFIND with depth infinity
+     */
+    private volatile boolean verified = false;
+
     public DAVSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         this(host, trust, key, new PreferencesRedirectCallback());
     }
@@ -342,6 +351,35 @@ public class DAVSession extends HttpSession<DAVClient> {
         return super._getFeature(type);
     }
 
+    /**
+     * @return False if server replied before that listing with depth infinity is not supported
+     */
+    public boolean isRecursiveListingSupported() {
+        return recursive;
+    }
+
+    /**
+     * List each directory in subsequent operations
+     */
+    public void setRecursiveListingUnsupported() {
+        log.warn(String.format("PROPFIND with depth infinity not supported by %s", host));
+        recursive = false;
+    }
+
+    /**
+     * @return True if server replied before with nested resources to PROPFIND with depth infinity
+     */
+    public boolean isRecursiveListingVerified() {
+        return verified;
+    }
+
+    /**
+     * Trust replies to PROPFIND with depth infinity without nested resources in subsequent operations
+     */
+    public void setRecursiveListingVerified() {
+        verified = true;
+    }
+
     private final class MicrosoftIISFeaturesResponseHandler extends ValidatingResponseHandler<Void> {
         @Override
         public Void handleResponse(final HttpResponse response) throws IOException {
@@ -15,7 +15,12 @@ package ch.cyberduck.core.dav;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.exception.BackgroundException;
+
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.w3c.dom.Element;
@@ -33,7 +38,10 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 
+import com.github.sardine.DavResource;
+import com.github.sardine.impl.SardineException;
 import com.github.sardine.impl.handler.MultiStatusResponseHandler;
 import com.github.sardine.model.*;
 import com.github.sardine.util.SardineUtil;
@@ -41,14 +49,30 @@ import com.github.sardine.util.SardineUtil;
 public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
     private static final Logger log = LogManager.getLogger(SaxPropFindResponseHandler.class);
 
+    /**
+     * Parser reused for responses handled on the same thread
+     */
+    private static final ThreadLocal<SAXParser> parsers = new ThreadLocal<>();
+
+    private final Callback callback;
+
+    public SaxPropFindResponseHandler() {
+        this(null);
+    }
+
+    /**
+     * @param callback Notified for every response element while reading the body. Responses are not added to
+     *                 the returned multistatus.
+     */
+    public SaxPropFindResponseHandler(final Callback callback) {
+        this.callback = callback;
+    }
+
     @Override
     protected Multistatus getMultistatus(final InputStream stream) throws IOException {
-        final SAXParserFactory spf = SAXParserFactory.newInstance();
-        spf.setNamespaceAware(true);
         try {
-            final SAXParser saxParser = spf.newSAXParser();
-            final XMLReader xmlReader = saxParser.getXMLReader();
-            final SaxHandler handler = new SaxHandler();
+            final XMLReader xmlReader = parser().getXMLReader();
+            final SaxHandler handler = new SaxHandler(callback);
             xmlReader.setContentHandler(handler);
             xmlReader.setErrorHandler(new LoggingErrorHandler());
             xmlReader.parse(new InputSource(stream));
@@ -59,8 +83,59 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
         }
     }
 
+    private static SAXParser parser() throws ParserConfigurationException, SAXException {
+        final SAXParser parser = parsers.get();
+        if(null == parser) {
+            final SAXParserFactory spf = SAXParserFactory.newInstance();
+            spf.setNamespaceAware(true);
+            final SAXParser created = spf.newSAXParser();
+            parsers.set(created);
+            return created;
+        }
+        parser.reset();
+        return parser;
+    }
+
+    /**
+     * Distinguish rejected PROPFIND with depth infinity from other forbidden requests
+     */
+    @Override
+    protected void validateResponse(final HttpResponse response) throws SardineException {
+        if(HttpStatus.SC_FORBIDDEN == response.getStatusLine().getStatusCode() && null != response.getEntity()) {
+            try {
+                // Precondition propfind-finite-depth in RFC 4918
+                if(StringUtils.contains(EntityUtils.toString(response.getEntity()), "propfind-finite-depth")) {
+                    throw new FiniteDepthException(response.getStatusLine().getReasonPhrase());
+                }
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure reading error response. %s", e.getMessage()));
+            }
+        }
+        super.validateResponse(response);
+    }
+
+    /**
+     * Server does not allow PROPFIND with depth infinity
+     */
+    public static final class FiniteDepthException extends SardineException {
+        public FiniteDepthException(final String phrase) {
+            super("Unexpected response", HttpStatus.SC_FORBIDDEN, phrase);
+        }
+    }
+
+    public interface Callback {
+        /**
+         * @param resource Resource of response element parsed
+         * @throws BackgroundException Stop parsing
+         */
+        void resource(DavResource resource) throws BackgroundException;
+    }
+
     private static final class SaxHandler extends DefaultHandler {
 
+        private final Callback callback;
+
         private Multistatus multistatus;
         private Response response;
         private Propstat propstat;
@@ -73,6 +148,10 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
         private final StringBuilder text = new StringBuilder();
         private final Element root = SardineUtil.createElement(SardineUtil.createQNameWithCustomNamespace("root"));
 
+        public SaxHandler(final Callback callback) {
+            this.callback = callback;
+        }
+
         @Override
         public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
             switch(localName) {
@@ -81,7 +160,7 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
                     break;
                 case "response":
                     response = new Response();
-                    if(multistatus != null) {
+                    if(multistatus != null && callback == null) {
                         multistatus.getResponse().add(response);
                     }
                     break;
@@ -135,7 +214,24 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
         }
 
         @Override
-        public void endElement(final String uri, final String localName, final String qName) {
+        public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+            if(callback != null && response != null) {
+                if("response".equals(localName) && SardineUtil.DEFAULT_NAMESPACE_URI.equals(uri)) {
+                    try {
+                        callback.resource(new DavResource(response));
+                    }
+                    catch(URISyntaxException e) {
+                        log.warn(String.format("Ignore resource with invalid URI %s", response.getHref()));
+                    }
+                    catch(BackgroundException e) {
+                        throw new SAXException(e);
+                    }
+                    response = null;
+                    propstat = null;
+                    prop = null;
+                    return;
+                }
+            }
             if(StringUtils.isBlank(text.toString())) {
                 return;
             }
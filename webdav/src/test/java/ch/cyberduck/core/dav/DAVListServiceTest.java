@@ -34,6 +34,8 @@ import org.junit.experimental.categories.Category;
 import java.util.Collections;
 import java.util.EnumSet;
 
+import static org.junit.Assert.*;
+
 @Category(IntegrationTest.class)
 public class DAVListServiceTest extends AbstractDAVTest {
 
@@ -55,4 +57,23 @@ public class DAVListServiceTest extends AbstractDAVTest {
             new DAVDeleteFeature(session).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
         }
     }
+
+    @Test
+    public void testListRecursive() throws Exception {
+        final Path home = new DefaultHomeFinderService(session).find();
+        final Path directory = new DAVDirectoryFeature(session).mkdir(new Path(home,
+                new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), new TransferStatus());
+        final Path subdirectory = new DAVDirectoryFeature(session).mkdir(new Path(directory,
+                new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), new TransferStatus());
+        final Path file = new DAVTouchFeature(session).touch(new Path(subdirectory,
+                new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        final DAVListService service = new DAVListService(session);
+        assertTrue(service.isRecursive(directory));
+        final AttributedList<Path> list = service.listRecursive(directory, new DisabledListProgressListener());
+        assertEquals(2, list.size());
+        assertEquals(subdirectory, list.get(0));
+        assertEquals(file, list.get(1));
+        assertEquals(subdirectory, list.get(1).getParent());
+        new DAVDeleteFeature(session).delete(Collections.singletonList(directory), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
 }
@@ -0,0 +1,120 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.sardine.DavResource;
+import com.github.sardine.impl.SardineException;
+import com.github.sardine.model.Multistatus;
+
+import static org.junit.Assert.*;
+
+public class SaxPropFindResponseHandlerTest {
+
+    private static final String MULTISTATUS = "<?xml version=\"1.0\" encoding=\"utf-8\"?>" +
+            "<d:multistatus xmlns:d=\"DAV:\">" +
+            "<d:response><d:href>/d/</d:href><d:propstat><d:prop>" +
+            "<d:resourcetype><d:collection/></d:resourcetype>" +
+            "</d:prop><d:status>HTTP/1.1 200 OK</d:status></d:propstat></d:response>" +
+            "<d:response><d:href>/d/a</d:href><d:propstat><d:prop>" +
+            "<d:getcontentlength>3</d:getcontentlength><d:getetag>\"e\"</d:getetag>" +
+            "</d:prop><d:status>HTTP/1.1 200 OK</d:status></d:propstat></d:response>" +
+            "<d:response><d:href>/d/b</d:href><d:propstat><d:prop>" +
+            "<d:getcontentlength>5</d:getcontentlength>" +
+            "</d:prop><d:status>HTTP/1.1 200 OK</d:status></d:propstat></d:response>" +
+            "</d:multistatus>";
+
+    @Test
+    public void testMultistatus() throws Exception {
+        final Multistatus multistatus = new SaxPropFindResponseHandler().getMultistatus(this.stream());
+        assertEquals(3, multistatus.getResponse().size());
+        // Parser reused for next response on same thread
+        assertEquals(3, new SaxPropFindResponseHandler().getMultistatus(this.stream()).getResponse().size());
+    }
+
+    @Test
+    public void testCallback() throws Exception {
+        final List<DavResource> resources = new ArrayList<>();
+        final Multistatus multistatus = new SaxPropFindResponseHandler(resources::add).getMultistatus(this.stream());
+        assertTrue(multistatus.getResponse().isEmpty());
+        assertEquals(3, resources.size());
+        assertEquals("/d/", resources.get(0).getHref().getPath());
+        assertTrue(resources.get(0).isDirectory());
+        assertEquals("/d/a", resources.get(1).getHref().getPath());
+        assertEquals(3L, resources.get(1).getContentLength(), 0L);
+        assertEquals("\"e\"", resources.get(1).getEtag());
+        assertFalse(resources.get(1).isDirectory());
+        assertEquals("/d/b", resources.get(2).getHref().getPath());
+        assertEquals(5L, resources.get(2).getContentLength(), 0L);
+    }
+
+    @Test
+    public void testCallbackFailure() throws Exception {
+        final List<DavResource> resources = new ArrayList<>();
+        try {
+            new SaxPropFindResponseHandler(resource -> {
+                resources.add(resource);
+                throw new ConnectionCanceledException();
+            }).getMultistatus(this.stream());
+            fail();
+        }
+        catch(IOException e) {
+            // Stop parsing after first response
+            assertEquals(1, resources.size());
+        }
+    }
+
+    @Test(expected = SaxPropFindResponseHandler.FiniteDepthException.class)
+    public void testFiniteDepth() throws Exception {
+        final BasicHttpResponse response = new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_FORBIDDEN, "Forbidden"));
+        response.setEntity(new StringEntity("<?xml version=\"1.0\" encoding=\"utf-8\"?>" +
+                "<d:error xmlns:d=\"DAV:\"><d:propfind-finite-depth/></d:error>", StandardCharsets.UTF_8));
+        new SaxPropFindResponseHandler().handleResponse(response);
+    }
+
+    @Test
+    public void testForbidden() throws Exception {
+        final BasicHttpResponse response = new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_FORBIDDEN, "Forbidden"));
+        response.setEntity(new StringEntity("Access denied", StandardCharsets.UTF_8));
+        try {
+            new SaxPropFindResponseHandler().handleResponse(response);
+            fail();
+        }
+        catch(SardineException e) {
+            assertFalse(e instanceof SaxPropFindResponseHandler.FiniteDepthException);
+            assertEquals(HttpStatus.SC_FORBIDDEN, e.getStatusCode());
+        }
+    }
+
+    private InputStream stream() {
+        return new ByteArrayInputStream(MULTISTATUS.getBytes(StandardCharsets.UTF_8));
+    }
+}